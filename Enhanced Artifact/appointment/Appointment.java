@@ -1,10 +1,13 @@
 package appointment;
 
+import java.io.Serializable;
 import java.time.LocalTime;
 import java.time.LocalDate;
 
 //Isolated object class, validation is now external
-public class Appointment {
+public class Appointment implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	private String id;
 	private LocalDate date;
 	private LocalTime time;
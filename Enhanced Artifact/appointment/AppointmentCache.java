@@ -0,0 +1,144 @@
+package appointment;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU cache of appointments by id, with a time to live and hit/miss counters
+// Entries are kept as immutable values with interned consultant names and locations, callers receive
+// their own mutable copy so changing a returned appointment never changes the cache
+// Strings are interned through a pool owned by this cache, so high-cardinality client names cannot fill
+// the pool shared by the rest of the process
+public class AppointmentCache {
+
+	private final int maxSize;
+	private final long ttlNanos;
+	private final LinkedHashMap<String, Entry> entries;
+	private final InternPool pool; // About three strings per entry, started over once full
+
+	// Bumped on every invalidation, a load that started before an invalidation is not cached
+	private long writeEpoch;
+
+	// Statistics
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	private static class Entry {
+		private final ImmutableAppointment appointment;
+		private final long expiresAt;
+
+		Entry(ImmutableAppointment appointment, long expiresAt) {
+			this.appointment = appointment;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	// Loads an appointment on a cache miss, e.g. the database lookup
+	@FunctionalInterface
+	public interface Loader {
+		Appointment load(String id) throws java.sql.SQLException;
+	}
+
+	// Constructor
+	public AppointmentCache(int maxSize, Duration ttl) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Cache size must be greater than zero.");
+		}
+		this.maxSize = maxSize;
+		this.ttlNanos = ttl.toNanos();
+		this.pool = new InternPool(Math.max(1024, 3 * maxSize));
+		// Access order turns the map into an LRU list, the eldest entry is the least recently used
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > AppointmentCache.this.maxSize) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	// Read-through lookup: return the cached copy or load, cache and return it
+	public Appointment get(String id, Loader loader) throws java.sql.SQLException {
+		long epoch;
+		synchronized (this) {
+			Entry entry = entries.get(id);
+			if (entry != null) {
+				if (System.nanoTime() - entry.expiresAt < 0) {
+					hits++;
+					return entry.appointment.toAppointment();
+				}
+				entries.remove(id); // Expired
+			}
+			misses++;
+			epoch = writeEpoch;
+		}
+
+		// Load outside the lock so one slow query does not block other readers
+		Appointment loaded = loader.load(id);
+		if (loaded != null) {
+			synchronized (this) {
+				// Skip caching if a write happened while loading, the row may already be stale
+				if (epoch == writeEpoch) {
+					entries.put(id, new Entry(intern(loaded), System.nanoTime() + ttlNanos));
+				}
+			}
+		}
+		return loaded;
+	}
+
+	// Immutable copy interned through this cache's pool
+	// A full pool has mostly seen values of evicted entries, so it starts over instead of stopping sharing
+	private ImmutableAppointment intern(Appointment appointment) {
+		if (pool.size() >= pool.getCapacity()) {
+			pool.clear();
+		}
+		return ImmutableAppointment.builder(pool).from(appointment).build();
+	}
+
+	// Drop an entry after the row was changed or deleted
+	public synchronized void invalidate(String id) {
+		writeEpoch++;
+		entries.remove(id);
+	}
+
+	// Drop every entry
+	public synchronized void invalidateAll() {
+		writeEpoch++;
+		entries.clear();
+	}
+
+	// Getters for statistics
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	// Share of lookups answered from the cache, 0 before the first lookup
+	public synchronized double getHitRatio() {
+		long total = hits + misses;
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "AppointmentCache[size=" + entries.size() + ", hits=" + hits + ", misses=" + misses + ", evictions="
+				+ evictions + "]";
+	}
+}
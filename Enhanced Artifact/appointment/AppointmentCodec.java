@@ -0,0 +1,240 @@
+package appointment;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+
+// Compact, versioned binary form of an appointment for the change log, the file store and transfers
+// between nodes. Version 1 layout, big-endian:
+//   0  byte   format version
+//   1  byte   flags
+//   2  long   id UUID most significant bits  (zero when the id is not a canonical UUID)
+//   10 long   id UUID least significant bits
+//   18 int    date as epoch day
+//   22 short  time as minute of day
+//   24 short  duration in minutes
+//   26 byte   consultation type ordinal
+//   27 byte   status ordinal
+//   28        id (non-UUID ids only), location, client name, consultant name, description,
+//             then seconds of the minute and the full duration when flagged
+// Strings are a varint header followed by UTF-8: 0 for null, 2 * (length + 1) for an inline string,
+// 2 * id + 1 for a dictionary entry. Fixed fields can be read in place without decoding the record
+public class AppointmentCodec {
+
+	public static final byte VERSION = 1;
+	public static final int FIXED_SIZE = 28;
+
+	private static final int FLAG_UUID_ID = 1;
+	private static final int FLAG_SECONDS = 2;
+	private static final int FLAG_LONG_DURATION = 4;
+
+	private static final ConsultationType[] CONSULTATION_TYPES = ConsultationType.values();
+	private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+
+	private final StringDictionary dictionary; // null writes every string inline
+
+	// Constructor writing every string inline, for data that outlives the process
+	public AppointmentCodec() {
+		this(null);
+	}
+
+	// Constructor writing dictionary strings as ids, decoders must share the same dictionary
+	public AppointmentCodec(StringDictionary dictionary) {
+		this.dictionary = dictionary;
+	}
+
+	// Encode into the buffer at its position, advancing it; returns the number of bytes written
+	// Times are kept to the second, like the appointments table's TIME column
+	public int encode(Appointment appointment, ByteBuffer out) {
+		int start = out.position();
+		String id = requireField(appointment.getId(), "id");
+		LocalTime time = requireField(appointment.getTime(), "time");
+		UUID uuid = canonicalUuid(id);
+		int duration = appointment.getDuration();
+		boolean longDuration = duration < 0 || duration > Short.MAX_VALUE;
+		int flags = (uuid != null ? FLAG_UUID_ID : 0) | (time.getSecond() != 0 ? FLAG_SECONDS : 0)
+				| (longDuration ? FLAG_LONG_DURATION : 0);
+
+		out.put(VERSION);
+		out.put((byte) flags);
+		out.putLong(uuid != null ? uuid.getMostSignificantBits() : 0);
+		out.putLong(uuid != null ? uuid.getLeastSignificantBits() : 0);
+		out.putInt((int) requireField(appointment.getDate(), "date").toEpochDay());
+		out.putShort((short) (time.getHour() * 60 + time.getMinute()));
+		out.putShort(longDuration ? 0 : (short) duration);
+		out.put((byte) requireField(appointment.getConsultationType(), "consultation type").ordinal());
+		out.put((byte) requireField(appointment.getStatus(), "status").ordinal());
+
+		if (uuid == null) {
+			writeString(out, id);
+		}
+		writeString(out, appointment.getLocation());
+		writeString(out, appointment.getClientName());
+		writeString(out, appointment.getConsultantName());
+		writeString(out, appointment.getDescription());
+		if (time.getSecond() != 0) {
+			out.put((byte) time.getSecond());
+		}
+		if (longDuration) {
+			out.putInt(duration);
+		}
+		return out.position() - start;
+	}
+
+	// Encode into a new array of exactly the encoded size
+	public byte[] encode(Appointment appointment) {
+		ByteBuffer buffer = ByteBuffer.allocate(maxEncodedSize(appointment));
+		encode(appointment, buffer);
+		byte[] bytes = new byte[buffer.position()];
+		buffer.flip().get(bytes);
+		return bytes;
+	}
+
+	// Upper bound on the encoded size, for sizing buffers
+	public static int maxEncodedSize(Appointment appointment) {
+		return FIXED_SIZE + 5 + 4 + maxStringSize(appointment.getId()) + maxStringSize(appointment.getLocation())
+				+ maxStringSize(appointment.getClientName()) + maxStringSize(appointment.getConsultantName())
+				+ maxStringSize(appointment.getDescription());
+	}
+
+	// Decode the appointment at the buffer's position, advancing it past the record
+	// Heap buffers are decoded straight from their backing array; no intermediate copies are made
+	public Appointment decode(ByteBuffer in) {
+		int start = in.position();
+		if (in.remaining() < FIXED_SIZE) {
+			throw new BufferUnderflowException();
+		}
+		byte version = in.get(start);
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unsupported appointment format version " + version);
+		}
+		int flags = in.get(start + 1);
+		LocalDate date = date(in, start);
+		int minuteOfDay = in.getShort(start + 22);
+		int duration = in.getShort(start + 24);
+		ConsultationType consultationType = CONSULTATION_TYPES[in.get(start + 26)];
+		AppointmentStatus status = STATUSES[in.get(start + 27)];
+		in.position(start + FIXED_SIZE);
+
+		String id = (flags & FLAG_UUID_ID) != 0 ? new UUID(in.getLong(start + 2), in.getLong(start + 10)).toString()
+				: readString(in);
+		String location = readString(in);
+		String clientName = readString(in);
+		String consultantName = readString(in);
+		String description = readString(in);
+		int second = (flags & FLAG_SECONDS) != 0 ? in.get() : 0;
+		if ((flags & FLAG_LONG_DURATION) != 0) {
+			duration = in.getInt();
+		}
+		LocalTime time = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60, second);
+		return new Appointment(id, date, time, location, clientName, consultantName, description, duration,
+				consultationType, status);
+	}
+
+	// In-place readers of the fixed fields of a record starting at offset, e.g. for filtering a log
+	// without decoding whole records
+
+	public static LocalDate date(ByteBuffer record, int offset) {
+		return LocalDate.ofEpochDay(record.getInt(offset + 18));
+	}
+
+	public static int minuteOfDay(ByteBuffer record, int offset) {
+		return record.getShort(offset + 22);
+	}
+
+	public static AppointmentStatus status(ByteBuffer record, int offset) {
+		return STATUSES[record.get(offset + 27)];
+	}
+
+	private void writeString(ByteBuffer out, String value) {
+		if (value == null) {
+			writeVarint(out, 0);
+			return;
+		}
+		if (dictionary != null) {
+			int id = dictionary.idOf(value);
+			if (id >= 0) {
+				writeVarint(out, 2 * id + 1);
+				return;
+			}
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarint(out, 2 * (bytes.length + 1));
+		out.put(bytes);
+	}
+
+	private String readString(ByteBuffer in) {
+		int header = readVarint(in);
+		if (header == 0) {
+			return null;
+		}
+		if ((header & 1) != 0) {
+			if (dictionary == null) {
+				throw new IllegalArgumentException("Record uses a string dictionary, but none was given.");
+			}
+			return dictionary.lookup(header >>> 1);
+		}
+		int length = (header >>> 1) - 1;
+		String value;
+		if (in.hasArray()) {
+			value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+		} else {
+			byte[] bytes = new byte[length];
+			in.get(in.position(), bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+		in.position(in.position() + length);
+		return value;
+	}
+
+	private static void writeVarint(ByteBuffer out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.put((byte) value);
+	}
+
+	private static int readVarint(ByteBuffer in) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = in.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed string header.");
+	}
+
+	// A UTF-8 character takes at most three bytes per UTF-16 char, plus a five byte header
+	private static int maxStringSize(String value) {
+		return value == null ? 1 : 5 + 3 * value.length();
+	}
+
+	// The id as a UUID if it is one in canonical lowercase form, so it decodes to the same string
+	private static UUID canonicalUuid(String id) {
+		if (id.length() != 36) {
+			return null;
+		}
+		try {
+			UUID uuid = UUID.fromString(id);
+			return uuid.toString().equals(id) ? uuid : null;
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static <T> T requireField(T value, String field) {
+		if (value == null) {
+			throw new IllegalArgumentException("Appointment " + field + " is required for encoding.");
+		}
+		return value;
+	}
+}
@@ -0,0 +1,106 @@
+package appointment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+
+// Throughput of AppointmentCodec against Java serialization, one appointment per message
+// Run with: java appointment.AppointmentCodecBenchmark [appointments] [rounds]
+public class AppointmentCodecBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		List<Appointment> appointments = sampleAppointments(count);
+
+		AppointmentCodec plain = new AppointmentCodec();
+		AppointmentCodec withDictionary = new AppointmentCodec(new StringDictionary(4096));
+
+		// Early rounds warm up the JIT, the last round is reported
+		for (int round = 1; round <= rounds; round++) {
+			boolean report = round == rounds;
+			runCodec("codec", plain, appointments, report);
+			runCodec("codec + dictionary", withDictionary, appointments, report);
+			runSerialization(appointments, report);
+		}
+	}
+
+	private static void runCodec(String name, AppointmentCodec codec, List<Appointment> appointments, boolean report) {
+		ByteBuffer buffer = ByteBuffer.allocate(1024 * appointments.size() / 4 + 1024);
+		long start = System.nanoTime();
+		for (Appointment appointment : appointments) {
+			codec.encode(appointment, buffer);
+		}
+		long encodeNanos = System.nanoTime() - start;
+		int bytes = buffer.position();
+
+		buffer.flip();
+		long checksum = 0;
+		start = System.nanoTime();
+		while (buffer.hasRemaining()) {
+			checksum += codec.decode(buffer).getDuration();
+		}
+		long decodeNanos = System.nanoTime() - start;
+		if (report) {
+			print(name, appointments.size(), bytes, encodeNanos, decodeNanos, checksum);
+		}
+	}
+
+	private static void runSerialization(List<Appointment> appointments, boolean report)
+			throws IOException, ClassNotFoundException {
+		List<byte[]> messages = new ArrayList<>(appointments.size());
+		int bytes = 0;
+		long start = System.nanoTime();
+		for (Appointment appointment : appointments) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+			try (ObjectOutputStream objects = new ObjectOutputStream(out)) {
+				objects.writeObject(appointment);
+			}
+			byte[] message = out.toByteArray();
+			bytes += message.length;
+			messages.add(message);
+		}
+		long encodeNanos = System.nanoTime() - start;
+
+		long checksum = 0;
+		start = System.nanoTime();
+		for (byte[] message : messages) {
+			try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(message))) {
+				checksum += ((Appointment) objects.readObject()).getDuration();
+			}
+		}
+		long decodeNanos = System.nanoTime() - start;
+		if (report) {
+			print("java serialization", appointments.size(), bytes, encodeNanos, decodeNanos, checksum);
+		}
+	}
+
+	private static void print(String name, int count, int bytes, long encodeNanos, long decodeNanos, long checksum) {
+		System.out.printf("%-20s %7.1f bytes/appointment  encode %,12.0f/s  decode %,12.0f/s  (checksum %d)%n",
+				name, (double) bytes / count, count * 1e9 / encodeNanos, count * 1e9 / decodeNanos, checksum);
+	}
+
+	// Appointments shaped like production data: UUID ids, a few hundred consultants and offices
+	static List<Appointment> sampleAppointments(int count) {
+		List<Appointment> appointments = new ArrayList<>(count);
+		LocalDate firstDay = LocalDate.of(2030, 1, 1);
+		for (int i = 0; i < count; i++) {
+			appointments.add(new Appointment(UUID.randomUUID().toString(), firstDay.plusDays(i % 365),
+					LocalTime.of(8 + i % 9, (i % 4) * 15), "Office " + (i % 40), "Client " + i,
+					"Consultant " + (i % 300), i % 3 == 0 ? null : "Quarterly review", 15 + (i % 4) * 15,
+					ConsultationType.values()[i % 3], AppointmentStatus.values()[i % 3]));
+		}
+		return appointments;
+	}
+}
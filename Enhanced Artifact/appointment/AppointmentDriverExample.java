@@ -5,14 +5,15 @@ import security.User;
 import security.User.UserRole;
 import security.UserRepository;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.UUID;
 
+import javax.sql.DataSource;
+
 import appointment.Appointment.AppointmentStatus;
 import appointment.Appointment.ConsultationType;
 
@@ -22,13 +23,20 @@ public class AppointmentDriverExample {
 	// after attempting to add an appointment
 	public static void main(String[] args) {
 		try {
-			// Set up DB connection
-			Connection connection = HikariCPDataSource.getConnection();
+			// Set up DB connection pool, repositories borrow a connection per operation
+			DataSource dataSource = HikariCPDataSource.getDataSource();
+
+			// Apply pending schema migrations before anything reads or writes the tables
+			for (Migration migration : new MigrationRunner(dataSource, AppointmentSchema.MIGRATIONS).migrate()) {
+				System.out.println("Applied " + migration);
+			}
 
 			// Create repository objects
-			AppointmentRepository appointmentRepository = new AppointmentRepository(connection);
+			// Repeated lookups by id are served from a bounded cache
+			AppointmentRepository appointmentRepository = new JdbcAppointmentRepository(dataSource,
+					new AppointmentCache(10000, Duration.ofMinutes(10)));
 			AppointmentValidator appointmentValidator = new AppointmentValidator();
-			UserRepository userRepository = new UserRepository(connection);
+			UserRepository userRepository = new UserRepository(dataSource);
 
 			// Create a new user
 			String consultantUsername = "Billy Mays";
@@ -48,8 +56,9 @@ public class AppointmentDriverExample {
 				System.out.println("Login successful. User Name: " + loggedInUser.getUsername() + ". User role: " + loggedInUser.getRole());
 
 				// Initialize the appointment service with the logged in user
+				// Availability checks read consultant-days from the schedule cache
 				AppointmentService appointmentService = new AppointmentService(appointmentRepository,
-						appointmentValidator, loggedInUser);
+						appointmentValidator, loggedInUser, new ScheduleCache(50000, Duration.ofMinutes(1)));
 
 				// Define working hours
 				LocalTime workingStart = LocalTime.of(3, 0);
@@ -67,7 +76,7 @@ public class AppointmentDriverExample {
 				availableSlots.forEach(System.out::println);
 
 				// Add an appointment
-				Appointment newAppointment = new Appointment(UUID.randomUUID().toString(), specificDate,
+				Appointment newAppointment = new Appointment(AppointmentIds.next(), specificDate,
 						specificTime, "Meeting room Office 2", "Bill Clientson", loggedInUser.getUsername(),
 						"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
 
@@ -87,6 +96,9 @@ public class AppointmentDriverExample {
 
 		} catch (SQLException e) {
 			e.printStackTrace();
+		} finally {
+			// Release pooled connections on exit
+			HikariCPDataSource.close();
 		}
 	}
 }
@@ -0,0 +1,119 @@
+package appointment;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+// Insert rate into MySQL as the table grows, for three primary key choices:
+//   random UUID strings in CHAR(36), time-ordered ids in CHAR(36), time-ordered ids in BINARY(16)
+// Each variant fills its own scratch table in batches and prints the rate of every interval of rows,
+// so the falloff of random keys shows once the index no longer fits the buffer pool. The scratch
+// tables are dropped afterwards. Use rows well beyond the buffer pool size to see the difference
+// Run with: java appointment.AppointmentIdBenchmark [rows] [reportEvery]
+public class AppointmentIdBenchmark {
+
+	private static final int BATCH_SIZE = 1000;
+
+	private enum Variant {
+		RANDOM_CHAR("id_bench_random_char", "CHAR(36)"),
+		ORDERED_CHAR("id_bench_ordered_char", "CHAR(36)"),
+		ORDERED_BINARY("id_bench_ordered_binary", "BINARY(16)");
+
+		private final String table;
+		private final String idType;
+
+		Variant(String table, String idType) {
+			this.table = table;
+			this.idType = idType;
+		}
+	}
+
+	public static void main(String[] args) throws SQLException {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		int reportEvery = args.length > 1 ? Integer.parseInt(args[1]) : 250_000;
+		DataSource dataSource = HikariCPDataSource.getDataSource();
+		try {
+			for (Variant variant : Variant.values()) {
+				run(dataSource, variant, rows, reportEvery);
+			}
+		} finally {
+			HikariCPDataSource.close();
+		}
+	}
+
+	private static void run(DataSource dataSource, Variant variant, int rows, int reportEvery) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			createTable(connection, variant);
+			connection.setAutoCommit(false);
+			String insert = "INSERT INTO " + variant.table + " (id, date, time, location, clientName, consultantName, "
+					+ "description, duration, consultationType, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+			LocalDate firstDay = LocalDate.of(2030, 1, 1);
+
+			try (PreparedStatement stmt = connection.prepareStatement(insert)) {
+				long intervalStart = System.nanoTime();
+				long totalStart = intervalStart;
+				for (int i = 1; i <= rows; i++) {
+					bindId(stmt, variant);
+					stmt.setDate(2, java.sql.Date.valueOf(firstDay.plusDays(i % 365)));
+					stmt.setTime(3, java.sql.Time.valueOf(LocalTime.of(8 + i % 9, (i % 4) * 15)));
+					stmt.setString(4, "Office " + (i % 20));
+					stmt.setString(5, "Client" + (i % 5000));
+					stmt.setString(6, "Consultant" + (i % 200));
+					stmt.setString(7, "Benchmark row");
+					stmt.setInt(8, 30);
+					stmt.setString(9, "IN_PERSON");
+					stmt.setString(10, "SCHEDULED");
+					stmt.addBatch();
+
+					if (i % BATCH_SIZE == 0 || i == rows) {
+						stmt.executeBatch();
+						connection.commit();
+					}
+					if (i % reportEvery == 0) {
+						long now = System.nanoTime();
+						System.out.printf("%-16s rows %,10d  %,10.0f rows/s%n", variant, i,
+								reportEvery / ((now - intervalStart) / 1e9));
+						intervalStart = now;
+					}
+				}
+				System.out.printf("%-16s total %,10d  %,10.0f rows/s%n%n", variant, rows,
+						rows / ((System.nanoTime() - totalStart) / 1e9));
+			} finally {
+				connection.setAutoCommit(true);
+				try (Statement stmt = connection.createStatement()) {
+					stmt.executeUpdate("DROP TABLE IF EXISTS " + variant.table);
+				}
+			}
+		}
+	}
+
+	private static void bindId(PreparedStatement stmt, Variant variant) throws SQLException {
+		switch (variant) {
+		case RANDOM_CHAR:
+			stmt.setString(1, UUID.randomUUID().toString());
+			break;
+		case ORDERED_CHAR:
+			stmt.setString(1, AppointmentIds.next());
+			break;
+		default:
+			stmt.setBytes(1, AppointmentIds.toBinary(AppointmentIds.next()));
+		}
+	}
+
+	private static void createTable(Connection connection, Variant variant) throws SQLException {
+		try (Statement stmt = connection.createStatement()) {
+			stmt.executeUpdate("DROP TABLE IF EXISTS " + variant.table);
+			stmt.executeUpdate("CREATE TABLE " + variant.table + " (id " + variant.idType + " NOT NULL PRIMARY KEY, "
+					+ "date DATE NOT NULL, time TIME NOT NULL, location VARCHAR(100), clientName VARCHAR(100), "
+					+ "consultantName VARCHAR(100) NOT NULL, description VARCHAR(255), duration INT NOT NULL, "
+					+ "consultationType VARCHAR(20) NOT NULL, status VARCHAR(20) NOT NULL, "
+					+ "INDEX (consultantName, date)) ENGINE = InnoDB");
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package appointment;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+// Converts the appointments table's id column from CHAR(36) UUID strings to BINARY(16)
+// Runs in steps so the table stays usable until the final swap:
+//   1. add a nullable id_bin column
+//   2. fill it with UUID_TO_BIN(id) in chunks walking the primary key, each chunk a bounded key range
+//      committed on its own, so every chunk locks only its own rows and the whole fill is one pass
+//   3. walk again for rows written meanwhile, then swap the columns and the primary key in one ALTER TABLE
+// Ids keep their value, only ids created afterwards by AppointmentIds are time ordered. Ids that are
+// not canonical lowercase UUIDs cannot be converted without changing them, so the migration refuses
+// to start while any exist. Each step checks the table first, so an interrupted run can be repeated.
+// Writers using CHAR ids should be stopped before the swap; rows they insert between the last fill
+// and the swap make the ALTER fail on the NOT NULL column, and the migration can simply be rerun
+// Afterwards open repositories with JdbcAppointmentRepository.IdColumn.BINARY
+public class AppointmentIdMigration {
+
+	public static final int DEFAULT_CHUNK_SIZE = 5000;
+
+	private final DataSource dataSource;
+	private final int chunkSize;
+
+	// Constructor with 5000-row fill chunks
+	public AppointmentIdMigration(DataSource dataSource) {
+		this(dataSource, DEFAULT_CHUNK_SIZE);
+	}
+
+	// Constructor
+	public AppointmentIdMigration(DataSource dataSource, int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be greater than zero.");
+		}
+		this.dataSource = dataSource;
+		this.chunkSize = chunkSize;
+	}
+
+	// Run the migration, returning the number of rows converted; 0 if the ids are already binary
+	public long migrate() throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(true);
+			if ("binary".equalsIgnoreCase(columnType(connection, "id"))) {
+				return 0;
+			}
+			long invalid = countUnconvertibleIds(connection);
+			if (invalid > 0) {
+				throw new SQLException(invalid + " appointment ids are not canonical lowercase UUIDs and cannot "
+						+ "be stored as BINARY(16); fix or re-key them before migrating.");
+			}
+
+			if (columnType(connection, "id_bin") == null) {
+				try (Statement stmt = connection.createStatement()) {
+					stmt.executeUpdate("ALTER TABLE appointments ADD COLUMN id_bin BINARY(16) NULL");
+				}
+			}
+
+			long converted = fill(connection);
+			try (Statement stmt = connection.createStatement()) {
+				stmt.executeUpdate("ALTER TABLE appointments DROP PRIMARY KEY, DROP COLUMN id, "
+						+ "CHANGE COLUMN id_bin id BINARY(16) NOT NULL FIRST, ADD PRIMARY KEY (id)");
+			}
+			return converted;
+		}
+	}
+
+	// Fill id_bin by walking the primary key until a whole walk finds no row missing it
+	// Random ids written during a walk can land behind it, the next walk picks them up
+	private long fill(Connection connection) throws SQLException {
+		long converted = 0;
+		long walked;
+		do {
+			walked = fillWalk(connection);
+			converted += walked;
+		} while (walked > 0);
+		return converted;
+	}
+
+	// One pass over the primary key in chunks of chunkSize keys, carrying the last key forward
+	// Each chunk finds its upper key with an index-only seek and updates that key range, so no chunk
+	// rescans rows an earlier chunk already converted
+	private long fillWalk(Connection connection) throws SQLException {
+		long converted = 0;
+		String lastId = "";
+		try (PreparedStatement upperKey = connection
+				.prepareStatement("SELECT id FROM appointments WHERE id > ? ORDER BY id LIMIT 1 OFFSET ?");
+				PreparedStatement fillRange = connection.prepareStatement("UPDATE appointments "
+						+ "SET id_bin = UUID_TO_BIN(id) WHERE id > ? AND id <= ? AND id_bin IS NULL");
+				PreparedStatement fillRest = connection.prepareStatement(
+						"UPDATE appointments SET id_bin = UUID_TO_BIN(id) WHERE id > ? AND id_bin IS NULL")) {
+			while (true) {
+				upperKey.setString(1, lastId);
+				upperKey.setInt(2, chunkSize - 1);
+				String upperId;
+				try (ResultSet rs = upperKey.executeQuery()) {
+					upperId = rs.next() ? rs.getString(1) : null;
+				}
+				if (upperId == null) {
+					// Fewer than chunkSize keys left
+					fillRest.setString(1, lastId);
+					return converted + fillRest.executeUpdate();
+				}
+				fillRange.setString(1, lastId);
+				fillRange.setString(2, upperId);
+				converted += fillRange.executeUpdate();
+				lastId = upperId;
+			}
+		}
+	}
+
+	// Rows whose id would not read back unchanged from BINARY(16)
+	private static long countUnconvertibleIds(Connection connection) throws SQLException {
+		String query = "SELECT COUNT(*) FROM appointments WHERE NOT (CHAR_LENGTH(id) = 36 AND IS_UUID(id) "
+				+ "AND CAST(id AS BINARY) = CAST(LOWER(id) AS BINARY))";
+		try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
+			rs.next();
+			return rs.getLong(1);
+		}
+	}
+
+	// Data type of a column of the appointments table, null if the column does not exist
+	private static String columnType(Connection connection, String column) throws SQLException {
+		String query = "SELECT DATA_TYPE FROM information_schema.COLUMNS "
+				+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'appointments' AND COLUMN_NAME = ?";
+		try (PreparedStatement stmt = connection.prepareStatement(query)) {
+			stmt.setString(1, column);
+			try (ResultSet rs = stmt.executeQuery()) {
+				return rs.next() ? rs.getString(1) : null;
+			}
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package appointment;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time-ordered appointment ids and their BINARY(16) form
+// Ids follow the UUID version 7 layout: a 48-bit Unix millisecond timestamp, the version, a 12-bit
+// counter and 62 random bits. Ids created later sort after earlier ones, both as canonical strings and
+// as bytes, so new rows land at the right edge of the primary key index instead of at random pages.
+// Within one millisecond the counter keeps ids increasing; if it runs out the timestamp is advanced
+// by one, so ids stay unique and ordered even under bursts
+public final class AppointmentIds {
+
+	public static final int BINARY_LENGTH = 16;
+
+	// Last timestamp and counter handed out, as (millis << 12) | counter
+	private static final AtomicLong LAST = new AtomicLong();
+
+	private AppointmentIds() {
+	}
+
+	// New time-ordered id in canonical lowercase form, usable wherever a UUID string id is expected
+	public static String next() {
+		return nextUuid().toString();
+	}
+
+	// New time-ordered id as a UUID
+	public static UUID nextUuid() {
+		long candidate = System.currentTimeMillis() << 12;
+		long previous;
+		long current;
+		do {
+			previous = LAST.get();
+			current = candidate > previous ? candidate : previous + 1;
+		} while (!LAST.compareAndSet(previous, current));
+
+		long random = ThreadLocalRandom.current().nextLong();
+		long mostSignificant = (current >>> 12) << 16 | 0x7000L | (current & 0xFFFL);
+		long leastSignificant = (random & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // RFC 4122 variant
+		return new UUID(mostSignificant, leastSignificant);
+	}
+
+	// Unix millisecond timestamp of a time-ordered id
+	public static long timestampOf(String id) {
+		UUID uuid = UUID.fromString(id);
+		if (uuid.version() != 7) {
+			throw new IllegalArgumentException("Not a time-ordered id: " + id);
+		}
+		return uuid.getMostSignificantBits() >>> 16;
+	}
+
+	// BINARY(16) form of a UUID id, big-endian so byte order matches the canonical string order
+	// Throws IllegalArgumentException for ids that are not canonical lowercase UUIDs, since those
+	// would not read back as the same string
+	public static byte[] toBinary(String id) {
+		UUID uuid = UUID.fromString(id);
+		if (!uuid.toString().equals(id)) {
+			throw new IllegalArgumentException("Id is not a canonical lowercase UUID: " + id);
+		}
+		byte[] bytes = new byte[BINARY_LENGTH];
+		putLong(bytes, 0, uuid.getMostSignificantBits());
+		putLong(bytes, 8, uuid.getLeastSignificantBits());
+		return bytes;
+	}
+
+	// Canonical lowercase id of a BINARY(16) value
+	public static String fromBinary(byte[] bytes) {
+		if (bytes == null) {
+			return null;
+		}
+		if (bytes.length != BINARY_LENGTH) {
+			throw new IllegalArgumentException("Binary id must be " + BINARY_LENGTH + " bytes, was " + bytes.length);
+		}
+		return new UUID(getLong(bytes, 0), getLong(bytes, 8)).toString();
+	}
+
+	private static void putLong(byte[] bytes, int offset, long value) {
+		for (int i = 7; i >= 0; i--) {
+			bytes[offset + i] = (byte) value;
+			value >>>= 8;
+		}
+	}
+
+	private static long getLong(byte[] bytes, int offset) {
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value = value << 8 | (bytes[offset + i] & 0xFF);
+		}
+		return value;
+	}
+}
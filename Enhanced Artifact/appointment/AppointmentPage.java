@@ -0,0 +1,61 @@
+package appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+
+// One page of a keyset-paginated range query, ordered by (date, time, id)
+public class AppointmentPage {
+	private final List<Appointment> appointments;
+	private final Cursor nextCursor;
+
+	// Position after which the next page starts, taken from the last row of a page
+	public static class Cursor {
+		private final LocalDate date;
+		private final LocalTime time;
+		private final String id;
+
+		public Cursor(LocalDate date, LocalTime time, String id) {
+			this.date = date;
+			this.time = time;
+			this.id = id;
+		}
+
+		// Cursor positioned just after the given appointment
+		public static Cursor after(Appointment appointment) {
+			return new Cursor(appointment.getDate(), appointment.getTime(), appointment.getId());
+		}
+
+		public LocalDate getDate() {
+			return date;
+		}
+
+		public LocalTime getTime() {
+			return time;
+		}
+
+		public String getId() {
+			return id;
+		}
+	}
+
+	// Constructor
+	public AppointmentPage(List<Appointment> appointments, Cursor nextCursor) {
+		this.appointments = Collections.unmodifiableList(appointments);
+		this.nextCursor = nextCursor;
+	}
+
+	public List<Appointment> getAppointments() {
+		return appointments;
+	}
+
+	// Cursor for the following page, null when this is the last page
+	public Cursor getNextCursor() {
+		return nextCursor;
+	}
+
+	public boolean hasMore() {
+		return nextCursor != null;
+	}
+}
@@ -1,191 +1,97 @@
 package appointment;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
-//import java.time.LocalDate;
-//import java.time.LocalTime;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import appointment.Appointment.AppointmentStatus;
-import appointment.Appointment.ConsultationType;
 
-//Enhancements
-//Prepared statements prevent SQL injection attacks and integrity of input data
-//Specialized SQL queries
-//Connection pooling
-//Automatic resource closing
-public class AppointmentRepository {
+// Storage of appointments, implemented on MySQL by JdbcAppointmentRepository and in process memory by
+// InMemoryAppointmentRepository. Appointments returned are copies; changing them does not change the store
+public interface AppointmentRepository {
 
-	private final Connection connection; // Connection session with database
+	// Default number of rows sent per bulk insert batch
+	int DEFAULT_BATCH_SIZE = 500;
 
-	public AppointmentRepository(Connection connection) {
-		this.connection = connection;
-	}
+	// Add a new appointment, returns the appointment saved
+	Appointment saveAppointment(Appointment appointment) throws SQLException;
 
-	// Add a new appointment to the database
-	// Returns appointment object when specified
-	public <optional> Appointment saveAppointment(Appointment appointment) throws SQLException {
-		String query = "INSERT INTO appointments (id, date, time, location, clientName, consultantName, description, duration, consultationType, status) "
-				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
-			stmt.setString(1, appointment.getId());
-			stmt.setDate(2, java.sql.Date.valueOf(appointment.getDate()));
-			stmt.setTime(3, java.sql.Time.valueOf(appointment.getTime()));
-			stmt.setString(4, appointment.getLocation());
-			stmt.setString(5, appointment.getClientName());
-			stmt.setString(6, appointment.getConsultantName());
-			stmt.setString(7, appointment.getDescription());
-			stmt.setInt(8, appointment.getDuration());
-			stmt.setString(9, appointment.getConsultationType().name());
-			stmt.setString(10, appointment.getStatus().name());
-
-			stmt.executeUpdate();
-
-			return appointment;
-		}
+	// Bulk insert using the default batch size
+	default BatchInsertResult saveAppointments(Collection<Appointment> appointments) throws SQLException {
+		return saveAppointments(appointments, DEFAULT_BATCH_SIZE);
 	}
 
-	// Update an existing appointment
-	public void updateAppointment(Appointment appointment) throws SQLException {
-		String query = "UPDATE appointments SET date = ?, time = ?, location = ?, clientName = ?, consultantName = ?, description = ?, duration = ?, consultationType = ?, status = ? "
-				+ "WHERE id = ?";
-
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
-			stmt.setDate(1, java.sql.Date.valueOf(appointment.getDate()));
-			stmt.setTime(2, java.sql.Time.valueOf(appointment.getTime()));
-			stmt.setString(3, appointment.getLocation());
-			stmt.setString(4, appointment.getClientName());
-			stmt.setString(5, appointment.getConsultantName());
-			stmt.setString(6, appointment.getDescription());
-			stmt.setInt(7, appointment.getDuration());
-			stmt.setString(8, appointment.getConsultationType().name());
-			stmt.setString(9, appointment.getStatus().name());
-			stmt.setString(10, appointment.getId());
-
-			stmt.executeUpdate();
-		}
-	}
+	// Bulk insert in batches of batchSize, reporting rows that could not be saved instead of failing
+	BatchInsertResult saveAppointments(Collection<Appointment> appointments, int batchSize) throws SQLException;
 
-	// Retrieve an appointment by ID
-	public Appointment getAppointmentById(String id) throws SQLException {
-		String query = "SELECT * FROM appointments WHERE id = ?";
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
-			stmt.setString(1, id);
-			ResultSet rs = stmt.executeQuery();
-
-			if (rs.next()) {
-				return new Appointment(rs.getString("id"), rs.getDate("date").toLocalDate(),
-						rs.getTime("time").toLocalTime(), rs.getString("location"), rs.getString("clientName"),
-						rs.getString("consultantName"), rs.getString("description"), rs.getInt("duration"),
-						ConsultationType.valueOf(rs.getString("consultationType")),
-						AppointmentStatus.valueOf(rs.getString("status")));
-
-			}
-			return null;
-		}
-	}
+	// Insert only if no appointment of the same consultant and day overlaps, checked atomically
+	BookingResult bookAppointment(Appointment appointment) throws SQLException;
+
+	// Move an appointment only if no other appointment of its consultant overlaps the new slot
+	BookingResult rescheduleAppointment(String appointmentId, LocalDate newDate, LocalTime newTime)
+			throws SQLException;
+
+	// Update an existing appointment, returns false if no appointment has its id
+	boolean updateAppointment(Appointment appointment) throws SQLException;
+
+	// Retrieve an appointment by ID, null if it does not exist
+	Appointment getAppointmentById(String id) throws SQLException;
 
 	// Delete an appointment and return a boolean indicating success
-	public boolean deleteAppointment(String id) throws SQLException {
-		String query = "DELETE FROM appointments WHERE id = ?";
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
-			stmt.setString(1, id);
-
-			int rowsAffected = stmt.executeUpdate();
-			return rowsAffected > 0; // true if at least one row was deleted
-		}
-	}
+	boolean deleteAppointment(String id) throws SQLException;
 
 	// Retrieve all appointments
-	public List<Appointment> getAllAppointments() throws SQLException {
-		List<Appointment> appointments = new ArrayList<>();
-		String query = "SELECT * FROM appointments";
-
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
-			ResultSet rs = stmt.executeQuery();
-
-			while (rs.next()) {
-				Appointment appointment = new Appointment(rs.getString("id"), rs.getDate("date").toLocalDate(),
-						rs.getTime("time").toLocalTime(), rs.getString("location"), rs.getString("clientName"),
-						rs.getString("consultantName"), rs.getString("description"), rs.getInt("duration"),
-						ConsultationType.valueOf(rs.getString("consultationType")), // Convert to enum
-						AppointmentStatus.valueOf(rs.getString("status")) // Convert to enum
-				);
-
-				appointments.add(appointment);
-			}
-		}
-
-		return appointments;
-	}
+	List<Appointment> getAllAppointments() throws SQLException;
+
+	// Visit every appointment without holding them all in memory, returns the number visited
+	long forEachAppointment(Consumer<? super Appointment> visitor) throws SQLException;
 
 	// Get appointments by consultant and date
-	public List<Appointment> getAppointmentsByConsultantAndDate(String consultantName, LocalDate date)
-			throws SQLException {
-		String query = "SELECT * FROM appointments WHERE consultantName = ? AND date = ?";
-		List<Appointment> appointments = new ArrayList<>();
-
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
-			stmt.setString(1, consultantName);
-			stmt.setDate(2, java.sql.Date.valueOf(date));
-
-			ResultSet rs = stmt.executeQuery();
-
-			while (rs.next()) {
-				Appointment appointment = new Appointment(rs.getString("id"), rs.getDate("date").toLocalDate(),
-						rs.getTime("time").toLocalTime(), rs.getString("location"), rs.getString("clientName"),
-						rs.getString("consultantName"), rs.getString("description"), rs.getInt("duration"),
-						ConsultationType.valueOf(rs.getString("consultationType")), // Convert to enum
-						AppointmentStatus.valueOf(rs.getString("status")) // Convert to enum
-				);
-				appointments.add(appointment);
-			}
-		}
-		return appointments;
+	List<Appointment> getAppointmentsByConsultantAndDate(String consultantName, LocalDate date) throws SQLException;
+
+	// Start times, durations, statuses and ids of a consultant's appointments on one date, for availability
+	// checks that need nothing else; engines that can read fewer columns override this
+	default DaySchedule getScheduleSlice(String consultantName, LocalDate date) throws SQLException {
+		return DaySchedule.of(getAppointmentsByConsultantAndDate(consultantName, date));
 	}
 
-	// Update status
-	public void updateAppointmentStatus(String appointmentId, AppointmentStatus status) throws SQLException {
-		String query = "UPDATE appointments SET status = ? WHERE id = ?";
+	// Get all appointments for a consultant between two dates (inclusive), ordered by date, time and id
+	List<Appointment> getAppointmentsByConsultantBetween(String consultantName, LocalDate fromDate, LocalDate toDate)
+			throws SQLException;
 
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
-			stmt.setString(1, status.toString());
-			stmt.setString(2, appointmentId);
-			stmt.executeUpdate();
-		}
-	}
+	// Get the appointments of several consultants between two dates (inclusive), each ordered by date,
+	// time and id; consultants with no appointments map to an empty list
+	Map<String, List<Appointment>> getAppointmentsByConsultantsBetween(Collection<String> consultantNames,
+			LocalDate fromDate, LocalDate toDate) throws SQLException;
 
-	// Update date and time
-	public void updateAppointmentTime(String appointmentId, LocalDate newDate, LocalTime newTime) throws SQLException {
-		// TODO Auto-generated method stub
-		String query = "UPDATE appointments SET date = ?, time = ? WHERE id = ?";
+	// Get one page of a consultant's appointments between two dates (inclusive)
+	// Pass null as the cursor for the first page, then the previous page's next cursor
+	AppointmentPage getAppointmentsByConsultantBetween(String consultantName, LocalDate fromDate, LocalDate toDate,
+			AppointmentPage.Cursor after, int pageSize) throws SQLException;
 
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
-			stmt.setDate(1, java.sql.Date.valueOf(newDate));
-			stmt.setTime(2, java.sql.Time.valueOf(newTime));
-			stmt.setString(3, appointmentId);
-			stmt.executeUpdate();
-		}
+	// Get one page of appointments for all consultants between two dates (inclusive)
+	AppointmentPage getAppointmentsBetween(LocalDate fromDate, LocalDate toDate, AppointmentPage.Cursor after,
+			int pageSize) throws SQLException;
 
-	}
+	// Update status, returns false if no appointment has the id
+	boolean updateAppointmentStatus(String appointmentId, AppointmentStatus status) throws SQLException;
 
-	// Update duration
-	public void updateAppointmentDuration(String appointmentId, int duration) throws SQLException {
-		// TODO Auto-generated method stub
-		String query = "UPDATE appointments SET duration = ? WHERE id = ?";
+	// Apply many status and duration changes together; either every change is applied or none is
+	void updateStatusesAndDurations(Map<String, AppointmentStatus> statuses, Map<String, Integer> durations)
+			throws SQLException;
 
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
-			stmt.setInt(1, duration);
-			stmt.setString(2, appointmentId);
-			stmt.executeUpdate();
-		}
+	// Mark at most chunkSize SCHEDULED appointments that ended at or before the cutoff as COMPLETED,
+	// earliest first; returns the number completed
+	int completePastAppointments(LocalDateTime cutoff, int chunkSize) throws SQLException;
 
-	}
+	// Update date and time
+	void updateAppointmentTime(String appointmentId, LocalDate newDate, LocalTime newTime) throws SQLException;
 
+	// Update duration
+	void updateAppointmentDuration(String appointmentId, int duration) throws SQLException;
 }
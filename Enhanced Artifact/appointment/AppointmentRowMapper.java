@@ -0,0 +1,46 @@
+package appointment;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.JdbcAppointmentRepository.IdColumn;
+
+// Maps appointments table rows selected with one of the fixed projections below, reading columns by
+// position instead of looking each one up by name for every row
+class AppointmentRowMapper {
+
+	// Full row, for reads that hand out whole appointments
+	static final String COLUMNS = "id, date, time, location, clientName, consultantName, description, duration, "
+			+ "consultationType, status";
+
+	// Schedule slice, for availability checks; every column is in the consultant-day index
+	static final String SCHEDULE_COLUMNS = "id, time, duration, status";
+
+	private final IdColumn idColumn;
+
+	AppointmentRowMapper(IdColumn idColumn) {
+		this.idColumn = idColumn;
+	}
+
+	// Appointment from a row selected with COLUMNS
+	Appointment map(ResultSet rs) throws SQLException {
+		return new Appointment(readId(rs, 1), rs.getObject(2, LocalDate.class), rs.getObject(3, LocalTime.class),
+				rs.getString(4), rs.getString(5), rs.getString(6), rs.getString(7), rs.getInt(8),
+				ConsultationType.valueOf(rs.getString(9)), AppointmentStatus.valueOf(rs.getString(10)));
+	}
+
+	// Add a row selected with SCHEDULE_COLUMNS to a day's schedule
+	void mapScheduleRow(ResultSet rs, DaySchedule.Builder schedule) throws SQLException {
+		schedule.add(readId(rs, 1), DaySchedule.minuteOf(rs.getObject(2, LocalTime.class)), rs.getInt(3),
+				AppointmentStatus.valueOf(rs.getString(4)));
+	}
+
+	// Id column at the position as a string
+	String readId(ResultSet rs, int column) throws SQLException {
+		return idColumn == IdColumn.BINARY ? AppointmentIds.fromBinary(rs.getBytes(column)) : rs.getString(column);
+	}
+}
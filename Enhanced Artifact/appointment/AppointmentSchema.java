@@ -0,0 +1,54 @@
+package appointment;
+
+import java.util.List;
+
+// Versioned schema of the appointments and users tables, applied by MigrationRunner at startup
+// Append new migrations to the end with the next version; never edit or reorder applied ones
+public final class AppointmentSchema {
+
+	public static final List<Migration> MIGRATIONS = List.of(
+			// IF NOT EXISTS adopts databases whose tables were created by hand before versioning
+			new Migration(1, "Create appointments table",
+					"CREATE TABLE IF NOT EXISTS appointments ("
+							+ "id CHAR(36) NOT NULL, "
+							+ "date DATE NOT NULL, "
+							+ "time TIME NOT NULL, "
+							+ "location VARCHAR(255), "
+							+ "clientName VARCHAR(255), "
+							+ "consultantName VARCHAR(255) NOT NULL, "
+							+ "description TEXT, "
+							+ "duration INT NOT NULL, "
+							+ "consultationType VARCHAR(20) NOT NULL, "
+							+ "status VARCHAR(20) NOT NULL, "
+							+ "PRIMARY KEY (id)) ENGINE = InnoDB"),
+			new Migration(2, "Create users table",
+					"CREATE TABLE IF NOT EXISTS users ("
+							+ "id CHAR(36) NOT NULL, "
+							+ "username VARCHAR(255) NOT NULL, "
+							+ "passwordHash VARCHAR(255) NOT NULL, "
+							+ "role VARCHAR(20) NOT NULL, "
+							+ "PRIMARY KEY (id)) ENGINE = InnoDB"),
+			// Serves every consultant-day lookup and the overlap checks of booking and rescheduling from
+			// the index alone; rows come back in (date, time) order and InnoDB appends the id to each entry
+			// Skipped when an index of this name or on these columns already exists; a hand-made index on
+			// a prefix of them is kept alongside and can be dropped once this one is in place
+			Migration.createIndex(3, "Index appointments by consultant and day", "appointments",
+					"idx_appointments_consultant_day", false, "consultantName", "date", "time", "duration",
+					"status"),
+			// Login lookups by username; fails if duplicate usernames exist, which must be resolved first
+			// Skipped when a unique index of this name or on username already exists
+			Migration.createIndex(4, "Unique index on usernames", "users", "ux_users_username", true,
+					"username"),
+			// Keyset pages over all consultants, ORDER BY date, time, id LIMIT n, read in index order
+			// from the cursor so every page stops after n + 1 entries instead of sorting the window
+			Migration.createIndex(5, "Index appointments by day", "appointments", "idx_appointments_day", false,
+					"date", "time", "id"),
+			// Auto-complete chunks, status = ? AND date <= ? ORDER BY date, time LIMIT n: a range read in
+			// (date, time) order, so each chunk stops after its n rows and locks only what it reads;
+			// duration lets the end-time check run on the index entry before the row is fetched
+			Migration.createIndex(6, "Index appointments by status and day", "appointments",
+					"idx_appointments_status_day", false, "status", "date", "time", "duration"));
+
+	private AppointmentSchema() {
+	}
+}
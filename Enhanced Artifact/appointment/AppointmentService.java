@@ -1,15 +1,21 @@
 package appointment;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.TreeSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import appointment.Appointment.AppointmentStatus;
 import security.User;
 import security.User.UserRole;
 
@@ -17,14 +23,29 @@ public class AppointmentService {
 
 	private final AppointmentRepository appointmentRepository;
 	private final AppointmentValidator appointmentValidator;
-	// private final Map<String, Appointment> appointmentCache = new HashMap<>();
+	private final ScheduleCache scheduleCache; // Consultant-day schedules for availability, null when disabled
+	private final ChangeLog changeLog; // Outbox of changes for downstream consumers, null when disabled
 	private User currentUser;
 
 	public AppointmentService(AppointmentRepository appointmentRepository, AppointmentValidator appointmentValidator,
 			User currentUser) {
+		this(appointmentRepository, appointmentValidator, currentUser, null);
+	}
+
+	// Constructor with a schedule cache, kept current by every write made through this service
+	public AppointmentService(AppointmentRepository appointmentRepository, AppointmentValidator appointmentValidator,
+			User currentUser, ScheduleCache scheduleCache) {
+		this(appointmentRepository, appointmentValidator, currentUser, scheduleCache, null);
+	}
+
+	// Constructor with a change log, every successful write made through this service is appended to it
+	public AppointmentService(AppointmentRepository appointmentRepository, AppointmentValidator appointmentValidator,
+			User currentUser, ScheduleCache scheduleCache, ChangeLog changeLog) {
 		this.appointmentRepository = appointmentRepository;
 		this.appointmentValidator = appointmentValidator;
 		this.currentUser = currentUser;
+		this.scheduleCache = scheduleCache;
+		this.changeLog = changeLog;
 
 	}
 
@@ -40,15 +61,21 @@ public class AppointmentService {
 			return validationError; // Return validation error message
 		}
 
-		// Perform business logic
-		if (!checkAvailabilitySpecific(appointment)) {
+		// Reject conflicts visible in the cached schedule without attempting the write
+		if (scheduleCache != null && !checkAvailabilitySpecific(appointment)) {
 			return "The requested time slot is not available.";
 		}
 
 		try {
-			// Save the appointment in the database
-			appointmentRepository.saveAppointment(appointment);
-			// appointmentCache.put(appointment.getId(), appointment);
+			// Check for overlaps and save in one atomic statement on the database
+			BookingResult result = appointmentRepository.bookAppointment(appointment);
+			if (result == BookingResult.CONFLICT) {
+				return "The requested time slot is not available.";
+			}
+			if (scheduleCache != null) {
+				scheduleCache.add(appointment);
+			}
+			publish(ChangeEvent.added(appointment));
 
 			return "Appointment successfully scheduled.";
 		} catch (SQLException e) {
@@ -71,8 +98,13 @@ public class AppointmentService {
 
 		try {
 			// Update the database
-			appointmentRepository.updateAppointment(appointment);
-			// appointmentCache.put(appointment.getId(), appointment);
+			if (!appointmentRepository.updateAppointment(appointment)) {
+				return "Error: Appointment not found";
+			}
+			if (scheduleCache != null) {
+				scheduleCache.update(appointment);
+			}
+			publish(ChangeEvent.updated(appointment));
 			return "Appointment successfully updated.";
 		} catch (SQLException e) {
 			// Handle database errors
@@ -101,9 +133,14 @@ public class AppointmentService {
 			return "Access Denied: Must be a consultant to delete appointments";
 		}
 		try {
-			// Remove from both database
-			appointmentRepository.deleteAppointment(id);
-			// appointmentCache.remove(id);
+			// Remove from both database and schedule cache
+			if (!appointmentRepository.deleteAppointment(id)) {
+				return "Error: Appointment not found";
+			}
+			if (scheduleCache != null) {
+				scheduleCache.remove(id);
+			}
+			publish(ChangeEvent.deleted(id));
 			return "Appointment successfully deleted.";
 		} catch (SQLException e) {
 			// Handle database errors
@@ -111,6 +148,83 @@ public class AppointmentService {
 		}
 	}
 
+	// Change an appointment's status, e.g. cancel it
+	public String updateAppointmentStatus(String id, AppointmentStatus status) {
+		if (!currentUser.getRole().equals(UserRole.CONSULTANT)) {
+			return "Access Denied: Must be a consultant to update appointments";
+		}
+		if (status == null) {
+			return "Status cannot be empty.";
+		}
+		try {
+			if (!appointmentRepository.updateAppointmentStatus(id, status)) {
+				return "Error: Appointment not found";
+			}
+			if (scheduleCache != null) {
+				Appointment cached = scheduleCache.find(id);
+				if (cached != null) {
+					cached.setStatus(status);
+					scheduleCache.update(cached);
+				}
+			}
+			publish(ChangeEvent.statusChanged(id, status));
+			return "Appointment status successfully updated.";
+		} catch (SQLException e) {
+			// Handle database errors
+			return "Failed to update appointment status due to a database error: " + e.getMessage();
+		}
+	}
+
+	// Bring the schedule cache and change log up to date with a batch committed by a StatusWriteBehindQueue
+	// Pass as its FlushListener. An appointment whose duration changed is published in full, taken from
+	// the cache or reloaded, and skipped if it was deleted before the batch was written
+	public void statusesAndDurationsWritten(Map<String, AppointmentStatus> statuses, Map<String, Integer> durations) {
+		for (Map.Entry<String, Integer> entry : durations.entrySet()) {
+			String id = entry.getKey();
+			Appointment appointment = scheduleCache == null ? null : scheduleCache.find(id);
+			if (appointment != null) {
+				appointment.setDuration(entry.getValue());
+				if (statuses.containsKey(id)) {
+					appointment.setStatus(statuses.get(id));
+				}
+				scheduleCache.update(appointment);
+			} else if (changeLog != null) {
+				appointment = getAppointmentById(id);
+			}
+			if (appointment != null) {
+				publish(ChangeEvent.updated(appointment));
+			}
+		}
+		for (Map.Entry<String, AppointmentStatus> entry : statuses.entrySet()) {
+			String id = entry.getKey();
+			if (durations.containsKey(id)) {
+				continue; // Already published in full
+			}
+			if (scheduleCache != null) {
+				Appointment cached = scheduleCache.find(id);
+				if (cached != null) {
+					cached.setStatus(entry.getValue());
+					scheduleCache.update(cached);
+				}
+			}
+			publish(ChangeEvent.statusChanged(id, entry.getValue()));
+		}
+	}
+
+	// Append a committed change to the change log
+	// The database write has already succeeded, so a log failure is reported rather than failing the request
+	private void publish(ChangeEvent event) {
+		if (changeLog == null) {
+			return;
+		}
+		try {
+			changeLog.append(event);
+		} catch (IOException e) {
+			System.err.println("Failed to append " + event.getType() + " for appointment " + event.getAppointmentId()
+					+ " to the change log: " + e.getMessage());
+		}
+	}
+
 	// Retrieve all appointments
 	public List<Appointment> getAllAppointments() {
 		try {
@@ -124,24 +238,64 @@ public class AppointmentService {
 		}
 	}
 
-	// Helper method checking if two appointments overlap
-	private boolean isOverlapping(Appointment existingAppointment, LocalTime newAppointmentStartTime,
-			LocalTime newAppointmentEndTime) {
-		// Calculate end time from duration into localTime
-		LocalTime existingAppointmentEndTime = existingAppointment.getTime()
-				.plusMinutes(existingAppointment.getDuration());
+	// Stream all appointments to the visitor without holding the full list in memory
+	// Returns the number of appointments visited, or -1 on a database error
+	public long forEachAppointment(Consumer<? super Appointment> visitor) {
+		try {
+			return appointmentRepository.forEachAppointment(visitor);
+		} catch (SQLException e) {
+			// Handle database errors
+			System.err.println("Failed to stream appointment(s) due to a database error: " + e.getMessage());
 
-		// Overlap is true if the new appointment starts before the existing one ends,
-		// and ends after the existing one starts
-		// Inclusive of edge overlaps
-		// return newAppointmentStartTime.isBefore(existingAppointmentEndTime)
-		// && newAppointmentEndTime.isAfter(existingAppointment.getTime());
+			return -1;
+		}
+	}
 
-		// strict overlap, exclusive of edge overlaps
-		return !newAppointmentEndTime.equals(existingAppointment.getTime())
-				&& newAppointmentStartTime.isBefore(existingAppointmentEndTime)
-				&& newAppointmentEndTime.isAfter(existingAppointment.getTime());
+	// Retrieve a consultant's appointments across a date window (inclusive), e.g. a calendar week
+	public List<Appointment> getAppointmentsByConsultantBetween(String consultantName, LocalDate fromDate,
+			LocalDate toDate) {
+		try {
+			return appointmentRepository.getAppointmentsByConsultantBetween(consultantName, fromDate, toDate);
+		} catch (SQLException e) {
+			// Handle database errors
+			System.err.println("Failed to retrieve appointment(s) due to a database error: " + e.getMessage());
+
+			return null;
+		}
+	}
+
+	// Retrieve one page of all consultants' appointments across a date window (inclusive)
+	// Pass null for the first page, then the previous page's next cursor
+	public AppointmentPage getAppointmentsBetween(LocalDate fromDate, LocalDate toDate, AppointmentPage.Cursor after,
+			int pageSize) {
+		try {
+			return appointmentRepository.getAppointmentsBetween(fromDate, toDate, after, pageSize);
+		} catch (SQLException e) {
+			// Handle database errors
+			System.err.println("Failed to retrieve appointment(s) due to a database error: " + e.getMessage());
+
+			return null;
+		}
+	}
 
+	// Occupancy bitmap of one consultant-day, cached alongside the day when the schedule cache is enabled
+	// Without the cache only the day's schedule slice is read, not whole appointments
+	private DayOccupancy getDayOccupancy(String consultantName, LocalDate date) throws SQLException {
+		if (scheduleCache != null) {
+			return scheduleCache.getOccupancy(consultantName, date,
+					appointmentRepository::getAppointmentsByConsultantAndDate);
+		}
+		return DayOccupancy.of(appointmentRepository.getScheduleSlice(consultantName, date));
+	}
+
+	// Columnar schedule of one consultant-day, cached alongside the day when the schedule cache is enabled
+	// The cache keeps whole appointments so it can apply edits; without it only the schedule slice is read
+	private DaySchedule getDaySchedule(String consultantName, LocalDate date) throws SQLException {
+		if (scheduleCache != null) {
+			return scheduleCache.getSchedule(consultantName, date,
+					appointmentRepository::getAppointmentsByConsultantAndDate);
+		}
+		return appointmentRepository.getScheduleSlice(consultantName, date);
 	}
 
 	// Checks for overlap of all appointments of the specific day for the consultant
@@ -149,17 +303,15 @@ public class AppointmentService {
 		System.out.println("Consultant: " + appointment.getConsultantName());
 
 		try {
-			// Retrieve all appointments for the consultant on the same day from the
-			// database
-			List<Appointment> consultantAppointments = appointmentRepository
-					.getAppointmentsByConsultantAndDate(appointment.getConsultantName(), appointment.getDate());
+			// Retrieve the columnar schedule of the consultant's day
+			DaySchedule daySchedule = getDaySchedule(appointment.getConsultantName(), appointment.getDate());
 
-			// Calculate the end time of the new appointment
-			LocalTime newAppointmentEndTime = appointment.getTime().plusMinutes(appointment.getDuration());
+			// Calculate the start and end minute of the new appointment
+			int start = DaySchedule.minuteOf(appointment.getTime());
+			int end = start + appointment.getDuration();
 
-			// Check if the new appointment overlaps with any existing appointments
-			return consultantAppointments.stream().noneMatch(existingAppointment -> isOverlapping(existingAppointment,
-					appointment.getTime(), newAppointmentEndTime));
+			// Check if the new appointment overlaps with any other existing appointment
+			return !daySchedule.overlaps(start, end, appointment.getId());
 		} catch (SQLException e) {
 			// Handle database errors
 			System.err.println("Failed to check appointment availability due to a database error: " + e.getMessage());
@@ -171,43 +323,212 @@ public class AppointmentService {
 	public List<TimeSlot> getAvailableTimeSlots(String consultantName, LocalDate date, LocalTime workingStart,
 			LocalTime workingEnd) {
 		try {
-			// Retrieve all booked appointments for the consultant on the given date
-			List<Appointment> bookedAppointments = appointmentRepository
-					.getAppointmentsByConsultantAndDate(consultantName, date);
-
-			// TreeSet to store appointments sorted by start time
-			TreeSet<Appointment> sortedAppointments = new TreeSet<>(Comparator.comparing(Appointment::getTime));
-			sortedAppointments.addAll(bookedAppointments);
+			// Retrieve the minute-by-minute occupancy of the consultant on the given date
+			DayOccupancy occupancy = getDayOccupancy(consultantName, date);
 
 			// List to store available time slots
 			List<TimeSlot> availableSlots = new ArrayList<>();
 
-			// Check time before the first appointment
-			LocalTime startOfWorkingDay = workingStart;
+			// Walk the free runs of the bitmap inside the working day
+			int workingEndMinute = DaySchedule.minuteOf(workingEnd);
+			int start = occupancy.nextFree(DaySchedule.minuteOf(workingStart));
+			while (start < workingEndMinute) {
+				// The slot runs until the next booked minute or the end of the working day
+				int end = Math.min(occupancy.nextOccupied(start), workingEndMinute);
+				availableSlots.add(new TimeSlot(DayOccupancy.timeOf(start), DayOccupancy.timeOf(end)));
+				start = occupancy.nextFree(end);
+			}
 
-			for (Appointment appointment : sortedAppointments) {
-				LocalTime appointmentStartTime = appointment.getTime();
+			return availableSlots;
 
-				// If there is a gap between the start of the working day and the appointment
-				if (startOfWorkingDay.isBefore(appointmentStartTime)) {
-					availableSlots.add(new TimeSlot(startOfWorkingDay, appointmentStartTime));
+		} catch (SQLException e) {
+			System.err.println("Error retrieving appointments: " + e.getMessage());
+			return Collections.emptyList(); // Safe return null
+		}
+	}
+
+	// Find the earliest slot of durationMinutes with the consultant, searching horizonDays days from the
+	// given date and time within the working hours of each day
+	// The whole horizon is read in one range query and the search stops at the first day with a fit
+	// Returns null when nothing fits inside the horizon
+	public TimeSlot findNextAvailableSlot(String consultantName, int durationMinutes, LocalDateTime from,
+			int horizonDays, WorkingHours workingHours) {
+		if (durationMinutes <= 0 || horizonDays <= 0) {
+			return null;
+		}
+		LocalDate firstDay = from.toLocalDate();
+		LocalDate lastDay = firstDay.plusDays(horizonDays - 1L);
+		try {
+			List<Appointment> booked = appointmentRepository.getAppointmentsByConsultantBetween(consultantName,
+					firstDay, lastDay);
+			List<TimeSlot> slots = findSlots(booked, durationMinutes, from, horizonDays, workingHours, 1);
+			return slots.isEmpty() ? null : slots.get(0);
+		} catch (SQLException e) {
+			System.err.println("Error retrieving appointments: " + e.getMessage());
+			return null;
+		}
+	}
+
+	// Find the earliest slots of durationMinutes across several consultants, e.g. to offer the
+	// first available consultant at the front desk
+	// All schedules are read in one batched query, each consultant's free slots are computed in
+	// parallel, and the per-consultant results are merged earliest first through a priority queue
+	// Returns at most limit slots, at most one per free gap of each consultant
+	public List<ConsultantSlot> findEarliestSlots(Collection<String> consultantNames, int durationMinutes,
+			LocalDateTime from, int horizonDays, WorkingHours workingHours, int limit) {
+		if (consultantNames.isEmpty() || durationMinutes <= 0 || horizonDays <= 0 || limit <= 0) {
+			return Collections.emptyList();
+		}
+		LocalDate firstDay = from.toLocalDate();
+		LocalDate lastDay = firstDay.plusDays(horizonDays - 1L);
+		try {
+			Map<String, List<Appointment>> booked = appointmentRepository
+					.getAppointmentsByConsultantsBetween(consultantNames, firstDay, lastDay);
+
+			// No consultant contributes more than limit slots to the final result
+			List<List<ConsultantSlot>> perConsultant = booked.entrySet().parallelStream()
+					.map(entry -> findSlots(entry.getValue(), durationMinutes, from, horizonDays, workingHours, limit)
+							.stream().map(slot -> new ConsultantSlot(entry.getKey(), slot))
+							.collect(Collectors.toList()))
+					.collect(Collectors.toList());
+
+			return mergeEarliest(perConsultant, limit);
+		} catch (SQLException e) {
+			System.err.println("Error retrieving appointments: " + e.getMessage());
+			return Collections.emptyList();
+		}
+	}
+
+	// First available consultant among the candidates, null when nobody is free inside the horizon
+	public ConsultantSlot findFirstAvailableConsultant(Collection<String> consultantNames, int durationMinutes,
+			LocalDateTime from, int horizonDays, WorkingHours workingHours) {
+		List<ConsultantSlot> slots = findEarliestSlots(consultantNames, durationMinutes, from, horizonDays,
+				workingHours, 1);
+		return slots.isEmpty() ? null : slots.get(0);
+	}
+
+	// Find the windows in which every one of the consultants is free, e.g. for a joint session
+	// All schedules are read in one batched query; for each day the consultants' appointments are
+	// packed into primitive interval keys, sorted and swept in start order, and the gaps in their
+	// combined busy time that fit durationMinutes inside the working hours are returned in date and
+	// time order
+	public List<TimeSlot> findCommonAvailability(Collection<String> consultantNames, LocalDate fromDate,
+			LocalDate toDate, WorkingHours workingHours, int durationMinutes) {
+		if (consultantNames.isEmpty() || durationMinutes <= 0 || toDate.isBefore(fromDate)) {
+			return Collections.emptyList();
+		}
+		try {
+			Map<String, List<Appointment>> booked = appointmentRepository
+					.getAppointmentsByConsultantsBetween(consultantNames, fromDate, toDate);
+			List<List<Appointment>> schedules = new ArrayList<>(booked.values());
+
+			int workingStartMinute = DaySchedule.minuteOf(workingHours.getStart());
+			int workingEndMinute = DaySchedule.minuteOf(workingHours.getEnd());
+			int[] next = new int[schedules.size()]; // Position of each consultant's first appointment of the day
+			long[] busy = new long[64]; // Packed busy intervals of the current day, reused for every day
+			List<TimeSlot> windows = new ArrayList<>();
+
+			for (LocalDate day = fromDate; !day.isAfter(toDate); day = day.plusDays(1)) {
+				// Ordered by date, so each consultant's appointments of the day are one contiguous run
+				int count = 0;
+				for (int c = 0; c < schedules.size(); c++) {
+					List<Appointment> schedule = schedules.get(c);
+					while (next[c] < schedule.size() && schedule.get(next[c]).getDate().equals(day)) {
+						Appointment appointment = schedule.get(next[c]++);
+						int start = DaySchedule.minuteOf(appointment.getTime());
+						if (count == busy.length) {
+							busy = Arrays.copyOf(busy, count * 2);
+						}
+						busy[count++] = DaySchedule.packInterval(start, start + appointment.getDuration());
+					}
+				}
+				// Primitive sort by start minute, no comparator or boxed entries
+				Arrays.sort(busy, 0, count);
+
+				// Sweep: everything before cursor is covered by some consultant's appointment
+				int cursor = workingStartMinute;
+				for (int i = 0; i < count; i++) {
+					int start = DaySchedule.startOf(busy[i]);
+					addWindow(windows, day, cursor, Math.min(start, workingEndMinute), durationMinutes);
+					cursor = Math.max(cursor, DaySchedule.endOf(busy[i]));
 				}
+				addWindow(windows, day, cursor, workingEndMinute, durationMinutes);
+			}
+			return windows;
+		} catch (SQLException e) {
+			System.err.println("Error retrieving appointments: " + e.getMessage());
+			return Collections.emptyList();
+		}
+	}
+
+	// Add [startMinute, endMinute) on the day as a common window if it fits the duration
+	private static void addWindow(List<TimeSlot> windows, LocalDate day, int startMinute, int endMinute,
+			int durationMinutes) {
+		if (endMinute - startMinute >= durationMinutes) {
+			windows.add(new TimeSlot(day, DayOccupancy.timeOf(startMinute), DayOccupancy.timeOf(endMinute)));
+		}
+	}
 
-				// Move the start to the end of the current appointment
-				startOfWorkingDay = appointment.getTime().plusMinutes(appointment.getDuration());
+	// K-way merge of sorted per-consultant slot lists, keeping the first limit slots
+	private static List<ConsultantSlot> mergeEarliest(List<List<ConsultantSlot>> sortedLists, int limit) {
+		// Queue entries are {list, position} cursors ordered by the slot they point at
+		PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> ConsultantSlot.EARLIEST_FIRST
+				.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1])));
+		for (int i = 0; i < sortedLists.size(); i++) {
+			if (!sortedLists.get(i).isEmpty()) {
+				heads.add(new int[] { i, 0 });
+			}
+		}
+		List<ConsultantSlot> merged = new ArrayList<>(limit);
+		while (merged.size() < limit && !heads.isEmpty()) {
+			int[] head = heads.poll();
+			List<ConsultantSlot> list = sortedLists.get(head[0]);
+			merged.add(list.get(head[1]));
+			if (++head[1] < list.size()) {
+				heads.add(head);
 			}
+		}
+		return merged;
+	}
 
-			// Check for availability after the last appointment
-			if (startOfWorkingDay.isBefore(workingEnd)) {
-				availableSlots.add(new TimeSlot(startOfWorkingDay, workingEnd));
+	// Earliest free slots of durationMinutes in one consultant's appointments ordered by date and time,
+	// one per free gap, scanning horizonDays days from the given date and time and stopping at limit
+	private static List<TimeSlot> findSlots(List<Appointment> booked, int durationMinutes, LocalDateTime from,
+			int horizonDays, WorkingHours workingHours, int limit) {
+		List<TimeSlot> slots = new ArrayList<>();
+		LocalDate firstDay = from.toLocalDate();
+		LocalDate lastDay = firstDay.plusDays(horizonDays - 1L);
+		int workingStartMinute = DaySchedule.minuteOf(workingHours.getStart());
+		int workingEndMinute = DaySchedule.minuteOf(workingHours.getEnd());
+		DayOccupancy occupancy = new DayOccupancy(); // Reused for every day of the horizon
+		int next = 0;
+
+		for (LocalDate day = firstDay; !day.isAfter(lastDay) && slots.size() < limit; day = day.plusDays(1)) {
+			// Ordered by date, so each day's appointments are one contiguous run
+			occupancy.clear();
+			while (next < booked.size() && booked.get(next).getDate().equals(day)) {
+				Appointment appointment = booked.get(next++);
+				int start = DaySchedule.minuteOf(appointment.getTime());
+				occupancy.occupy(start, start + appointment.getDuration());
 			}
 
-			return availableSlots;
+			// On the first day, never offer a slot that has already started
+			int searchFrom = workingStartMinute;
+			if (day.equals(firstDay)) {
+				LocalTime fromTime = from.toLocalTime();
+				int fromMinute = DaySchedule.minuteOf(fromTime) + (fromTime.getSecond() > 0 ? 1 : 0);
+				searchFrom = Math.max(searchFrom, fromMinute);
+			}
 
-		} catch (SQLException e) {
-			System.err.println("Error retrieving appointments: " + e.getMessage());
-			return Collections.emptyList(); // Safe return null
+			int slotStart = occupancy.firstFit(durationMinutes, searchFrom, workingEndMinute);
+			while (slotStart >= 0 && slots.size() < limit) {
+				slots.add(new TimeSlot(day, DayOccupancy.timeOf(slotStart),
+						DayOccupancy.timeOf(slotStart + durationMinutes)));
+				// Continue after the end of this free gap
+				slotStart = occupancy.firstFit(durationMinutes, occupancy.nextOccupied(slotStart), workingEndMinute);
+			}
 		}
+		return slots;
 	}
 
 	// Reschedule an appointment after checking for time conflicts while filtering
@@ -218,34 +539,35 @@ public class AppointmentService {
 			return "Access Denied: Must be a consultant to delete appointments";
 		}
 		try {
-			// Get the appointment to be rescheduled
-			Appointment appointment = appointmentRepository.getAppointmentById(appointmentId);
-			if (appointment == null) {
-				return "Error: Appointment not found";
+			// Reject conflicts visible in the cached schedule without attempting the write
+			if (scheduleCache != null) {
+				Appointment cached = scheduleCache.find(appointmentId);
+				if (cached != null) {
+					int start = DaySchedule.minuteOf(newTime);
+					if (getDaySchedule(cached.getConsultantName(), newDate).overlaps(start,
+							start + cached.getDuration(), appointmentId)) {
+						return "Error: The requested time slot is not available for rescheduling.";
+					}
+				}
 			}
 
-			// Calculate the new end time based on the appointment's duration
-			LocalTime newEndTime = newTime.plusMinutes(appointment.getDuration());
-
-			// Get all appointments for the consultant on the same day
-			List<Appointment> consultantAppointments = appointmentRepository
-					.getAppointmentsByConsultantAndDate(appointment.getConsultantName(), newDate);
-
-			// Exclude the current appointment being rescheduled
-			consultantAppointments = consultantAppointments.stream()
-					.filter(existingAppointment -> !existingAppointment.getId().equals(appointmentId))
-					.collect(Collectors.toList());
-
-			// Check for time conflicts with other appointments
-			boolean isTimeSlotAvailable = consultantAppointments.stream()
-					.noneMatch(existingAppointment -> isOverlapping(existingAppointment, newTime, newEndTime));
-
-			if (!isTimeSlotAvailable) {
+			// Check for conflicts with the consultant's other appointments and move the
+			// appointment in one atomic statement on the database
+			BookingResult result = appointmentRepository.rescheduleAppointment(appointmentId, newDate, newTime);
+			if (result == BookingResult.NOT_FOUND) {
+				return "Error: Appointment not found";
+			}
+			if (result == BookingResult.CONFLICT) {
 				return "Error: The requested time slot is not available for rescheduling.";
 			}
-
-			// If no conflict, update the appointment's date and time in the database
-			appointmentRepository.updateAppointmentTime(appointmentId, newDate, newTime);
+			// Move the cached copy, or look the appointment up if its old day was not cached
+			if (scheduleCache != null && !scheduleCache.move(appointmentId, newDate, newTime)) {
+				Appointment moved = appointmentRepository.getAppointmentById(appointmentId);
+				if (moved != null) {
+					scheduleCache.update(moved);
+				}
+			}
+			publish(ChangeEvent.rescheduled(appointmentId, newDate, newTime));
 			return "Appointment successfully rescheduled.";
 		} catch (SQLException e) {
 			// Handle database errors
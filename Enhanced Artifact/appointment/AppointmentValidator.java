@@ -1,135 +1,151 @@
 package appointment;
 
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.LocalTime;
-
-import appointment.Appointment.AppointmentStatus;
-import appointment.Appointment.ConsultationType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
 
 //Enhancement To-do:
 //expand validation for time, date, and duration to check for more cases
 
 public class AppointmentValidator {
 
-	// Validate the entire appointment modularly
-	public String validate(Appointment appointment) {
-		String errorMessage;
-
-		errorMessage = validateId(appointment.getId());
-		if (errorMessage != null)
-			return errorMessage;
-
-		errorMessage = validateDate(appointment.getDate());
-		if (errorMessage != null)
-			return errorMessage;
-
-		errorMessage = validateTime(appointment.getTime());
-		if (errorMessage != null)
-			return errorMessage;
-
-		errorMessage = validateLocation(appointment.getLocation());
-		if (errorMessage != null)
-			return errorMessage;
-
-		errorMessage = validateClientName(appointment.getClientName());
-		if (errorMessage != null)
-			return errorMessage;
-
-		errorMessage = validateConsultantName(appointment.getConsultantName());
-		if (errorMessage != null)
-			return errorMessage;
+	// Lists at least this long are validated in parallel chunks
+	public static final int PARALLEL_THRESHOLD = 10_000;
+	private static final int CHUNK_SIZE = 4096;
+
+	// Problems found by the collect-all mode, in the order validate() checks them
+	public enum Violation {
+		ID_EMPTY("Appointment ID cannot be empty."),
+		DATE_IN_PAST("Appointment date cannot be in the past."), // Also reported for a missing date
+		TIME_EMPTY("Appointment time cannot be empty."),
+		LOCATION_EMPTY("Location cannot be empty."),
+		CLIENT_NAME_EMPTY("Client name cannot be empty."),
+		CONSULTANT_NAME_EMPTY("Consultant name cannot be empty."),
+		DESCRIPTION_EMPTY("Description cannot be empty."),
+		DURATION_NOT_POSITIVE("Duration must be greater than zero."),
+		DURATION_TOO_LONG("Duration cannot be longer than 5 hours"),
+		CONSULTATION_TYPE_EMPTY("Consultation type cannot be empty."),
+		STATUS_EMPTY("Status cannot be empty.");
+
+		private static final Violation[] VALUES = values();
+
+		private final String message;
+
+		Violation(String message) {
+			this.message = message;
+		}
 
-		errorMessage = validateDescription(appointment.getDescription());
-		if (errorMessage != null)
-			return errorMessage;
+		public String getMessage() {
+			return message;
+		}
 
-		errorMessage = validateDuration(appointment.getDuration());
-		if (errorMessage != null)
-			return errorMessage;
+		// Bit of this violation in a violation mask
+		public int bit() {
+			return 1 << ordinal();
+		}
 
-		errorMessage = validateConsultationType(appointment.getConsultationType());
-		if (errorMessage != null)
-			return errorMessage;
+		// Violation of the lowest set bit of a non-zero mask, the first one validate() would report
+		static Violation first(int violations) {
+			return VALUES[Integer.numberOfTrailingZeros(violations)];
+		}
+	}
 
-		errorMessage = validateStatus(appointment.getStatus());
-		if (errorMessage != null)
-			return errorMessage;
+	private final Clock clock;
 
-		return null; // No validation errors
+	// Constructor, dates are checked against the system clock
+	public AppointmentValidator() {
+		this(Clock.systemDefaultZone());
 	}
 
-	// Validation methods for each field
-	private String validateId(String id) {
-		if (id == null || id.isEmpty()) {
-			return "Appointment ID cannot be empty.";
-		}
-		return null;
+	// Constructor with the clock that decides which dates are in the past, e.g. a fixed clock in tests
+	public AppointmentValidator(Clock clock) {
+		this.clock = clock;
 	}
 
-	private String validateDate(LocalDate date) {
-		if (date == null || date.isBefore(LocalDate.now())) {
-			return "Appointment date cannot be in the past.";
-		}
-		return null;
+	// Validate the entire appointment, returning the first problem's message or null if it is valid
+	public String validate(Appointment appointment) {
+		int violations = violations(appointment, LocalDate.now(clock));
+		return violations == 0 ? null : Violation.first(violations).getMessage();
 	}
 
-	private String validateTime(LocalTime time) {
-		if (time == null) {
-			return "Appointment time cannot be empty.";
-		}
-		return null;
+	// Collect-all validation of one appointment into a caller-owned result, which is cleared first
+	// Reusing one result across many calls validates without allocating
+	public ValidationResult validateAll(Appointment appointment, ValidationResult result) {
+		result.set(violations(appointment, LocalDate.now(clock)));
+		return result;
 	}
 
-	private String validateLocation(String location) {
-		if (location == null || location.isEmpty()) {
-			return "Location cannot be empty.";
+	// Collect-all validation of a batch, e.g. a bulk import, with every problem of every row reported
+	// The clock is read once for the whole batch. Large lists are split into chunks validated in
+	// parallel, each chunk writing only its own slots of the result
+	public BatchValidationResult validateAll(List<Appointment> appointments) {
+		if (!(appointments instanceof RandomAccess)) {
+			appointments = new ArrayList<>(appointments); // Chunks index into the list
 		}
-		return null;
-	}
-
-	private String validateClientName(String clientName) {
-		if (clientName == null || clientName.isEmpty()) {
-			return "Client name cannot be empty.";
+		List<Appointment> rows = appointments;
+		LocalDate today = LocalDate.now(clock);
+		int size = rows.size();
+		int[] violations = new int[size];
+
+		if (size < PARALLEL_THRESHOLD) {
+			validateRange(rows, today, violations, 0, size);
+		} else {
+			int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+			IntStream.range(0, chunks).parallel().forEach(chunk -> validateRange(rows, today, violations,
+					chunk * CHUNK_SIZE, Math.min(size, (chunk + 1) * CHUNK_SIZE)));
 		}
-		return null;
+		return new BatchValidationResult(violations);
 	}
 
-	private String validateConsultantName(String consultantName) {
-		if (consultantName == null || consultantName.isEmpty()) {
-			return "Consultant name cannot be empty.";
+	private static void validateRange(List<Appointment> appointments, LocalDate today, int[] violations, int from,
+			int to) {
+		for (int i = from; i < to; i++) {
+			violations[i] = violations(appointments.get(i), today);
 		}
-		return null;
 	}
 
-	private String validateDescription(String description) {
-		if (description == null || description.isEmpty()) {
-			return "Description cannot be empty.";
+	// Mask of every violation of the appointment, 0 when it is valid
+	private static int violations(Appointment appointment, LocalDate today) {
+		int violations = 0;
+		if (isEmpty(appointment.getId())) {
+			violations |= Violation.ID_EMPTY.bit();
 		}
-		return null;
-	}
-
-	private String validateDuration(int duration) {
-		if (duration <= 0) {
-			return "Duration must be greater than zero.";
+		if (appointment.getDate() == null || appointment.getDate().isBefore(today)) {
+			violations |= Violation.DATE_IN_PAST.bit();
 		}
-		else if (duration > 300) {
-			return "Duration cannot be longer than 5 hours";
+		if (appointment.getTime() == null) {
+			violations |= Violation.TIME_EMPTY.bit();
 		}
-		return null;
-	}
-	
-	private String validateConsultationType(ConsultationType consultationType) {
-	    if (consultationType == null) {
-	        return "Consultation type cannot be empty.";
-	    }
-	    return null;
+		if (isEmpty(appointment.getLocation())) {
+			violations |= Violation.LOCATION_EMPTY.bit();
+		}
+		if (isEmpty(appointment.getClientName())) {
+			violations |= Violation.CLIENT_NAME_EMPTY.bit();
+		}
+		if (isEmpty(appointment.getConsultantName())) {
+			violations |= Violation.CONSULTANT_NAME_EMPTY.bit();
+		}
+		if (isEmpty(appointment.getDescription())) {
+			violations |= Violation.DESCRIPTION_EMPTY.bit();
+		}
+		if (appointment.getDuration() <= 0) {
+			violations |= Violation.DURATION_NOT_POSITIVE.bit();
+		} else if (appointment.getDuration() > 300) {
+			violations |= Violation.DURATION_TOO_LONG.bit();
+		}
+		if (appointment.getConsultationType() == null) {
+			violations |= Violation.CONSULTATION_TYPE_EMPTY.bit();
+		}
+		if (appointment.getStatus() == null) {
+			violations |= Violation.STATUS_EMPTY.bit();
+		}
+		return violations;
 	}
 
-	private String validateStatus(AppointmentStatus status) {
-	    if (status == null) {
-	        return "Status cannot be empty.";
-	    }
-	    return null;
+	private static boolean isEmpty(String value) {
+		return value == null || value.isEmpty();
 	}
-
 }
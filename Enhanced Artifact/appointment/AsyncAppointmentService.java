@@ -0,0 +1,168 @@
+package appointment;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Non-blocking facade over AppointmentService
+// Every call runs on the executor and completes a CompletableFuture, so web tier threads are not
+// parked on JDBC. A semaphore sized to the connection pool bounds how many calls touch the
+// database at once; callers beyond that wait for a permit instead of exhausting the pool
+public class AsyncAppointmentService implements AutoCloseable {
+
+	private final AppointmentService appointmentService;
+	private final ExecutorService executor;
+	private final Semaphore permits;
+	private final int maxConcurrency;
+	private final boolean ownsExecutor;
+
+	// Sized to the Hikari pool, so concurrent calls never wait on a connection
+	public AsyncAppointmentService(AppointmentService appointmentService) {
+		this(appointmentService, HikariCPDataSource.getMaximumPoolSize());
+	}
+
+	// Uses a fixed pool of maxConcurrency daemon threads, extra calls queue without holding a thread
+	public AsyncAppointmentService(AppointmentService appointmentService, int maxConcurrency) {
+		this(appointmentService, newWorkerPool(maxConcurrency), maxConcurrency, true);
+	}
+
+	// Uses the caller's executor, e.g. a virtual-thread-per-task executor on Java 21, with at most
+	// maxConcurrency calls inside AppointmentService at once; the caller keeps ownership of the executor
+	public AsyncAppointmentService(AppointmentService appointmentService, ExecutorService executor,
+			int maxConcurrency) {
+		this(appointmentService, executor, maxConcurrency, false);
+	}
+
+	private AsyncAppointmentService(AppointmentService appointmentService, ExecutorService executor,
+			int maxConcurrency, boolean ownsExecutor) {
+		if (maxConcurrency <= 0) {
+			throw new IllegalArgumentException("Concurrency limit must be greater than zero.");
+		}
+		this.appointmentService = appointmentService;
+		this.executor = executor;
+		this.permits = new Semaphore(maxConcurrency, true);
+		this.maxConcurrency = maxConcurrency;
+		this.ownsExecutor = ownsExecutor;
+	}
+
+	private static ExecutorService newWorkerPool(int threads) {
+		AtomicInteger counter = new AtomicInteger();
+		return Executors.newFixedThreadPool(threads, task -> {
+			Thread thread = new Thread(task, "appointment-async-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	// Run a blocking service call on the executor while holding a concurrency permit
+	private <T> CompletableFuture<T> submit(Supplier<T> call) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new CompletionException(e);
+			}
+			try {
+				return call.get();
+			} finally {
+				permits.release();
+			}
+		}, executor);
+	}
+
+	// Async versions of the AppointmentService operations
+	public CompletableFuture<String> addAppointmentAsync(Appointment appointment) {
+		return submit(() -> appointmentService.addAppointment(appointment));
+	}
+
+	public CompletableFuture<String> updateAppointmentAsync(Appointment appointment) {
+		return submit(() -> appointmentService.updateAppointment(appointment));
+	}
+
+	public CompletableFuture<Appointment> getAppointmentByIdAsync(String id) {
+		return submit(() -> appointmentService.getAppointmentById(id));
+	}
+
+	public CompletableFuture<String> deleteAppointmentAsync(String id) {
+		return submit(() -> appointmentService.deleteAppointment(id));
+	}
+
+	public CompletableFuture<List<Appointment>> getAllAppointmentsAsync() {
+		return submit(appointmentService::getAllAppointments);
+	}
+
+	public CompletableFuture<List<Appointment>> getAppointmentsByConsultantBetweenAsync(String consultantName,
+			LocalDate fromDate, LocalDate toDate) {
+		return submit(() -> appointmentService.getAppointmentsByConsultantBetween(consultantName, fromDate, toDate));
+	}
+
+	public CompletableFuture<List<TimeSlot>> getAvailableTimeSlotsAsync(String consultantName, LocalDate date,
+			LocalTime workingStart, LocalTime workingEnd) {
+		return submit(() -> appointmentService.getAvailableTimeSlots(consultantName, date, workingStart, workingEnd));
+	}
+
+	public CompletableFuture<TimeSlot> findNextAvailableSlotAsync(String consultantName, int durationMinutes,
+			LocalDateTime from, int horizonDays, WorkingHours workingHours) {
+		return submit(() -> appointmentService.findNextAvailableSlot(consultantName, durationMinutes, from,
+				horizonDays, workingHours));
+	}
+
+	public CompletableFuture<List<ConsultantSlot>> findEarliestSlotsAsync(Collection<String> consultantNames,
+			int durationMinutes, LocalDateTime from, int horizonDays, WorkingHours workingHours, int limit) {
+		return submit(() -> appointmentService.findEarliestSlots(consultantNames, durationMinutes, from, horizonDays,
+				workingHours, limit));
+	}
+
+	public CompletableFuture<List<TimeSlot>> findCommonAvailabilityAsync(Collection<String> consultantNames,
+			LocalDate fromDate, LocalDate toDate, WorkingHours workingHours, int durationMinutes) {
+		return submit(() -> appointmentService.findCommonAvailability(consultantNames, fromDate, toDate,
+				workingHours, durationMinutes));
+	}
+
+	// Database errors complete the future exceptionally with the SQLException as the cause
+	public CompletableFuture<String> rescheduleAppointmentAsync(String appointmentId, LocalDate newDate,
+			LocalTime newTime) {
+		return submit(() -> {
+			try {
+				return appointmentService.rescheduleAppointment(appointmentId, newDate, newTime);
+			} catch (SQLException e) {
+				throw new CompletionException(e);
+			}
+		});
+	}
+
+	// Calls currently inside AppointmentService
+	public int getActiveCount() {
+		return maxConcurrency - permits.availablePermits();
+	}
+
+	// Calls waiting for a permit
+	public int getWaitingCount() {
+		return permits.getQueueLength();
+	}
+
+	// Stop accepting work and wait for in-flight calls when this facade owns its executor
+	@Override
+	public void close() {
+		if (ownsExecutor) {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
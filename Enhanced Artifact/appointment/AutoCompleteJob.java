@@ -0,0 +1,112 @@
+package appointment;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Maintenance job moving SCHEDULED appointments whose end time has passed to COMPLETED
+// Each run issues bounded, set-based UPDATE chunks until no matching rows are left, reporting
+// progress after every chunk. Runs are idempotent, so several nodes may schedule the job at once
+public class AutoCompleteJob implements AutoCloseable {
+
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	private final AppointmentRepository appointmentRepository;
+	private final int chunkSize;
+	private final Duration pauseBetweenChunks;
+	private final Clock clock;
+	private final ProgressListener listener;
+	private ScheduledExecutorService scheduler;
+	private volatile boolean closing; // Set by close, ends a run in progress after its current chunk
+
+	// Receives progress after each chunk of a run
+	@FunctionalInterface
+	public interface ProgressListener {
+		void onChunk(int chunkNumber, int completedInChunk, long completedInRun);
+	}
+
+	// Constructor with defaults: 1000 rows per chunk, no pause, system clock, progress not reported
+	public AutoCompleteJob(AppointmentRepository appointmentRepository) {
+		this(appointmentRepository, DEFAULT_CHUNK_SIZE, Duration.ZERO, Clock.systemDefaultZone(),
+				(chunk, inChunk, inRun) -> {
+				});
+	}
+
+	// Constructor
+	// pauseBetweenChunks gives other writers room between chunks on busy tables
+	public AutoCompleteJob(AppointmentRepository appointmentRepository, int chunkSize, Duration pauseBetweenChunks,
+			Clock clock, ProgressListener listener) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size must be greater than zero.");
+		}
+		this.appointmentRepository = appointmentRepository;
+		this.chunkSize = chunkSize;
+		this.pauseBetweenChunks = pauseBetweenChunks;
+		this.clock = clock;
+		this.listener = listener;
+	}
+
+	// Complete every appointment that has ended as of now, returns the number completed
+	public long runOnce() throws SQLException, InterruptedException {
+		// One cutoff for the whole run, so chunks agree on what "past" means
+		LocalDateTime cutoff = LocalDateTime.now(clock);
+		long completedInRun = 0;
+		int chunkNumber = 0;
+		int completed;
+		do {
+			completed = appointmentRepository.completePastAppointments(cutoff, chunkSize);
+			completedInRun += completed;
+			listener.onChunk(++chunkNumber, completed, completedInRun);
+			if (completed == chunkSize && !pauseBetweenChunks.isZero()) {
+				Thread.sleep(pauseBetweenChunks.toMillis());
+			}
+		} while (completed == chunkSize && !closing);
+		return completedInRun;
+	}
+
+	// Run the job every interval on a background thread until closed
+	public synchronized void schedule(Duration interval) {
+		if (scheduler != null) {
+			throw new IllegalStateException("Auto-complete job is already scheduled.");
+		}
+		closing = false;
+		scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "appointment-auto-complete");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				runOnce();
+			} catch (SQLException e) {
+				// Handle database errors, the next run retries
+				System.err.println("Auto-complete run failed due to a database error: " + e.getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (RuntimeException e) {
+				// An exception escaping the task would cancel every later run
+				System.err.println("Auto-complete run failed: " + e);
+			}
+		}, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	// Stop scheduled runs, waiting for a run in progress to finish its current chunk
+	// The run is not interrupted, so a chunk's UPDATE is never cut off mid-statement
+	@Override
+	public synchronized void close() {
+		if (scheduler != null) {
+			closing = true;
+			scheduler.shutdown();
+			try {
+				scheduler.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			scheduler = null;
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package appointment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of a bulk insert: how many rows went in and which rows were rejected
+public class BatchInsertResult {
+	private int insertedCount;
+	private final List<RowFailure> failures = new ArrayList<>();
+
+	// A single rejected row, identified by its position in the submitted collection
+	public static class RowFailure {
+		private final int index;
+		private final Appointment appointment;
+		private final String message;
+
+		public RowFailure(int index, Appointment appointment, String message) {
+			this.index = index;
+			this.appointment = appointment;
+			this.message = message;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public Appointment getAppointment() {
+			return appointment;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public String toString() {
+			return "Row " + index + " failed: " + message;
+		}
+	}
+
+	void addInserted(int count) {
+		insertedCount += count;
+	}
+
+	void addFailure(int index, Appointment appointment, String message) {
+		failures.add(new RowFailure(index, appointment, message));
+	}
+
+	// Getters
+	public int getInsertedCount() {
+		return insertedCount;
+	}
+
+	public List<RowFailure> getFailures() {
+		return Collections.unmodifiableList(failures);
+	}
+
+	public boolean hasFailures() {
+		return !failures.isEmpty();
+	}
+}
@@ -0,0 +1,89 @@
+package appointment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import appointment.AppointmentValidator.Violation;
+
+// Outcome of validating a batch: the violation mask of every row, by position in the submitted list
+// One int per row, so even a batch of millions of rows stays small
+public class BatchValidationResult {
+	private final int[] violations;
+	private final int invalidCount;
+
+	BatchValidationResult(int[] violations) {
+		this.violations = violations;
+		int invalid = 0;
+		for (int mask : violations) {
+			if (mask != 0) {
+				invalid++;
+			}
+		}
+		this.invalidCount = invalid;
+	}
+
+	// Number of rows validated
+	public int size() {
+		return violations.length;
+	}
+
+	public int getInvalidCount() {
+		return invalidCount;
+	}
+
+	public boolean hasViolations() {
+		return invalidCount > 0;
+	}
+
+	public boolean isValid(int index) {
+		return violations[index] == 0;
+	}
+
+	public boolean has(int index, Violation violation) {
+		return (violations[index] & violation.bit()) != 0;
+	}
+
+	// Violation mask of a row, see Violation.bit()
+	public int getViolationMask(int index) {
+		return violations[index];
+	}
+
+	// Copy a row's violations into a reusable result
+	public ValidationResult resultAt(int index, ValidationResult result) {
+		result.set(violations[index]);
+		return result;
+	}
+
+	// Number of rows with the given violation
+	public int countOf(Violation violation) {
+		int count = 0;
+		for (int mask : violations) {
+			if ((mask & violation.bit()) != 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// Positions of the invalid rows, in order
+	public List<Integer> getInvalidIndexes() {
+		List<Integer> indexes = new ArrayList<>(invalidCount);
+		for (int i = 0; i < violations.length; i++) {
+			if (violations[i] != 0) {
+				indexes.add(i);
+			}
+		}
+		return Collections.unmodifiableList(indexes);
+	}
+
+	// Violations of a row in check order, allocated on each call; meant for reporting
+	public List<Violation> getViolations(int index) {
+		return ValidationResult.violationsOf(violations[index]);
+	}
+
+	@Override
+	public String toString() {
+		return "BatchValidationResult[rows=" + violations.length + ", invalid=" + invalidCount + "]";
+	}
+}
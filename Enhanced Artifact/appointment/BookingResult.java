@@ -0,0 +1,8 @@
+package appointment;
+
+// Outcome of a conflict-checked booking or reschedule
+public enum BookingResult {
+	BOOKED, // Written, no overlapping appointment existed
+	CONFLICT, // Rejected, the slot overlaps another appointment of the consultant
+	NOT_FOUND; // Rejected, the appointment to reschedule does not exist
+}
@@ -0,0 +1,107 @@
+package appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import appointment.Appointment.AppointmentStatus;
+
+// One appointment change recorded in the change log
+// Which optional fields are set depends on the type: ADDED and UPDATED carry the full appointment,
+// RESCHEDULED the new date and time, STATUS_CHANGED the new status, DELETED only the id
+public class ChangeEvent {
+	private final long offset; // Position in the change log, -1 before the event is appended
+	private final ChangeType type;
+	private final String appointmentId;
+	private final long timestamp; // Epoch milliseconds
+	private final Appointment appointment;
+	private final LocalDate newDate;
+	private final LocalTime newTime;
+	private final AppointmentStatus newStatus;
+
+	public enum ChangeType {
+		ADDED, UPDATED, DELETED, RESCHEDULED, STATUS_CHANGED;
+	}
+
+	// Constructor
+	public ChangeEvent(long offset, ChangeType type, String appointmentId, long timestamp, Appointment appointment,
+			LocalDate newDate, LocalTime newTime, AppointmentStatus newStatus) {
+		this.offset = offset;
+		this.type = type;
+		this.appointmentId = appointmentId;
+		this.timestamp = timestamp;
+		this.appointment = appointment;
+		this.newDate = newDate;
+		this.newTime = newTime;
+		this.newStatus = newStatus;
+	}
+
+	// Factories for each kind of change, offsets are assigned when appended
+	public static ChangeEvent added(Appointment appointment) {
+		return new ChangeEvent(-1, ChangeType.ADDED, appointment.getId(), System.currentTimeMillis(), appointment,
+				null, null, null);
+	}
+
+	public static ChangeEvent updated(Appointment appointment) {
+		return new ChangeEvent(-1, ChangeType.UPDATED, appointment.getId(), System.currentTimeMillis(), appointment,
+				null, null, null);
+	}
+
+	public static ChangeEvent deleted(String appointmentId) {
+		return new ChangeEvent(-1, ChangeType.DELETED, appointmentId, System.currentTimeMillis(), null, null, null,
+				null);
+	}
+
+	public static ChangeEvent rescheduled(String appointmentId, LocalDate newDate, LocalTime newTime) {
+		return new ChangeEvent(-1, ChangeType.RESCHEDULED, appointmentId, System.currentTimeMillis(), null, newDate,
+				newTime, null);
+	}
+
+	public static ChangeEvent statusChanged(String appointmentId, AppointmentStatus newStatus) {
+		return new ChangeEvent(-1, ChangeType.STATUS_CHANGED, appointmentId, System.currentTimeMillis(), null, null,
+				null, newStatus);
+	}
+
+	// Copy of this event at its assigned log offset
+	ChangeEvent withOffset(long assignedOffset) {
+		return new ChangeEvent(assignedOffset, type, appointmentId, timestamp, appointment, newDate, newTime,
+				newStatus);
+	}
+
+	// Getters
+	public long getOffset() {
+		return offset;
+	}
+
+	public ChangeType getType() {
+		return type;
+	}
+
+	public String getAppointmentId() {
+		return appointmentId;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public Appointment getAppointment() {
+		return appointment;
+	}
+
+	public LocalDate getNewDate() {
+		return newDate;
+	}
+
+	public LocalTime getNewTime() {
+		return newTime;
+	}
+
+	public AppointmentStatus getNewStatus() {
+		return newStatus;
+	}
+
+	@Override
+	public String toString() {
+		return "ChangeEvent[offset=" + offset + ", type=" + type + ", id=" + appointmentId + "]";
+	}
+}
@@ -0,0 +1,252 @@
+package appointment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import appointment.Appointment.AppointmentStatus;
+
+// Append-only change log (outbox) of appointment changes for downstream consumers
+// Events are stored in fixed-size memory-mapped segment files named after the offset of their first
+// event. Offsets increase by one per event and are never reused, so a consumer can save the offset
+// it reached and tail the log from there with a ChangeLogReader
+public class ChangeLog implements AutoCloseable {
+
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	// Record layout: int payload length, int CRC32 of the payload, long offset, payload
+	// The length is written last, so a zero length marks the end of the written part of a segment
+	static final int HEADER_SIZE = 16;
+	// Largest record, header included; bounds the region recovery has to clear after a torn append
+	static final int MAX_RECORD_SIZE = 1024 * 1024;
+	static final String SEGMENT_SUFFIX = ".log";
+
+	// Appointments are written without a dictionary, the log outlives the process
+	private static final AppointmentCodec CODEC = new AppointmentCodec();
+
+	private final Path directory;
+	private final int segmentSize;
+	private final boolean syncOnAppend;
+	private FileChannel channel;
+	private MappedByteBuffer segment;
+	private long nextOffset;
+	private boolean closed;
+
+	// Constructor with 64 MiB segments, flushed to disk on flush() and close()
+	public ChangeLog(Path directory) throws IOException {
+		this(directory, DEFAULT_SEGMENT_SIZE, false);
+	}
+
+	// Constructor, opening the log in the directory and recovering its end after a crash
+	// syncOnAppend forces every event to disk before append returns
+	public ChangeLog(Path directory, int segmentSize, boolean syncOnAppend) throws IOException {
+		if (segmentSize <= HEADER_SIZE) {
+			throw new IllegalArgumentException("Segment size must be greater than " + HEADER_SIZE + " bytes.");
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.syncOnAppend = syncOnAppend;
+		Files.createDirectories(directory);
+
+		List<Long> bases = segmentBases(directory);
+		if (bases.isEmpty()) {
+			openSegment(0);
+		} else {
+			openSegment(bases.get(bases.size() - 1));
+			recover();
+		}
+	}
+
+	// Append an event, returning it with its assigned offset
+	public synchronized ChangeEvent append(ChangeEvent event) throws IOException {
+		if (closed) {
+			throw new IllegalStateException("Change log is closed.");
+		}
+		ChangeEvent appended = event.withOffset(nextOffset);
+		byte[] payload = encode(appended);
+		if (HEADER_SIZE + payload.length > Math.min(segmentSize, MAX_RECORD_SIZE)) {
+			throw new IllegalArgumentException("Change event does not fit in a log segment.");
+		}
+		if (segment.position() + HEADER_SIZE + payload.length > segmentSize) {
+			// Leave the rest of the full segment zeroed and continue in a new one
+			segment.force();
+			channel.close();
+			openSegment(nextOffset);
+		}
+
+		int position = segment.position();
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		segment.putInt(position + 4, (int) crc.getValue());
+		segment.putLong(position + 8, nextOffset);
+		segment.put(position + HEADER_SIZE, payload);
+		// Publish the record by writing its length last
+		segment.putInt(position, payload.length);
+		segment.position(position + HEADER_SIZE + payload.length);
+		if (syncOnAppend) {
+			segment.force();
+		}
+		nextOffset++;
+		return appended;
+	}
+
+	// Offset the next appended event will receive
+	public synchronized long getNextOffset() {
+		return nextOffset;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	// Force appended events to disk
+	public synchronized void flush() {
+		if (!closed) {
+			segment.force();
+		}
+	}
+
+	// Delete whole segments whose events all precede the offset, e.g. the lowest offset saved by any consumer
+	// Returns the number of segments deleted; the active segment is never deleted
+	public synchronized int deleteSegmentsBefore(long offset) throws IOException {
+		List<Long> bases = segmentBases(directory);
+		int deleted = 0;
+		for (int i = 0; i + 1 < bases.size() && bases.get(i + 1) <= offset; i++) {
+			Files.deleteIfExists(segmentPath(directory, bases.get(i)));
+			deleted++;
+		}
+		return deleted;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		segment.force();
+		channel.close();
+	}
+
+	private void openSegment(long baseOffset) throws IOException {
+		channel = FileChannel.open(segmentPath(directory, baseOffset), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		nextOffset = baseOffset;
+	}
+
+	// Find the end of the last segment, zeroing a torn record left by a crash mid-append
+	private void recover() {
+		int position = 0;
+		while (position + HEADER_SIZE <= segmentSize) {
+			int length = segment.getInt(position);
+			if (length <= 0 || position + HEADER_SIZE + length > segmentSize
+					|| !checksumMatches(segment, position, length)) {
+				break;
+			}
+			nextOffset = segment.getLong(position + 8) + 1;
+			position += HEADER_SIZE + length;
+		}
+		// The length is written last, so a torn record usually starts with a zero length while its
+		// checksum, offset and payload bytes are already there. A torn record starts at the end of the
+		// last good one and is at most MAX_RECORD_SIZE long, so only that region is cleared, which keeps
+		// start-up from faulting in the rest of the segment
+		int tornEnd = (int) Math.min(segmentSize, (long) position + MAX_RECORD_SIZE);
+		boolean zeroed = false;
+		for (int i = position; i < tornEnd; i++) {
+			if (segment.get(i) != 0) {
+				segment.put(i, (byte) 0);
+				zeroed = true;
+			}
+		}
+		if (zeroed) {
+			segment.force();
+		}
+		segment.position(position);
+	}
+
+	static boolean checksumMatches(ByteBuffer buffer, int position, int length) {
+		CRC32 crc = new CRC32();
+		crc.update(buffer.slice(position + HEADER_SIZE, length));
+		return (int) crc.getValue() == buffer.getInt(position + 4);
+	}
+
+	static Path segmentPath(Path directory, long baseOffset) {
+		return directory.resolve(String.format("%020d", baseOffset) + SEGMENT_SUFFIX);
+	}
+
+	// Base offsets of the segments in the directory, in ascending order
+	static List<Long> segmentBases(Path directory) throws IOException {
+		List<Long> bases = new ArrayList<>();
+		try (Stream<Path> files = Files.list(directory)) {
+			files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(SEGMENT_SUFFIX))
+					.forEach(name -> bases.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()))));
+		}
+		bases.sort(null);
+		return bases;
+	}
+
+	// Serialize an event's payload; the offset is stored in the record header
+	// Layout: type ordinal, id, timestamp, appointment in AppointmentCodec form or a zero byte,
+	// new date as epoch day and time as second of day or a zero byte, new status ordinal or -1
+	static byte[] encode(ChangeEvent event) {
+		Appointment appointment = event.getAppointment();
+		byte[] id = event.getAppointmentId().getBytes(StandardCharsets.UTF_8);
+		int capacity = 1 + 4 + id.length + 8 + 1
+				+ (appointment != null ? AppointmentCodec.maxEncodedSize(appointment) : 0) + 1 + 12 + 1;
+		ByteBuffer out = ByteBuffer.allocate(capacity);
+		out.put((byte) event.getType().ordinal());
+		out.putInt(id.length).put(id);
+		out.putLong(event.getTimestamp());
+		if (appointment != null) {
+			CODEC.encode(appointment, out); // Starts with the codec version, never zero
+		} else {
+			out.put((byte) 0);
+		}
+		if (event.getNewDate() != null) {
+			out.put((byte) 1);
+			out.putLong(event.getNewDate().toEpochDay());
+			out.putInt(event.getNewTime().toSecondOfDay());
+		} else {
+			out.put((byte) 0);
+		}
+		out.put((byte) (event.getNewStatus() == null ? -1 : event.getNewStatus().ordinal()));
+		byte[] bytes = new byte[out.position()];
+		out.flip().get(bytes);
+		return bytes;
+	}
+
+	static ChangeEvent decode(long offset, ByteBuffer payload) {
+		ChangeEvent.ChangeType type = ChangeEvent.ChangeType.values()[payload.get()];
+		byte[] id = new byte[payload.getInt()];
+		payload.get(id);
+		String appointmentId = new String(id, StandardCharsets.UTF_8);
+		long timestamp = payload.getLong();
+		Appointment appointment = null;
+		if (payload.get(payload.position()) != 0) {
+			appointment = CODEC.decode(payload);
+		} else {
+			payload.get();
+		}
+		LocalDate newDate = null;
+		LocalTime newTime = null;
+		if (payload.get() != 0) {
+			newDate = LocalDate.ofEpochDay(payload.getLong());
+			newTime = LocalTime.ofSecondOfDay(payload.getInt());
+		}
+		byte statusOrdinal = payload.get();
+		AppointmentStatus newStatus = statusOrdinal < 0 ? null : AppointmentStatus.values()[statusOrdinal];
+		return new ChangeEvent(offset, type, appointmentId, timestamp, appointment, newDate, newTime, newStatus);
+	}
+}
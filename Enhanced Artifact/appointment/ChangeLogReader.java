@@ -0,0 +1,112 @@
+package appointment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Tails a change log directory from a saved offset, e.g. in a billing or reminder process
+// Segments are mapped read-only and scanned sequentially; poll returns what has been appended so far
+// and can be called again later to pick up new events
+public class ChangeLogReader implements AutoCloseable {
+
+	private final Path directory;
+	private final long fromOffset;
+	private FileChannel channel;
+	private MappedByteBuffer segment;
+	private long segmentBase;
+	private int position;
+	private long nextOffset;
+
+	// Constructor, positioned at the first event with an offset of at least fromOffset
+	public ChangeLogReader(Path directory, long fromOffset) throws IOException {
+		this.directory = directory;
+		this.fromOffset = fromOffset;
+		// Start in the last segment beginning at or before the offset, events before it are skipped
+		List<Long> bases = ChangeLog.segmentBases(directory);
+		long base = bases.isEmpty() ? 0 : bases.get(0);
+		for (long candidate : bases) {
+			if (candidate <= fromOffset) {
+				base = candidate;
+			}
+		}
+		nextOffset = base;
+	}
+
+	// Deliver up to maxEvents appended events to the consumer in offset order
+	// Returns the number delivered; save getNextOffset() to resume from here later
+	public int poll(int maxEvents, Consumer<? super ChangeEvent> consumer) throws IOException {
+		int delivered = 0;
+		while (delivered < maxEvents) {
+			if (segment == null && !openSegment(nextOffset)) {
+				break;
+			}
+			int read = readRecord(consumer);
+			if (read > 0) {
+				delivered++;
+			} else if (read == 0) {
+				continue; // Skipped an event before the starting offset
+			} else if (nextOffset != segmentBase && Files.exists(ChangeLog.segmentPath(directory, nextOffset))) {
+				// The writer rolled over, continue in the next segment
+				channel.close();
+				segment = null;
+			} else {
+				break;
+			}
+		}
+		return delivered;
+	}
+
+	// Offset of the next event this reader will deliver
+	public long getNextOffset() {
+		return Math.max(nextOffset, fromOffset);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+		segment = null;
+	}
+
+	private boolean openSegment(long baseOffset) throws IOException {
+		Path path = ChangeLog.segmentPath(directory, baseOffset);
+		if (!Files.exists(path)) {
+			return false;
+		}
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		segmentBase = baseOffset;
+		position = 0;
+		return true;
+	}
+
+	// Read the record at the current position if it is completely written
+	// Returns 1 if an event was delivered, 0 if one before the starting offset was skipped and -1 if
+	// there is none yet; a record whose checksum does not match yet is still being written
+	private int readRecord(Consumer<? super ChangeEvent> consumer) throws IOException {
+		if (position + ChangeLog.HEADER_SIZE > segment.capacity()) {
+			return -1;
+		}
+		int length = segment.getInt(position);
+		if (length <= 0 || position + ChangeLog.HEADER_SIZE + length > segment.capacity()
+				|| !ChangeLog.checksumMatches(segment, position, length)) {
+			return -1;
+		}
+		long offset = segment.getLong(position + 8);
+		position += ChangeLog.HEADER_SIZE + length;
+		nextOffset = offset + 1;
+		if (offset < fromOffset) {
+			return 0;
+		}
+		ByteBuffer payload = segment.slice(position - length, length);
+		consumer.accept(ChangeLog.decode(offset, payload));
+		return 1;
+	}
+}
@@ -0,0 +1,35 @@
+package appointment;
+
+import java.util.Comparator;
+
+// A free time slot offered by a specific consultant
+public class ConsultantSlot {
+	private final String consultantName;
+	private final TimeSlot slot;
+
+	// Earliest first, ties broken by consultant name so results are stable
+	public static final Comparator<ConsultantSlot> EARLIEST_FIRST = Comparator
+			.comparing((ConsultantSlot s) -> s.getSlot().getDate())
+			.thenComparing(s -> s.getSlot().getStart())
+			.thenComparing(ConsultantSlot::getConsultantName);
+
+	// Constructor
+	public ConsultantSlot(String consultantName, TimeSlot slot) {
+		this.consultantName = consultantName;
+		this.slot = slot;
+	}
+
+	// Getters
+	public String getConsultantName() {
+		return consultantName;
+	}
+
+	public TimeSlot getSlot() {
+		return slot;
+	}
+
+	@Override
+	public String toString() {
+		return consultantName + ": " + slot;
+	}
+}
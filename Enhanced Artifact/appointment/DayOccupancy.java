@@ -0,0 +1,188 @@
+package appointment;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+// Minute-granularity occupancy of one consultant-day packed into a bitmap
+// Bit m is set when minute m of the day is booked; 1440 bits fit in 23 longs, so availability
+// checks and free-slot searches are a handful of word-wide operations with no allocation
+public class DayOccupancy {
+
+	public static final int MINUTES_PER_DAY = 1440;
+	private static final int WORDS = (MINUTES_PER_DAY + 63) >>> 6;
+
+	private final long[] words = new long[WORDS];
+
+	// Independent copy of this bitmap
+	public DayOccupancy copy() {
+		DayOccupancy copy = new DayOccupancy();
+		System.arraycopy(words, 0, copy.words, 0, WORDS);
+		return copy;
+	}
+
+	// Build the occupancy of a day from its appointments
+	// Appointments running past midnight are clipped to the end of the day
+	public static DayOccupancy of(List<Appointment> appointments) {
+		DayOccupancy occupancy = new DayOccupancy();
+		for (Appointment appointment : appointments) {
+			int start = DaySchedule.minuteOf(appointment.getTime());
+			occupancy.occupy(start, start + appointment.getDuration());
+		}
+		return occupancy;
+	}
+
+	// Build the occupancy of a day from its columnar schedule
+	public static DayOccupancy of(DaySchedule schedule) {
+		DayOccupancy occupancy = new DayOccupancy();
+		for (int i = 0; i < schedule.size(); i++) {
+			occupancy.occupy(schedule.startAt(i), schedule.endAt(i));
+		}
+		return occupancy;
+	}
+
+	// Mark [startMinute, endMinute) as booked
+	public void occupy(int startMinute, int endMinute) {
+		int from = clamp(startMinute);
+		int to = clamp(endMinute);
+		if (from >= to) {
+			return;
+		}
+		int firstWord = from >>> 6;
+		int lastWord = (to - 1) >>> 6;
+		long firstMask = -1L << from; // Shifts use the low 6 bits, i.e. the position within the word
+		long lastMask = -1L >>> -to;
+		if (firstWord == lastWord) {
+			words[firstWord] |= firstMask & lastMask;
+			return;
+		}
+		words[firstWord] |= firstMask;
+		for (int i = firstWord + 1; i < lastWord; i++) {
+			words[i] = -1L;
+		}
+		words[lastWord] |= lastMask;
+	}
+
+	// Mark the whole day as free, so one bitmap can be reused across days
+	public void clear() {
+		Arrays.fill(words, 0L);
+	}
+
+	// Mark [startMinute, endMinute) as free
+	// Only valid when no other appointment shares those minutes, otherwise rebuild with of()
+	public void release(int startMinute, int endMinute) {
+		int from = clamp(startMinute);
+		int to = clamp(endMinute);
+		if (from >= to) {
+			return;
+		}
+		int firstWord = from >>> 6;
+		int lastWord = (to - 1) >>> 6;
+		long firstMask = -1L << from;
+		long lastMask = -1L >>> -to;
+		if (firstWord == lastWord) {
+			words[firstWord] &= ~(firstMask & lastMask);
+			return;
+		}
+		words[firstWord] &= ~firstMask;
+		for (int i = firstWord + 1; i < lastWord; i++) {
+			words[i] = 0L;
+		}
+		words[lastWord] &= ~lastMask;
+	}
+
+	// Is every minute of [startMinute, endMinute) free
+	// Minutes past midnight are treated as free, matching the clipping in occupy
+	public boolean isFree(int startMinute, int endMinute) {
+		int from = clamp(startMinute);
+		int to = clamp(endMinute);
+		if (from >= to) {
+			return true;
+		}
+		int firstWord = from >>> 6;
+		int lastWord = (to - 1) >>> 6;
+		long firstMask = -1L << from;
+		long lastMask = -1L >>> -to;
+		if (firstWord == lastWord) {
+			return (words[firstWord] & firstMask & lastMask) == 0;
+		}
+		if ((words[firstWord] & firstMask) != 0) {
+			return false;
+		}
+		for (int i = firstWord + 1; i < lastWord; i++) {
+			if (words[i] != 0) {
+				return false;
+			}
+		}
+		return (words[lastWord] & lastMask) == 0;
+	}
+
+	// First free minute at or after fromMinute, or MINUTES_PER_DAY if the rest of the day is booked
+	public int nextFree(int fromMinute) {
+		if (fromMinute >= MINUTES_PER_DAY) {
+			return MINUTES_PER_DAY;
+		}
+		int i = fromMinute >>> 6;
+		long word = ~words[i] & (-1L << fromMinute);
+		while (true) {
+			if (word != 0) {
+				return Math.min(MINUTES_PER_DAY, (i << 6) + Long.numberOfTrailingZeros(word));
+			}
+			if (++i == WORDS) {
+				return MINUTES_PER_DAY;
+			}
+			word = ~words[i];
+		}
+	}
+
+	// First booked minute at or after fromMinute, or MINUTES_PER_DAY if the rest of the day is free
+	public int nextOccupied(int fromMinute) {
+		if (fromMinute >= MINUTES_PER_DAY) {
+			return MINUTES_PER_DAY;
+		}
+		int i = fromMinute >>> 6;
+		long word = words[i] & (-1L << fromMinute);
+		while (true) {
+			if (word != 0) {
+				return (i << 6) + Long.numberOfTrailingZeros(word);
+			}
+			if (++i == WORDS) {
+				return MINUTES_PER_DAY;
+			}
+			word = words[i];
+		}
+	}
+
+	// Start minute of the first free run of at least durationMinutes inside [fromMinute, toMinute),
+	// or -1 if none fits
+	public int firstFit(int durationMinutes, int fromMinute, int toMinute) {
+		int to = clamp(toMinute);
+		int start = nextFree(Math.max(0, fromMinute));
+		while (start + durationMinutes <= to) {
+			int end = nextOccupied(start);
+			if (end - start >= durationMinutes) {
+				return start;
+			}
+			start = nextFree(end);
+		}
+		return -1;
+	}
+
+	// Number of booked minutes in the day
+	public int occupiedMinutes() {
+		int count = 0;
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	// Time of day for a minute
+	public static LocalTime timeOf(int minute) {
+		return minute >= MINUTES_PER_DAY ? LocalTime.MAX : LocalTime.of(minute / 60, minute % 60);
+	}
+
+	private static int clamp(int minute) {
+		return Math.max(0, Math.min(MINUTES_PER_DAY, minute));
+	}
+}
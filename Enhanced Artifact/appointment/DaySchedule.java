@@ -0,0 +1,362 @@
+package appointment;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import appointment.Appointment.AppointmentStatus;
+
+// Columnar, primitive schedule of one consultant-day for availability checks
+// Appointments are positions in parallel arrays sorted by start minute: start minute, duration,
+// status ordinal and id, about 11 bytes per appointment plus the shared id. Overlap checks and gap
+// extraction walk the arrays directly and allocate nothing. Instances are never changed after
+// construction, so a cached schedule can be shared between threads
+// Two indexes over the ends are built with the columns: the running maximum end, which answers
+// overlaps and starts the gap walks in O(log n) however long one appointment is, and a sparse table of
+// the latest-ending position in every power-of-two range, which lists the k overlaps of an interval
+// in O(log n + k). Together they add 4 * (1 + log2 n) bytes per appointment
+// Overlap is strict: an interval may start exactly when another ends
+public final class DaySchedule {
+
+	private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+	private static final DaySchedule EMPTY = new DaySchedule(new int[0], new short[0], new byte[0], new String[0]);
+
+	private final int[] starts; // Start minute of day, ascending
+	private final short[] durations; // In minutes, clamped to the short range
+	private final byte[] statuses; // Status ordinals
+	private final String[] ids;
+	private final int[] maxEndUpTo; // Latest end among positions 0..i
+	private final int[][] latestEnding; // [k][i]: position of the latest end in i .. i + 2^(k+1) - 1
+
+	// Receives the free gaps of a schedule
+	@FunctionalInterface
+	public interface GapVisitor {
+		void gap(int startMinute, int endMinute);
+	}
+
+	private DaySchedule(int[] starts, short[] durations, byte[] statuses, String[] ids) {
+		this.starts = starts;
+		this.durations = durations;
+		this.statuses = statuses;
+		this.ids = ids;
+		int n = starts.length;
+		this.maxEndUpTo = new int[n];
+		for (int i = 0; i < n; i++) {
+			maxEndUpTo[i] = i == 0 ? endAt(0) : Math.max(maxEndUpTo[i - 1], endAt(i));
+		}
+		int levels = n < 2 ? 0 : 31 - Integer.numberOfLeadingZeros(n);
+		this.latestEnding = new int[levels][];
+		for (int k = 0; k < levels; k++) {
+			int half = 1 << k;
+			int[] level = new int[n - 2 * half + 1];
+			for (int i = 0; i < level.length; i++) {
+				level[i] = k == 0 ? laterEnding(i, i + 1)
+						: laterEnding(latestEnding[k - 1][i], latestEnding[k - 1][i + half]);
+			}
+			latestEnding[k] = level;
+		}
+	}
+
+	// Build the schedule of one consultant-day from its appointments, in any order
+	public static DaySchedule of(List<Appointment> appointments) {
+		int n = appointments.size();
+		if (n == 0) {
+			return EMPTY;
+		}
+		int[] starts = new int[n];
+		short[] durations = new short[n];
+		byte[] statuses = new byte[n];
+		String[] ids = new String[n];
+		for (int i = 0; i < n; i++) {
+			Appointment appointment = appointments.get(i);
+			starts[i] = minuteOf(appointment.getTime());
+			durations[i] = clampDuration(appointment.getDuration());
+			statuses[i] = statusOrdinal(appointment.getStatus());
+			ids[i] = appointment.getId();
+		}
+		return sorted(starts, durations, statuses, ids);
+	}
+
+	// Build the schedule of one consultant-day from immutable appointments, in any order
+	public static DaySchedule ofValues(List<ImmutableAppointment> appointments) {
+		int n = appointments.size();
+		if (n == 0) {
+			return EMPTY;
+		}
+		int[] starts = new int[n];
+		short[] durations = new short[n];
+		byte[] statuses = new byte[n];
+		String[] ids = new String[n];
+		for (int i = 0; i < n; i++) {
+			ImmutableAppointment appointment = appointments.get(i);
+			starts[i] = appointment.getSecondOfDay() / 60;
+			durations[i] = clampDuration(appointment.getDuration());
+			statuses[i] = statusOrdinal(appointment.getStatus());
+			ids[i] = appointment.getId();
+		}
+		return sorted(starts, durations, statuses, ids);
+	}
+
+	// Builder for a schedule read column by column, e.g. straight from a result set
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	// Collects appointments in any order into growing columns; not thread-safe, the result is
+	public static final class Builder {
+		private int[] starts = new int[8];
+		private short[] durations = new short[8];
+		private byte[] statuses = new byte[8];
+		private String[] ids = new String[8];
+		private int size;
+
+		private Builder() {
+		}
+
+		public Builder add(String id, int startMinute, int duration, AppointmentStatus status) {
+			if (size == starts.length) {
+				starts = Arrays.copyOf(starts, size * 2);
+				durations = Arrays.copyOf(durations, size * 2);
+				statuses = Arrays.copyOf(statuses, size * 2);
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			starts[size] = startMinute;
+			durations[size] = clampDuration(duration);
+			statuses[size] = statusOrdinal(status);
+			ids[size] = id;
+			size++;
+			return this;
+		}
+
+		public DaySchedule build() {
+			if (size == 0) {
+				return EMPTY;
+			}
+			return sorted(Arrays.copyOf(starts, size), Arrays.copyOf(durations, size), Arrays.copyOf(statuses, size),
+					Arrays.copyOf(ids, size));
+		}
+	}
+
+	// Sort the columns by start minute through packed (start, position) keys, a primitive sort with
+	// no comparator or boxing, then permute every column into that order
+	private static DaySchedule sorted(int[] starts, short[] durations, byte[] statuses, String[] ids) {
+		int n = starts.length;
+		boolean ordered = true;
+		for (int i = 1; i < n && ordered; i++) {
+			ordered = starts[i - 1] <= starts[i];
+		}
+		if (ordered) {
+			return new DaySchedule(starts, durations, statuses, ids);
+		}
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = packInterval(starts[i], i);
+		}
+		Arrays.sort(keys);
+		int[] sortedStarts = new int[n];
+		short[] sortedDurations = new short[n];
+		byte[] sortedStatuses = new byte[n];
+		String[] sortedIds = new String[n];
+		for (int i = 0; i < n; i++) {
+			int from = endOf(keys[i]);
+			sortedStarts[i] = starts[from];
+			sortedDurations[i] = durations[from];
+			sortedStatuses[i] = statuses[from];
+			sortedIds[i] = ids[from];
+		}
+		return new DaySchedule(sortedStarts, sortedDurations, sortedStatuses, sortedIds);
+	}
+
+	// Does [startMinute, endMinute) overlap any appointment
+	public boolean overlaps(int startMinute, int endMinute) {
+		// Only entries starting before endMinute can overlap, and one does if their latest end is past startMinute
+		int last = firstStartAtOrAfter(endMinute) - 1;
+		return last >= 0 && maxEndUpTo[last] > startMinute;
+	}
+
+	// Does [startMinute, endMinute) overlap any appointment other than excludedId
+	// Used when an appointment is checked against its own day, e.g. when rescheduling
+	public boolean overlaps(int startMinute, int endMinute, String excludedId) {
+		return overlapsExcept(0, firstStartAtOrAfter(endMinute) - 1, startMinute, excludedId);
+	}
+
+	// Positions of the appointments overlapping [startMinute, endMinute), in start order
+	// Allocates the result; use overlaps for a yes or no answer
+	public int[] findOverlaps(int startMinute, int endMinute) {
+		int last = firstStartAtOrAfter(endMinute) - 1;
+		if (last < 0 || maxEndUpTo[last] <= startMinute) {
+			return new int[0];
+		}
+		Overlaps found = new Overlaps();
+		collectOverlaps(0, last, startMinute, found);
+		return Arrays.copyOf(found.positions, found.size);
+	}
+
+	// Every position in low..high starts before the queried end, so exactly those ending after startMinute
+	// overlap. The latest-ending position either overlaps and splits the range, or proves none of it does,
+	// which bounds the recursion by twice the overlaps found
+	private void collectOverlaps(int low, int high, int startMinute, Overlaps found) {
+		if (low > high) {
+			return;
+		}
+		int latest = latestEndingIn(low, high);
+		if (endAt(latest) <= startMinute) {
+			return;
+		}
+		collectOverlaps(low, latest - 1, startMinute, found);
+		found.add(latest);
+		collectOverlaps(latest + 1, high, startMinute, found);
+	}
+
+	private boolean overlapsExcept(int low, int high, int startMinute, String excludedId) {
+		if (low > high) {
+			return false;
+		}
+		int latest = latestEndingIn(low, high);
+		if (endAt(latest) <= startMinute) {
+			return false;
+		}
+		if (!ids[latest].equals(excludedId)) {
+			return true;
+		}
+		return overlapsExcept(low, latest - 1, startMinute, excludedId)
+				|| overlapsExcept(latest + 1, high, startMinute, excludedId);
+	}
+
+	// Position of the latest end in low..high, from the two power-of-two ranges covering it
+	private int latestEndingIn(int low, int high) {
+		int length = high - low + 1;
+		if (length == 1) {
+			return low;
+		}
+		int k = 31 - Integer.numberOfLeadingZeros(length);
+		int[] level = latestEnding[k - 1];
+		return laterEnding(level[low], level[high - (1 << k) + 1]);
+	}
+
+	private int laterEnding(int i, int j) {
+		return endAt(i) >= endAt(j) ? i : j;
+	}
+
+	// Growing list of positions for findOverlaps
+	private static final class Overlaps {
+		private int[] positions = new int[8];
+		private int size;
+
+		void add(int position) {
+			if (size == positions.length) {
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			positions[size++] = position;
+		}
+	}
+
+	// Start minute of the first free gap of at least durationMinutes inside [fromMinute, toMinute),
+	// or -1 if none fits
+	public int firstFit(int durationMinutes, int fromMinute, int toMinute) {
+		int first = firstStartAtOrAfter(fromMinute);
+		int cursor = cursorAt(fromMinute, first);
+		for (int i = first; i < starts.length && starts[i] < toMinute; i++) {
+			if (starts[i] - cursor >= durationMinutes) {
+				return cursor;
+			}
+			cursor = Math.max(cursor, starts[i] + durations[i]);
+		}
+		return toMinute - cursor >= durationMinutes ? cursor : -1;
+	}
+
+	// Visit every free gap of at least minMinutes inside [fromMinute, toMinute), in time order
+	// Returns the number of gaps visited
+	public int forEachGap(int fromMinute, int toMinute, int minMinutes, GapVisitor visitor) {
+		int visited = 0;
+		int first = firstStartAtOrAfter(fromMinute);
+		int cursor = cursorAt(fromMinute, first);
+		for (int i = first; i < starts.length && starts[i] < toMinute; i++) {
+			if (starts[i] > cursor && starts[i] - cursor >= minMinutes) {
+				visitor.gap(cursor, starts[i]);
+				visited++;
+			}
+			cursor = Math.max(cursor, starts[i] + durations[i]);
+		}
+		if (toMinute > cursor && toMinute - cursor >= minMinutes) {
+			visitor.gap(cursor, toMinute);
+			visited++;
+		}
+		return visited;
+	}
+
+	// Where a gap walk from fromMinute can first be free: past every appointment starting before it
+	private int cursorAt(int fromMinute, int first) {
+		return first == 0 ? fromMinute : Math.max(fromMinute, maxEndUpTo[first - 1]);
+	}
+
+	// Number of appointments in the schedule
+	public int size() {
+		return starts.length;
+	}
+
+	// Accessors by position in start order
+
+	public int startAt(int i) {
+		return starts[i];
+	}
+
+	public int durationAt(int i) {
+		return durations[i];
+	}
+
+	public int endAt(int i) {
+		return starts[i] + durations[i];
+	}
+
+	public AppointmentStatus statusAt(int i) {
+		return statuses[i] < 0 ? null : STATUSES[statuses[i]];
+	}
+
+	public String idAt(int i) {
+		return ids[i];
+	}
+
+	// Minute of day for a time
+	public static int minuteOf(LocalTime time) {
+		return time.getHour() * 60 + time.getMinute();
+	}
+
+	// Sort key for an interval: ordering the longs orders intervals by start minute, then by end minute
+	// for non-negative ends
+	// Lets callers sort intervals in a primitive long[] instead of through a comparator
+	public static long packInterval(int startMinute, int endMinute) {
+		return ((long) startMinute << 32) | (endMinute & 0xFFFFFFFFL);
+	}
+
+	public static int startOf(long interval) {
+		return (int) (interval >> 32);
+	}
+
+	public static int endOf(long interval) {
+		return (int) interval;
+	}
+
+	// Index of the first entry whose start is at or after minute, or size() if none
+	private int firstStartAtOrAfter(int minute) {
+		int low = 0;
+		int high = starts.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] < minute) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static short clampDuration(int duration) {
+		return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, duration));
+	}
+
+	private static byte statusOrdinal(AppointmentStatus status) {
+		return status == null ? -1 : (byte) status.ordinal();
+	}
+}
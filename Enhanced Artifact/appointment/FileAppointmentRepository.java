@@ -0,0 +1,621 @@
+package appointment;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import appointment.Appointment.AppointmentStatus;
+
+// Embedded appointment store persisted to a local directory, for deployments without MySQL
+// Appointments are served from an InMemoryAppointmentRepository. Every successful write appends the
+// resulting appointment states to a write-ahead log as one checksummed record, and returns once the
+// record is on disk; concurrent writers share fsyncs. A checkpoint writes all appointments to a
+// snapshot and starts a new log generation. On startup the snapshot is read through a memory map and
+// the log written after it is replayed, discarding a record torn by a crash
+// The whole store lives on the heap: start-up decodes and indexes every appointment, O(N log N) in
+// the number of appointments, and a checkpoint holds one copy of every appointment while it streams
+// them to the snapshot
+public class FileAppointmentRepository implements AppointmentRepository, AutoCloseable {
+
+	// Log size after which a checkpoint is started in the background
+	public static final long DEFAULT_CHECKPOINT_BYTES = 64L * 1024 * 1024;
+
+	private static final String SNAPSHOT_FILE = "appointments.snapshot";
+	private static final int SNAPSHOT_MAGIC = 0x41505053; // "APPS"
+	private static final int SNAPSHOT_VERSION = 2; // Appointments in AppointmentCodec form
+	private static final int SNAPSHOT_HEADER_SIZE = 24; // Magic, version, generation, count, CRC32 of body
+	private static final boolean WINDOWS = System.getProperty("os.name").startsWith("Windows");
+
+	// Appointments are written without a dictionary, the files outlive the process
+	private static final AppointmentCodec CODEC = new AppointmentCodec();
+
+	private static final byte PUT = 1;
+	private static final byte DELETE = 2;
+
+	private final Path directory;
+	private final InMemoryAppointmentRepository memory = new InMemoryAppointmentRepository();
+	private final boolean syncOnWrite;
+	private final long checkpointBytes;
+	private final ScheduledExecutorService background;
+	private final AtomicBoolean checkpointPending = new AtomicBoolean();
+	private final Object checkpointLock = new Object();
+
+	// Orders writes so log records follow the order the writes were applied in memory
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private WriteAheadLog log; // Guarded by writeLock
+	private long generation; // Guarded by writeLock
+	private boolean closed;
+	private volatile IOException failure; // First failed write, the store refuses writes once set
+
+	// Constructor syncing every write before it returns, with checkpoints every 64 MiB of log
+	public FileAppointmentRepository(Path directory) throws IOException {
+		this(directory, Duration.ZERO, DEFAULT_CHECKPOINT_BYTES);
+	}
+
+	// Constructor, loading the directory's snapshot and replaying its log
+	// A positive syncInterval syncs the log on that interval instead of on every write, trading the
+	// last interval's writes after a power loss for lower write latency
+	public FileAppointmentRepository(Path directory, Duration syncInterval, long checkpointBytes) throws IOException {
+		if (checkpointBytes <= 0) {
+			throw new IllegalArgumentException("Checkpoint size must be greater than zero.");
+		}
+		this.directory = directory;
+		this.syncOnWrite = syncInterval.isZero();
+		this.checkpointBytes = checkpointBytes;
+		Files.createDirectories(directory);
+		recover();
+
+		background = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "appointment-file-store");
+			thread.setDaemon(true);
+			return thread;
+		});
+		if (!syncOnWrite) {
+			background.scheduleWithFixedDelay(this::syncQuietly, syncInterval.toMillis(), syncInterval.toMillis(),
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	// Load the snapshot, replay every later log generation and open the last one for appending
+	private void recover() throws IOException {
+		Path snapshot = directory.resolve(SNAPSHOT_FILE);
+		generation = Files.exists(snapshot) ? loadSnapshot(snapshot) : 0;
+
+		List<Long> generations = logGenerations();
+		long validLength = 0;
+		for (long logGeneration : generations) {
+			if (logGeneration < generation) {
+				// Already in the snapshot, left behind by an interrupted checkpoint
+				Files.deleteIfExists(logPath(logGeneration));
+				continue;
+			}
+			generation = logGeneration;
+			validLength = WriteAheadLog.replay(logPath(logGeneration), this::applyRecord);
+		}
+		log = new WriteAheadLog(logPath(generation), validLength);
+		syncDirectory(); // The log may have just been created
+	}
+
+	private List<Long> logGenerations() throws IOException {
+		List<Long> generations = new ArrayList<>();
+		try (Stream<Path> files = Files.list(directory)) {
+			files.map(file -> file.getFileName().toString())
+					.filter(name -> name.startsWith("wal-") && name.endsWith(".log"))
+					.forEach(name -> generations.add(Long.parseLong(name.substring(4, name.length() - 4))));
+		}
+		generations.sort(null);
+		return generations;
+	}
+
+	private Path logPath(long logGeneration) {
+		return directory.resolve(String.format("wal-%020d.log", logGeneration));
+	}
+
+	// Read a snapshot through a memory map, returns the first log generation it does not contain
+	// Every appointment is decoded into a live object and indexed, so start-up costs O(N log N) and the
+	// memory of the whole store; only the file itself is not copied onto the heap
+	private long loadSnapshot(Path snapshot) throws IOException {
+		try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.limit() < SNAPSHOT_HEADER_SIZE || buffer.getInt(0) != SNAPSHOT_MAGIC) {
+				throw new IOException("Not an appointment snapshot: " + snapshot);
+			}
+			if (buffer.getInt(4) != SNAPSHOT_VERSION) {
+				throw new IOException("Unsupported appointment snapshot version " + buffer.getInt(4));
+			}
+			long snapshotGeneration = buffer.getLong(8);
+			int count = buffer.getInt(16);
+			ByteBuffer body = buffer.slice(SNAPSHOT_HEADER_SIZE, buffer.limit() - SNAPSHOT_HEADER_SIZE);
+			CRC32 crc = new CRC32();
+			crc.update(body.duplicate());
+			if ((int) crc.getValue() != buffer.getInt(20)) {
+				throw new IOException("Appointment snapshot is corrupt: " + snapshot);
+			}
+			List<Appointment> appointments = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				appointments.add(readAppointment(body));
+			}
+			try {
+				memory.loadAll(appointments);
+			} catch (SQLException e) {
+				throw new IOException("Invalid appointment in snapshot: " + e.getMessage(), e);
+			}
+			return snapshotGeneration;
+		}
+	}
+
+	// Apply one replayed log record to memory
+	private void applyRecord(ByteBuffer record) {
+		try {
+			while (record.hasRemaining()) {
+				if (record.get() == PUT) {
+					Appointment appointment = readAppointment(record);
+					if (memory.getAppointmentById(appointment.getId()) == null) {
+						memory.saveAppointment(appointment);
+					} else {
+						memory.updateAppointment(appointment);
+					}
+				} else {
+					memory.deleteAppointment(readString(record));
+				}
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException("Invalid appointment in log: " + e.getMessage(), e);
+		}
+	}
+
+	// A write applied to memory while holding the write lock; records the ids it changed
+	@FunctionalInterface
+	private interface Write<T> {
+		T apply(List<String> changedIds) throws SQLException;
+	}
+
+	// Apply a write, log the resulting state of every changed appointment as one record and wait until it
+	// is durable. The write lock is released before syncing, so other writers can join the same fsync
+	// Memory operations raise SQLException only before changing anything; an operation that fails after
+	// recording a change, or with any other exception, may have left memory ahead of the log, so it stops
+	// the store like a log failure
+	private <T> T write(Write<T> operation) throws SQLException {
+		T result;
+		WriteAheadLog target;
+		long position;
+		writeLock.lock();
+		try {
+			checkWritable();
+			List<String> changedIds = new ArrayList<>();
+			try {
+				result = operation.apply(changedIds);
+			} catch (SQLException e) {
+				if (!changedIds.isEmpty()) {
+					throw fail(new IOException("Write failed after changing memory: " + e.getMessage(), e));
+				}
+				throw e;
+			} catch (RuntimeException e) {
+				throw fail(new IOException("Write failed after changing memory: " + e.getMessage(), e));
+			}
+			if (changedIds.isEmpty()) {
+				return result;
+			}
+			target = log;
+			position = target.append(encodeRecord(changedIds));
+		} catch (IOException e) {
+			throw fail(e);
+		} finally {
+			writeLock.unlock();
+		}
+
+		if (position >= checkpointBytes && checkpointPending.compareAndSet(false, true)) {
+			try {
+				background.execute(this::checkpointQuietly);
+			} catch (RejectedExecutionException e) {
+				checkpointPending.set(false); // Closing
+			}
+		}
+		if (syncOnWrite) {
+			try {
+				target.sync(position);
+			} catch (IOException e) {
+				throw fail(e);
+			}
+		}
+		return result;
+	}
+
+	private void checkWritable() throws SQLException {
+		if (failure != null) {
+			throw new SQLException("Appointment store stopped after a failed write: " + failure.getMessage(), failure);
+		}
+		if (closed) {
+			throw new SQLException("Appointment store is closed.");
+		}
+	}
+
+	// Memory may now hold a change the log does not, so refuse further writes until the store is reopened
+	private SQLException fail(IOException e) {
+		failure = e;
+		return new SQLException("Failed to write the appointment log: " + e.getMessage(), e);
+	}
+
+	// One PUT entry per changed appointment still present, one DELETE entry per removed appointment
+	private byte[] encodeRecord(List<String> changedIds) throws IOException, SQLException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 * changedIds.size());
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			for (String id : changedIds) {
+				Appointment appointment = memory.getAppointmentById(id);
+				if (appointment != null) {
+					out.writeByte(PUT);
+					writeAppointment(out, appointment);
+				} else {
+					out.writeByte(DELETE);
+					writeString(out, id);
+				}
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	// Write every appointment to a new snapshot and start a new log generation, then delete older logs
+	// Writers are only held up while the log is switched and the appointments are copied
+	public void checkpoint() throws SQLException {
+		synchronized (checkpointLock) {
+			List<Appointment> appointments;
+			long snapshotGeneration;
+			writeLock.lock();
+			try {
+				checkWritable();
+				log.close();
+				snapshotGeneration = generation + 1;
+				log = new WriteAheadLog(logPath(snapshotGeneration), 0);
+				// Before any write reaches the new log, or a crash could lose its directory entry
+				syncDirectory();
+				generation = snapshotGeneration;
+				appointments = memory.getAllAppointments();
+			} catch (IOException e) {
+				throw new SQLException("Failed to switch the appointment log: " + e.getMessage(), e);
+			} finally {
+				writeLock.unlock();
+			}
+
+			try {
+				writeSnapshot(appointments, snapshotGeneration);
+				// The rename must be durable before the logs it replaces are deleted
+				syncDirectory();
+				for (long logGeneration : logGenerations()) {
+					if (logGeneration < snapshotGeneration) {
+						Files.deleteIfExists(logPath(logGeneration));
+					}
+				}
+			} catch (IOException e) {
+				throw new SQLException("Failed to write the appointment snapshot: " + e.getMessage(), e);
+			} finally {
+				checkpointPending.set(false);
+			}
+		}
+	}
+
+	// Write to a temporary file and rename it over the old snapshot, so a crash leaves one or the other
+	// The body is encoded straight into the file through a small buffer, checksummed on the way, and the
+	// header is written last at the start of the file; no copy of the whole body is held in memory
+	private void writeSnapshot(List<Appointment> appointments, long snapshotGeneration) throws IOException {
+		Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			channel.position(SNAPSHOT_HEADER_SIZE);
+			CRC32 crc = new CRC32();
+			// Not closed, that would close the channel before it is forced
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					new CheckedOutputStream(Channels.newOutputStream(channel), crc), 64 * 1024));
+			for (Appointment appointment : appointments) {
+				writeAppointment(out, appointment);
+			}
+			out.flush();
+
+			ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+			header.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(snapshotGeneration)
+					.putInt(appointments.size()).putInt((int) crc.getValue()).flip();
+			while (header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+			channel.force(true);
+		}
+		Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	// Make created, renamed and deleted directory entries durable, fsync on a file does not cover them
+	// Windows cannot open a directory as a channel, and NTFS journals these metadata changes itself
+	private void syncDirectory() throws IOException {
+		if (WINDOWS) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+	}
+
+	private void checkpointQuietly() {
+		try {
+			checkpoint();
+		} catch (SQLException e) {
+			System.err.println("Appointment store checkpoint failed: " + e.getMessage());
+		}
+	}
+
+	private void syncQuietly() {
+		WriteAheadLog current;
+		writeLock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			current = log;
+		} finally {
+			writeLock.unlock();
+		}
+		try {
+			current.syncAll();
+		} catch (IOException e) {
+			System.err.println("Appointment log sync failed: " + e.getMessage());
+		}
+	}
+
+	// Sync and close the log; the data stays on disk for the next start
+	@Override
+	public void close() throws IOException {
+		background.shutdown();
+		synchronized (checkpointLock) {
+			writeLock.lock();
+			try {
+				if (closed) {
+					return;
+				}
+				closed = true;
+				log.close();
+			} finally {
+				writeLock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public Appointment saveAppointment(Appointment appointment) throws SQLException {
+		return write(changedIds -> {
+			memory.saveAppointment(appointment);
+			changedIds.add(appointment.getId());
+			return appointment;
+		});
+	}
+
+	// All rows that can be saved go into one log record and one fsync
+	@Override
+	public BatchInsertResult saveAppointments(Collection<Appointment> appointments, int batchSize)
+			throws SQLException {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be greater than zero.");
+		}
+		return write(changedIds -> {
+			BatchInsertResult result = new BatchInsertResult();
+			int index = 0;
+			for (Appointment appointment : appointments) {
+				try {
+					memory.saveAppointment(appointment);
+					changedIds.add(appointment.getId());
+					result.addInserted(1);
+				} catch (SQLException e) {
+					result.addFailure(index, appointment, e.getMessage());
+				}
+				index++;
+			}
+			return result;
+		});
+	}
+
+	@Override
+	public BookingResult bookAppointment(Appointment appointment) throws SQLException {
+		return write(changedIds -> {
+			BookingResult result = memory.bookAppointment(appointment);
+			if (result == BookingResult.BOOKED) {
+				changedIds.add(appointment.getId());
+			}
+			return result;
+		});
+	}
+
+	@Override
+	public BookingResult rescheduleAppointment(String appointmentId, LocalDate newDate, LocalTime newTime)
+			throws SQLException {
+		return write(changedIds -> {
+			BookingResult result = memory.rescheduleAppointment(appointmentId, newDate, newTime);
+			if (result == BookingResult.BOOKED) {
+				changedIds.add(appointmentId);
+			}
+			return result;
+		});
+	}
+
+	@Override
+	public boolean updateAppointment(Appointment appointment) throws SQLException {
+		return write(changedIds -> {
+			boolean updated = memory.updateAppointment(appointment);
+			if (updated) {
+				changedIds.add(appointment.getId());
+			}
+			return updated;
+		});
+	}
+
+	@Override
+	public boolean deleteAppointment(String id) throws SQLException {
+		return write(changedIds -> {
+			boolean deleted = memory.deleteAppointment(id);
+			if (deleted) {
+				changedIds.add(id);
+			}
+			return deleted;
+		});
+	}
+
+	@Override
+	public boolean updateAppointmentStatus(String appointmentId, AppointmentStatus status) throws SQLException {
+		return write(changedIds -> {
+			boolean updated = memory.updateAppointmentStatus(appointmentId, status);
+			if (updated) {
+				changedIds.add(appointmentId);
+			}
+			return updated;
+		});
+	}
+
+	// One log record for the whole set, so a crash applies either all of the changes or none
+	@Override
+	public void updateStatusesAndDurations(Map<String, AppointmentStatus> statuses, Map<String, Integer> durations)
+			throws SQLException {
+		write(changedIds -> {
+			memory.updateStatusesAndDurations(statuses, durations);
+			for (String id : statuses.keySet()) {
+				addIfPresent(changedIds, id);
+			}
+			for (String id : durations.keySet()) {
+				if (!statuses.containsKey(id)) {
+					addIfPresent(changedIds, id);
+				}
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public int completePastAppointments(LocalDateTime cutoff, int chunkSize) throws SQLException {
+		return write(changedIds -> memory.completePastAppointments(cutoff, chunkSize,
+				completed -> changedIds.add(completed.getId())));
+	}
+
+	@Override
+	public void updateAppointmentTime(String appointmentId, LocalDate newDate, LocalTime newTime)
+			throws SQLException {
+		write(changedIds -> {
+			memory.updateAppointmentTime(appointmentId, newDate, newTime);
+			addIfPresent(changedIds, appointmentId);
+			return null;
+		});
+	}
+
+	@Override
+	public void updateAppointmentDuration(String appointmentId, int duration) throws SQLException {
+		write(changedIds -> {
+			memory.updateAppointmentDuration(appointmentId, duration);
+			addIfPresent(changedIds, appointmentId);
+			return null;
+		});
+	}
+
+	private void addIfPresent(List<String> changedIds, String id) throws SQLException {
+		if (memory.getAppointmentById(id) != null) {
+			changedIds.add(id);
+		}
+	}
+
+	// Reads are served from memory without touching the files
+
+	@Override
+	public Appointment getAppointmentById(String id) throws SQLException {
+		return memory.getAppointmentById(id);
+	}
+
+	@Override
+	public List<Appointment> getAllAppointments() throws SQLException {
+		return memory.getAllAppointments();
+	}
+
+	@Override
+	public long forEachAppointment(Consumer<? super Appointment> visitor) throws SQLException {
+		return memory.forEachAppointment(visitor);
+	}
+
+	@Override
+	public List<Appointment> getAppointmentsByConsultantAndDate(String consultantName, LocalDate date)
+			throws SQLException {
+		return memory.getAppointmentsByConsultantAndDate(consultantName, date);
+	}
+
+	@Override
+	public List<Appointment> getAppointmentsByConsultantBetween(String consultantName, LocalDate fromDate,
+			LocalDate toDate) throws SQLException {
+		return memory.getAppointmentsByConsultantBetween(consultantName, fromDate, toDate);
+	}
+
+	@Override
+	public Map<String, List<Appointment>> getAppointmentsByConsultantsBetween(Collection<String> consultantNames,
+			LocalDate fromDate, LocalDate toDate) throws SQLException {
+		return memory.getAppointmentsByConsultantsBetween(consultantNames, fromDate, toDate);
+	}
+
+	@Override
+	public AppointmentPage getAppointmentsByConsultantBetween(String consultantName, LocalDate fromDate,
+			LocalDate toDate, AppointmentPage.Cursor after, int pageSize) throws SQLException {
+		return memory.getAppointmentsByConsultantBetween(consultantName, fromDate, toDate, after, pageSize);
+	}
+
+	@Override
+	public AppointmentPage getAppointmentsBetween(LocalDate fromDate, LocalDate toDate, AppointmentPage.Cursor after,
+			int pageSize) throws SQLException {
+		return memory.getAppointmentsBetween(fromDate, toDate, after, pageSize);
+	}
+
+	private static void writeAppointment(DataOutputStream out, Appointment appointment) throws IOException {
+		out.write(CODEC.encode(appointment));
+	}
+
+	private static Appointment readAppointment(ByteBuffer in) {
+		return CODEC.decode(in);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -6,6 +6,8 @@ import com.zaxxer.hikari.HikariDataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import javax.sql.DataSource;
+
 public class HikariCPDataSource {
 
 	private static HikariDataSource hDataSource;
@@ -21,12 +23,19 @@ public class HikariCPDataSource {
 		hConfig.setConnectionTimeout(6000); // Connection timeout 60 sec
 		hConfig.setIdleTimeout(300000); // Idle timeout 5 min
 		hConfig.setMaxLifetime(1200000); // Connection max lifetime 20 min
+		hConfig.setLeakDetectionThreshold(30000); // Log connections held longer than 30 sec as leaks
 
 		// Prepared Statement Cache optimizations
 		hConfig.addDataSourceProperty("cachePrepStmts", "true");
 		hConfig.addDataSourceProperty("prepStmtCacheSize", "250");
 		hConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
 
+		// Batch optimizations, lets the driver rewrite batched inserts into multi-row inserts
+		hConfig.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+		// Server-side cursors, statements with a fetch size stream rows instead of buffering the result
+		hConfig.addDataSourceProperty("useCursorFetch", "true");
+
 		hDataSource = new HikariDataSource(hConfig);
 	}
 	
@@ -34,5 +43,20 @@ public class HikariCPDataSource {
 	public static Connection getConnection() throws SQLException {
 		return hDataSource.getConnection();
 	}
+
+	// Get the pool itself, for repositories that borrow a connection per operation
+	public static DataSource getDataSource() {
+		return hDataSource;
+	}
+
+	// Largest number of connections the pool hands out at once
+	public static int getMaximumPoolSize() {
+		return hDataSource.getMaximumPoolSize();
+	}
+
+	// Close the pool and all of its connections on shutdown
+	public static void close() {
+		hDataSource.close();
+	}
 	
 }
@@ -0,0 +1,253 @@
+package appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Objects;
+
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+
+// Immutable appointment value for caches and read paths that hold many appointments at once
+// Instances are never changed after construction, so they can be shared between threads without copying.
+// Compared to Appointment the date and time are stored as numbers instead of separate LocalDate and
+// LocalTime objects, and the consultant name, location and client name go through an intern pool so
+// repeated values share one String instance. Build with builder(), convert with from() and toAppointment()
+public final class ImmutableAppointment {
+
+	// Pool shared by every builder that is not given its own
+	private static final InternPool SHARED_POOL = new InternPool(65_536);
+
+	private static final long NO_DATE = Long.MIN_VALUE;
+	private static final int NO_TIME = -1;
+
+	private final String id;
+	private final long epochDay; // NO_DATE when the date is missing
+	private final int secondOfDay; // NO_TIME when the time is missing
+	private final int duration; // In minutes
+	private final String location;
+	private final String clientName;
+	private final String consultantName;
+	private final String description;
+	private final ConsultationType consultationType;
+	private final AppointmentStatus status;
+	private final InternPool pool; // Pool the strings were interned through, kept for derived copies
+
+	private ImmutableAppointment(Builder builder) {
+		this.id = builder.id;
+		this.epochDay = builder.date != null ? builder.date.toEpochDay() : NO_DATE;
+		this.secondOfDay = builder.time != null ? builder.time.toSecondOfDay() : NO_TIME;
+		this.duration = builder.duration;
+		this.location = builder.pool.intern(builder.location);
+		this.clientName = builder.pool.intern(builder.clientName);
+		this.consultantName = builder.pool.intern(builder.consultantName);
+		this.description = builder.description;
+		this.consultationType = builder.consultationType;
+		this.status = builder.status;
+		this.pool = builder.pool;
+	}
+
+	// Builder interning through the shared pool
+	public static Builder builder() {
+		return new Builder(SHARED_POOL);
+	}
+
+	// Builder interning through the given pool, e.g. one per cache so its size follows the cache
+	public static Builder builder(InternPool pool) {
+		return new Builder(Objects.requireNonNull(pool, "pool"));
+	}
+
+	// Immutable copy of a mutable appointment
+	public static ImmutableAppointment from(Appointment appointment) {
+		return builder().from(appointment).build();
+	}
+
+	// Builder starting from this appointment's values, for deriving a changed copy
+	// Interns through the pool this appointment was built with
+	public Builder toBuilder() {
+		return new Builder(pool).from(this);
+	}
+
+	// New mutable appointment with the same values, for APIs that hand out Appointment
+	public Appointment toAppointment() {
+		return new Appointment(id, getDate(), getTime(), location, clientName, consultantName, description, duration,
+				consultationType, status);
+	}
+
+	public ImmutableAppointment withStatus(AppointmentStatus status) {
+		return toBuilder().status(status).build();
+	}
+
+	public ImmutableAppointment withDateTime(LocalDate date, LocalTime time) {
+		return toBuilder().date(date).time(time).build();
+	}
+
+	// Getters; dates and times are created on each call, use the primitive getters in hot loops
+
+	public String getId() {
+		return id;
+	}
+
+	public LocalDate getDate() {
+		return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+	}
+
+	public LocalTime getTime() {
+		return secondOfDay == NO_TIME ? null : LocalTime.ofSecondOfDay(secondOfDay);
+	}
+
+	// Date as days since 1970-01-01, Long.MIN_VALUE when the appointment has no date
+	public long getEpochDay() {
+		return epochDay;
+	}
+
+	// Start time as second of the day, -1 when the appointment has no time
+	public int getSecondOfDay() {
+		return secondOfDay;
+	}
+
+	public String getLocation() {
+		return location;
+	}
+
+	public String getClientName() {
+		return clientName;
+	}
+
+	public String getConsultantName() {
+		return consultantName;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public int getDuration() {
+		return duration;
+	}
+
+	public ConsultationType getConsultationType() {
+		return consultationType;
+	}
+
+	public AppointmentStatus getStatus() {
+		return status;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ImmutableAppointment)) {
+			return false;
+		}
+		ImmutableAppointment that = (ImmutableAppointment) other;
+		return epochDay == that.epochDay && secondOfDay == that.secondOfDay && duration == that.duration
+				&& Objects.equals(id, that.id) && Objects.equals(location, that.location)
+				&& Objects.equals(clientName, that.clientName) && Objects.equals(consultantName, that.consultantName)
+				&& Objects.equals(description, that.description) && consultationType == that.consultationType
+				&& status == that.status;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, epochDay, secondOfDay, duration, location, clientName, consultantName, description,
+				consultationType, status);
+	}
+
+	@Override
+	public String toString() {
+		return "ImmutableAppointment[id=" + id + ", date=" + getDate() + ", time=" + getTime() + ", consultant="
+				+ consultantName + ", duration=" + duration + ", status=" + status + "]";
+	}
+
+	// Collects values for a new ImmutableAppointment; a builder is not thread-safe, the result is
+	public static final class Builder {
+		private final InternPool pool;
+		private String id;
+		private LocalDate date;
+		private LocalTime time;
+		private String location;
+		private String clientName;
+		private String consultantName;
+		private String description;
+		private int duration;
+		private ConsultationType consultationType;
+		private AppointmentStatus status;
+
+		private Builder(InternPool pool) {
+			this.pool = pool;
+		}
+
+		public Builder from(Appointment appointment) {
+			return id(appointment.getId()).date(appointment.getDate()).time(appointment.getTime())
+					.location(appointment.getLocation()).clientName(appointment.getClientName())
+					.consultantName(appointment.getConsultantName()).description(appointment.getDescription())
+					.duration(appointment.getDuration()).consultationType(appointment.getConsultationType())
+					.status(appointment.getStatus());
+		}
+
+		public Builder from(ImmutableAppointment appointment) {
+			return id(appointment.id).date(appointment.getDate()).time(appointment.getTime())
+					.location(appointment.location).clientName(appointment.clientName)
+					.consultantName(appointment.consultantName).description(appointment.description)
+					.duration(appointment.duration).consultationType(appointment.consultationType)
+					.status(appointment.status);
+		}
+
+		public Builder id(String id) {
+			this.id = id;
+			return this;
+		}
+
+		public Builder date(LocalDate date) {
+			this.date = date;
+			return this;
+		}
+
+		public Builder time(LocalTime time) {
+			this.time = time;
+			return this;
+		}
+
+		public Builder location(String location) {
+			this.location = location;
+			return this;
+		}
+
+		public Builder clientName(String clientName) {
+			this.clientName = clientName;
+			return this;
+		}
+
+		public Builder consultantName(String consultantName) {
+			this.consultantName = consultantName;
+			return this;
+		}
+
+		public Builder description(String description) {
+			this.description = description;
+			return this;
+		}
+
+		public Builder duration(int duration) {
+			this.duration = duration;
+			return this;
+		}
+
+		public Builder consultationType(ConsultationType consultationType) {
+			this.consultationType = consultationType;
+			return this;
+		}
+
+		public Builder status(AppointmentStatus status) {
+			this.status = status;
+			return this;
+		}
+
+		// Times are kept to the second, like the appointments table's TIME column
+		public ImmutableAppointment build() {
+			return new ImmutableAppointment(this);
+		}
+	}
+}
@@ -0,0 +1,510 @@
+package appointment;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import appointment.Appointment.AppointmentStatus;
+
+// Appointment storage in process memory, for tests, benchmarks and deployments without a database
+// Appointments are indexed by id, by consultant and date, and by (date, time, id) for range scans.
+// Writes to a consultant-day hold that day's lock, so conflict-checked bookings are atomic as on MySQL;
+// reads take no locks. Consultant names and ids are compared exactly, not by database collation
+public class InMemoryAppointmentRepository implements AppointmentRepository {
+
+	// SQL state MySQL reports for duplicate keys and missing required columns
+	private static final String INTEGRITY_VIOLATION = "23000";
+
+	private static final Comparator<Appointment> BY_TIME_AND_ID = Comparator.comparing(Appointment::getTime)
+			.thenComparing(Appointment::getId);
+	private static final Comparator<Appointment> BY_DATE_TIME_AND_ID = Comparator.comparing(Appointment::getDate)
+			.thenComparing(BY_TIME_AND_ID);
+
+	// Stored appointments are private copies that are replaced, never changed in place
+	private final ConcurrentHashMap<String, Appointment> byId = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, ConcurrentSkipListMap<LocalDate, Day>> byConsultant = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListSet<Appointment> byDateTime = new ConcurrentSkipListSet<>(BY_DATE_TIME_AND_ID);
+
+	// One consultant-day: writers hold its lock and publish a new sorted array, readers use the current array
+	// Days are kept once created, so each (consultant, date) always maps to the same lock
+	private static class Day {
+		final String consultantName;
+		final LocalDate date;
+		final ReentrantLock lock = new ReentrantLock();
+		volatile Appointment[] appointments = new Appointment[0]; // Ordered by time and id
+
+		Day(String consultantName, LocalDate date) {
+			this.consultantName = consultantName;
+			this.date = date;
+		}
+
+		// Strict overlap, an appointment may start exactly when another ends
+		boolean overlaps(Appointment candidate) {
+			int start = candidate.getTime().toSecondOfDay();
+			int end = start + candidate.getDuration() * 60;
+			for (Appointment other : appointments) {
+				int otherStart = other.getTime().toSecondOfDay();
+				if (otherStart >= end) {
+					break; // Sorted by start, nothing later can overlap
+				}
+				if (otherStart + other.getDuration() * 60 > start && !other.getId().equals(candidate.getId())) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void add(Appointment appointment) {
+			Appointment[] current = appointments;
+			int index = -Arrays.binarySearch(current, appointment, BY_TIME_AND_ID) - 1;
+			Appointment[] next = new Appointment[current.length + 1];
+			System.arraycopy(current, 0, next, 0, index);
+			next[index] = appointment;
+			System.arraycopy(current, index, next, index + 1, current.length - index);
+			appointments = next;
+		}
+
+		void remove(Appointment appointment) {
+			Appointment[] current = appointments;
+			int index = Arrays.binarySearch(current, appointment, BY_TIME_AND_ID);
+			Appointment[] next = new Appointment[current.length - 1];
+			System.arraycopy(current, 0, next, 0, index);
+			System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+			appointments = next;
+		}
+	}
+
+	// Lock order for writes spanning two days, prevents deadlocks between opposite moves
+	private static final Comparator<Day> LOCK_ORDER = Comparator.comparing((Day day) -> day.consultantName)
+			.thenComparing(day -> day.date);
+
+	private Day day(String consultantName, LocalDate date) {
+		return byConsultant.computeIfAbsent(consultantName, name -> new ConcurrentSkipListMap<>())
+				.computeIfAbsent(date, d -> new Day(consultantName, d));
+	}
+
+	private Day day(Appointment appointment) {
+		return day(appointment.getConsultantName(), appointment.getDate());
+	}
+
+	@Override
+	public Appointment saveAppointment(Appointment appointment) throws SQLException {
+		insert(appointment, false);
+		return appointment;
+	}
+
+	// Rows are saved one at a time, batching only matters for the network round trips of the JDBC version
+	@Override
+	public BatchInsertResult saveAppointments(Collection<Appointment> appointments, int batchSize)
+			throws SQLException {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be greater than zero.");
+		}
+		BatchInsertResult result = new BatchInsertResult();
+		int index = 0;
+		for (Appointment appointment : appointments) {
+			try {
+				insert(appointment, false);
+				result.addInserted(1);
+			} catch (SQLException e) {
+				result.addFailure(index, appointment, e.getMessage());
+			}
+			index++;
+		}
+		return result;
+	}
+
+	// Fill an empty repository in one pass, e.g. when restoring a snapshot; the appointments are stored
+	// without copying, so the caller must not keep them
+	// Each consultant-day is sorted and published once instead of copied on every insert. The (date, time, id)
+	// index still takes one O(log n) insert per appointment, so loading costs O(n log n) overall
+	void loadAll(List<Appointment> appointments) throws SQLException {
+		if (!byId.isEmpty()) {
+			throw new IllegalStateException("Appointments can only be loaded into an empty repository.");
+		}
+		Map<Day, List<Appointment>> days = new LinkedHashMap<>();
+		for (Appointment appointment : appointments) {
+			requireColumns(appointment);
+			if (byId.putIfAbsent(appointment.getId(), appointment) != null) {
+				throw new SQLIntegrityConstraintViolationException(
+						"Duplicate entry '" + appointment.getId() + "' for key 'PRIMARY'", INTEGRITY_VIOLATION);
+			}
+			days.computeIfAbsent(day(appointment), day -> new ArrayList<>()).add(appointment);
+			byDateTime.add(appointment);
+		}
+		for (Map.Entry<Day, List<Appointment>> entry : days.entrySet()) {
+			Appointment[] sorted = entry.getValue().toArray(new Appointment[0]);
+			Arrays.sort(sorted, BY_TIME_AND_ID); // Linear when already in order, as in a snapshot
+			entry.getKey().appointments = sorted;
+		}
+	}
+
+	@Override
+	public BookingResult bookAppointment(Appointment appointment) throws SQLException {
+		return insert(appointment, true);
+	}
+
+	// Store a new appointment, checking for overlaps under the day's lock when asked to
+	private BookingResult insert(Appointment appointment, boolean checkConflicts) throws SQLException {
+		Appointment stored = copy(requireColumns(appointment));
+		Day day = day(stored);
+		day.lock.lock();
+		try {
+			if (checkConflicts && day.overlaps(stored)) {
+				return BookingResult.CONFLICT;
+			}
+			if (byId.putIfAbsent(stored.getId(), stored) != null) {
+				throw new SQLIntegrityConstraintViolationException(
+						"Duplicate entry '" + stored.getId() + "' for key 'PRIMARY'", INTEGRITY_VIOLATION);
+			}
+			day.add(stored);
+			byDateTime.add(stored);
+			return BookingResult.BOOKED;
+		} finally {
+			day.lock.unlock();
+		}
+	}
+
+	@Override
+	public BookingResult rescheduleAppointment(String appointmentId, LocalDate newDate, LocalTime newTime)
+			throws SQLException {
+		return modify(appointmentId, current -> {
+			current.setDate(newDate);
+			current.setTime(newTime);
+			return current;
+		}, true);
+	}
+
+	// Replace a stored appointment with the changed copy produced from it, moving it between days if needed
+	// The change may return null to leave the appointment as it is, which is reported as CONFLICT
+	private BookingResult modify(String appointmentId, UnaryOperator<Appointment> change, boolean checkConflicts)
+			throws SQLException {
+		while (true) {
+			Appointment current = byId.get(appointmentId);
+			if (current == null) {
+				return BookingResult.NOT_FOUND;
+			}
+			Appointment next = change.apply(copy(current));
+			if (next == null) {
+				return BookingResult.CONFLICT;
+			}
+			requireColumns(next);
+			next.setId(appointmentId);
+			Day from = day(current);
+			Day to = day(next);
+			Day first = LOCK_ORDER.compare(from, to) <= 0 ? from : to;
+			Day second = first == from ? to : from;
+			first.lock.lock();
+			second.lock.lock();
+			try {
+				if (byId.get(appointmentId) != current) {
+					continue; // Changed by another writer since it was read, start over
+				}
+				if (checkConflicts && to.overlaps(next)) {
+					return BookingResult.CONFLICT;
+				}
+				from.remove(current);
+				to.add(next);
+				byDateTime.remove(current);
+				byDateTime.add(next);
+				byId.put(appointmentId, next);
+				return BookingResult.BOOKED;
+			} finally {
+				second.lock.unlock();
+				first.lock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public boolean updateAppointment(Appointment appointment) throws SQLException {
+		return modify(appointment.getId(), current -> copy(appointment), false) == BookingResult.BOOKED;
+	}
+
+	@Override
+	public Appointment getAppointmentById(String id) throws SQLException {
+		Appointment appointment = byId.get(id);
+		return appointment == null ? null : copy(appointment);
+	}
+
+	@Override
+	public boolean deleteAppointment(String id) throws SQLException {
+		while (true) {
+			Appointment current = byId.get(id);
+			if (current == null) {
+				return false;
+			}
+			Day day = day(current);
+			day.lock.lock();
+			try {
+				if (byId.get(id) != current) {
+					continue;
+				}
+				byId.remove(id);
+				day.remove(current);
+				byDateTime.remove(current);
+				return true;
+			} finally {
+				day.lock.unlock();
+			}
+		}
+	}
+
+	// Ordered by date, time and id
+	@Override
+	public List<Appointment> getAllAppointments() throws SQLException {
+		List<Appointment> appointments = new ArrayList<>(byId.size());
+		forEachAppointment(appointments::add);
+		return appointments;
+	}
+
+	@Override
+	public long forEachAppointment(Consumer<? super Appointment> visitor) throws SQLException {
+		long count = 0;
+		for (Appointment appointment : byDateTime) {
+			visitor.accept(copy(appointment));
+			count++;
+		}
+		return count;
+	}
+
+	// Ordered by time and id
+	@Override
+	public List<Appointment> getAppointmentsByConsultantAndDate(String consultantName, LocalDate date)
+			throws SQLException {
+		List<Appointment> appointments = new ArrayList<>();
+		ConcurrentSkipListMap<LocalDate, Day> days = byConsultant.get(consultantName);
+		Day day = days == null ? null : days.get(date);
+		if (day != null) {
+			addCopies(day, null, appointments, Integer.MAX_VALUE);
+		}
+		return appointments;
+	}
+
+	@Override
+	public List<Appointment> getAppointmentsByConsultantBetween(String consultantName, LocalDate fromDate,
+			LocalDate toDate) throws SQLException {
+		List<Appointment> appointments = new ArrayList<>();
+		for (Day day : daysBetween(consultantName, fromDate, toDate)) {
+			addCopies(day, null, appointments, Integer.MAX_VALUE);
+		}
+		return appointments;
+	}
+
+	@Override
+	public Map<String, List<Appointment>> getAppointmentsByConsultantsBetween(Collection<String> consultantNames,
+			LocalDate fromDate, LocalDate toDate) throws SQLException {
+		Map<String, List<Appointment>> byName = new LinkedHashMap<>();
+		for (String consultantName : consultantNames) {
+			if (!byName.containsKey(consultantName)) {
+				byName.put(consultantName, getAppointmentsByConsultantBetween(consultantName, fromDate, toDate));
+			}
+		}
+		return byName;
+	}
+
+	@Override
+	public AppointmentPage getAppointmentsByConsultantBetween(String consultantName, LocalDate fromDate,
+			LocalDate toDate, AppointmentPage.Cursor after, int pageSize) throws SQLException {
+		requirePageSize(pageSize);
+		LocalDate seekDate = after != null && after.getDate().isAfter(fromDate) ? after.getDate() : fromDate;
+		List<Appointment> appointments = new ArrayList<>(pageSize + 1);
+		for (Day day : daysBetween(consultantName, seekDate, toDate)) {
+			addCopies(day, after, appointments, pageSize + 1);
+			if (appointments.size() > pageSize) {
+				break;
+			}
+		}
+		return toPage(appointments, pageSize);
+	}
+
+	@Override
+	public AppointmentPage getAppointmentsBetween(LocalDate fromDate, LocalDate toDate, AppointmentPage.Cursor after,
+			int pageSize) throws SQLException {
+		requirePageSize(pageSize);
+		// Seek in the (date, time, id) index to the first row after the cursor, or the start of the window
+		NavigableSet<Appointment> tail;
+		if (after != null && !after.getDate().isBefore(fromDate)) {
+			tail = byDateTime.tailSet(probe(after.getDate(), after.getTime(), after.getId()), false);
+		} else {
+			tail = byDateTime.tailSet(probe(fromDate, LocalTime.MIN, ""), true);
+		}
+		List<Appointment> appointments = new ArrayList<>(pageSize + 1);
+		for (Appointment appointment : tail) {
+			if (appointment.getDate().isAfter(toDate) || appointments.size() > pageSize) {
+				break;
+			}
+			appointments.add(copy(appointment));
+		}
+		return toPage(appointments, pageSize);
+	}
+
+	private Collection<Day> daysBetween(String consultantName, LocalDate fromDate, LocalDate toDate) {
+		ConcurrentSkipListMap<LocalDate, Day> days = byConsultant.get(consultantName);
+		if (days == null || fromDate.isAfter(toDate)) {
+			return List.of();
+		}
+		return days.subMap(fromDate, true, toDate, true).values();
+	}
+
+	// Copy a day's appointments after the cursor into the list, until it holds limit appointments
+	private static void addCopies(Day day, AppointmentPage.Cursor after, List<Appointment> appointments, int limit) {
+		Appointment cursor = after == null ? null : probe(after.getDate(), after.getTime(), after.getId());
+		for (Appointment appointment : day.appointments) {
+			if (appointments.size() >= limit) {
+				return;
+			}
+			if (cursor == null || BY_DATE_TIME_AND_ID.compare(appointment, cursor) > 0) {
+				appointments.add(copy(appointment));
+			}
+		}
+	}
+
+	// Trim the extra row fetched to tell whether another page follows
+	private static AppointmentPage toPage(List<Appointment> appointments, int pageSize) {
+		AppointmentPage.Cursor nextCursor = null;
+		if (appointments.size() > pageSize) {
+			appointments.remove(pageSize);
+			nextCursor = AppointmentPage.Cursor.after(appointments.get(pageSize - 1));
+		}
+		return new AppointmentPage(appointments, nextCursor);
+	}
+
+	private static void requirePageSize(int pageSize) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("Page size must be greater than zero.");
+		}
+	}
+
+	// Search key for the (date, time, id) ordering
+	private static Appointment probe(LocalDate date, LocalTime time, String id) {
+		return new Appointment(id, date, time, null, null, null, null, 0, null, null);
+	}
+
+	@Override
+	public boolean updateAppointmentStatus(String appointmentId, AppointmentStatus status) throws SQLException {
+		return modify(appointmentId, current -> {
+			current.setStatus(status);
+			return current;
+		}, false) == BookingResult.BOOKED;
+	}
+
+	// Every change is checked before any is applied, so a rejected set leaves memory untouched and
+	// applying them one by one keeps the all-or-none contract
+	@Override
+	public void updateStatusesAndDurations(Map<String, AppointmentStatus> statuses, Map<String, Integer> durations)
+			throws SQLException {
+		// Checked by iterating, Map.of maps reject containsValue(null)
+		for (AppointmentStatus status : statuses.values()) {
+			if (status == null) {
+				throw new SQLIntegrityConstraintViolationException("Column 'status' cannot be null",
+						INTEGRITY_VIOLATION);
+			}
+		}
+		for (Integer duration : durations.values()) {
+			if (duration == null) {
+				throw new SQLIntegrityConstraintViolationException("Column 'duration' cannot be null",
+						INTEGRITY_VIOLATION);
+			}
+		}
+		for (Map.Entry<String, AppointmentStatus> entry : statuses.entrySet()) {
+			updateAppointmentStatus(entry.getKey(), entry.getValue());
+		}
+		for (Map.Entry<String, Integer> entry : durations.entrySet()) {
+			updateAppointmentDuration(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public int completePastAppointments(LocalDateTime cutoff, int chunkSize) throws SQLException {
+		return completePastAppointments(cutoff, chunkSize, completed -> {
+		});
+	}
+
+	// As above, also passing each completed appointment to the listener
+	int completePastAppointments(LocalDateTime cutoff, int chunkSize, Consumer<Appointment> onCompleted)
+			throws SQLException {
+		LocalDate cutoffDate = cutoff.toLocalDate();
+		int completed = 0;
+		for (Appointment appointment : byDateTime) {
+			if (completed >= chunkSize || appointment.getDate().isAfter(cutoffDate)) {
+				break;
+			}
+			// Compare the end as a date-time, an appointment from an earlier day may run past midnight
+			boolean ended = !appointment.getDate().atTime(appointment.getTime())
+					.plusMinutes(appointment.getDuration()).isAfter(cutoff);
+			if (!ended || appointment.getStatus() != AppointmentStatus.SCHEDULED) {
+				continue;
+			}
+			// Only complete it if it is still SCHEDULED when the write happens
+			BookingResult result = modify(appointment.getId(), current -> {
+				if (current.getStatus() != AppointmentStatus.SCHEDULED) {
+					return null;
+				}
+				current.setStatus(AppointmentStatus.COMPLETED);
+				return current;
+			}, false);
+			if (result == BookingResult.BOOKED) {
+				onCompleted.accept(byId.get(appointment.getId()));
+				completed++;
+			}
+		}
+		return completed;
+	}
+
+	@Override
+	public void updateAppointmentTime(String appointmentId, LocalDate newDate, LocalTime newTime)
+			throws SQLException {
+		modify(appointmentId, current -> {
+			current.setDate(newDate);
+			current.setTime(newTime);
+			return current;
+		}, false);
+	}
+
+	@Override
+	public void updateAppointmentDuration(String appointmentId, int duration) throws SQLException {
+		modify(appointmentId, current -> {
+			current.setDuration(duration);
+			return current;
+		}, false);
+	}
+
+	// Reject appointments the appointments table would not accept
+	private static Appointment requireColumns(Appointment appointment) throws SQLException {
+		String missing = appointment.getId() == null ? "id"
+				: appointment.getDate() == null ? "date"
+						: appointment.getTime() == null ? "time"
+								: appointment.getConsultantName() == null ? "consultantName"
+										: appointment.getConsultationType() == null ? "consultationType"
+												: appointment.getStatus() == null ? "status" : null;
+		if (missing != null) {
+			throw new SQLIntegrityConstraintViolationException("Column '" + missing + "' cannot be null",
+					INTEGRITY_VIOLATION);
+		}
+		return appointment;
+	}
+
+	private static Appointment copy(Appointment appointment) {
+		return new Appointment(appointment.getId(), appointment.getDate(), appointment.getTime(),
+				appointment.getLocation(), appointment.getClientName(), appointment.getConsultantName(),
+				appointment.getDescription(), appointment.getDuration(), appointment.getConsultationType(),
+				appointment.getStatus());
+	}
+}
@@ -0,0 +1,51 @@
+package appointment;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bounded pool of canonical string instances for repeated values such as consultant names and locations
+// Equal strings passed through the same pool come back as one shared instance, so a cache holding many
+// appointments keeps each distinct value once. Once full, new values are returned as given instead of
+// being pooled, so an unbounded stream of distinct strings cannot grow the pool without limit
+public class InternPool {
+
+	private final int capacity;
+	private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+
+	// Constructor, at most capacity distinct strings are pooled
+	public InternPool(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Intern pool capacity must be greater than zero.");
+		}
+		this.capacity = capacity;
+	}
+
+	// Canonical instance equal to the value, or the value itself if it is null or the pool is full
+	public String intern(String value) {
+		if (value == null) {
+			return null;
+		}
+		String pooled = values.get(value);
+		if (pooled != null) {
+			return pooled;
+		}
+		// The size check races with other threads, so the pool may overshoot its capacity by a few entries
+		if (values.size() >= capacity) {
+			return value;
+		}
+		pooled = values.putIfAbsent(value, value);
+		return pooled != null ? pooled : value;
+	}
+
+	// Forget every pooled value; instances handed out before stay valid, they are just no longer shared
+	public void clear() {
+		values.clear();
+	}
+
+	public int size() {
+		return values.size();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+}
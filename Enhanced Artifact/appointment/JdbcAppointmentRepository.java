@@ -0,0 +1,784 @@
+package appointment;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Collator;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+//import java.time.LocalDate;
+//import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+
+//Enhancements
+//Prepared statements prevent SQL injection attacks and integrity of input data
+//Specialized SQL queries
+//Connection pooling
+//Automatic resource closing
+public class JdbcAppointmentRepository implements AppointmentRepository {
+
+	private final Connection connection; // Shared connection session with database, null when pooled
+	private final DataSource dataSource; // Pool borrowed from per operation, null when shared
+	private final AppointmentCache cache; // Read-through cache for lookups by id, null when disabled
+	private final IdColumn idColumn;
+	private final AppointmentRowMapper mapper;
+
+	// Storage type of the appointments table's id column
+	// Callers always see string ids, conversion happens only when binding and reading the column
+	public enum IdColumn {
+		// CHAR(36) holding the id string as given
+		CHAR,
+		// BINARY(16) holding a canonical UUID id as 16 big-endian bytes, see AppointmentIds
+		// A third of the key size, and with time-ordered ids new rows append to the end of the index
+		BINARY
+	}
+
+	// Single shared connection, the caller owns and closes it; not safe to share between threads
+	public JdbcAppointmentRepository(Connection connection) {
+		this(connection, IdColumn.CHAR);
+	}
+
+	// Single shared connection with the given id column type
+	public JdbcAppointmentRepository(Connection connection, IdColumn idColumn) {
+		this.connection = connection;
+		this.dataSource = null;
+		this.cache = null;
+		this.idColumn = idColumn;
+		this.mapper = new AppointmentRowMapper(idColumn);
+	}
+
+	// Pooled connections, each operation borrows a connection and returns it when done
+	// Holds no per-call state, so one instance can serve many threads concurrently
+	public JdbcAppointmentRepository(DataSource dataSource) {
+		this(dataSource, null);
+	}
+
+	// Pooled connections with a read-through cache in front of getAppointmentById
+	// Every write through this repository invalidates the written id
+	public JdbcAppointmentRepository(DataSource dataSource, AppointmentCache cache) {
+		this(dataSource, cache, IdColumn.CHAR);
+	}
+
+	// Pooled connections with an optional cache and the given id column type
+	public JdbcAppointmentRepository(DataSource dataSource, AppointmentCache cache, IdColumn idColumn) {
+		this.connection = null;
+		this.dataSource = dataSource;
+		this.cache = cache;
+		this.idColumn = idColumn;
+		this.mapper = new AppointmentRowMapper(idColumn);
+	}
+
+	public IdColumn getIdColumn() {
+		return idColumn;
+	}
+
+	// Bind an id parameter in the column's storage type
+	// With BINARY ids, an id that is not a canonical UUID throws IllegalArgumentException
+	private void bindId(PreparedStatement stmt, int index, String id) throws SQLException {
+		if (idColumn == IdColumn.BINARY) {
+			stmt.setBytes(index, AppointmentIds.toBinary(id));
+		} else {
+			stmt.setString(index, id);
+		}
+	}
+
+	// Cache in use, null when caching is disabled
+	public AppointmentCache getCache() {
+		return cache;
+	}
+
+	// Drop a written row from the cache, called in finally blocks since even a failed
+	// write may have reached the database
+	private void invalidateCached(String id) {
+		if (cache != null) {
+			cache.invalidate(id);
+		}
+	}
+
+	// Connection held for one operation or unit of work
+	// Closing a lease returns a pooled connection and leaves a shared connection open
+	private static class ConnectionLease implements AutoCloseable {
+		private final Connection connection;
+		private final boolean pooled;
+
+		ConnectionLease(Connection connection, boolean pooled) {
+			this.connection = connection;
+			this.pooled = pooled;
+		}
+
+		Connection connection() {
+			return connection;
+		}
+
+		@Override
+		public void close() throws SQLException {
+			if (pooled) {
+				connection.close();
+			}
+		}
+	}
+
+	// Borrow a connection, waits at most the pool's connection timeout
+	private ConnectionLease lease() throws SQLException {
+		if (dataSource != null) {
+			return new ConnectionLease(dataSource.getConnection(), true);
+		}
+		return new ConnectionLease(connection, false);
+	}
+
+	// Insert statement shared by single and bulk saves
+	private static final String INSERT_QUERY = "INSERT INTO appointments (id, date, time, location, clientName, consultantName, description, duration, consultationType, status) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	// Add a new appointment to the database
+	// Returns appointment object when specified
+	@Override
+	public Appointment saveAppointment(Appointment appointment) throws SQLException {
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(INSERT_QUERY)) {
+			bindInsert(stmt, appointment);
+
+			stmt.executeUpdate();
+
+			return appointment;
+		}
+	}
+
+	// Bulk insert appointments in JDBC batches of batchSize rows
+	// Each batch is committed on its own; a failing batch is rolled back and its rows
+	// retried one at a time so that only the offending rows are reported as failures
+	@Override
+	public BatchInsertResult saveAppointments(Collection<Appointment> appointments, int batchSize)
+			throws SQLException {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be greater than zero.");
+		}
+		BatchInsertResult result = new BatchInsertResult();
+		if (appointments.isEmpty()) {
+			return result;
+		}
+
+		// The whole bulk insert is one unit of work on a single borrowed connection
+		try (ConnectionLease lease = lease()) {
+			Connection connection = lease.connection();
+			boolean previousAutoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				insertInBatches(connection, appointments, batchSize, result);
+			} finally {
+				connection.setAutoCommit(previousAutoCommit);
+			}
+		}
+		return result;
+	}
+
+	// Bind every row and send it in batches of batchSize rows
+	private void insertInBatches(Connection connection, Collection<Appointment> appointments, int batchSize,
+			BatchInsertResult result) throws SQLException {
+		try (PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY)) {
+			List<Appointment> chunk = new ArrayList<>(Math.min(batchSize, appointments.size()));
+			List<Integer> chunkIndexes = new ArrayList<>(Math.min(batchSize, appointments.size()));
+			int index = 0;
+
+			for (Appointment appointment : appointments) {
+				try {
+					bindInsert(stmt, appointment);
+					stmt.addBatch();
+					chunk.add(appointment);
+					chunkIndexes.add(index);
+				} catch (RuntimeException e) {
+					// Missing required fields cannot be bound, reject the row without sending it
+					stmt.clearParameters();
+					result.addFailure(index, appointment, "Invalid appointment: " + e);
+				}
+				index++;
+
+				if (chunk.size() == batchSize) {
+					flushBatch(connection, stmt, chunk, chunkIndexes, result);
+				}
+			}
+			if (!chunk.isEmpty()) {
+				flushBatch(connection, stmt, chunk, chunkIndexes, result);
+			}
+		}
+	}
+
+	// Execute and commit one batch, falling back to row by row inserts if the batch fails
+	private void flushBatch(Connection connection, PreparedStatement stmt, List<Appointment> chunk,
+			List<Integer> chunkIndexes, BatchInsertResult result) throws SQLException {
+		try {
+			stmt.executeBatch();
+			connection.commit();
+			result.addInserted(chunk.size());
+		} catch (BatchUpdateException e) {
+			// Rewritten multi-row inserts fail as a whole, so isolate the bad rows individually
+			connection.rollback();
+			stmt.clearBatch();
+			for (int i = 0; i < chunk.size(); i++) {
+				try {
+					bindInsert(stmt, chunk.get(i));
+					stmt.executeUpdate();
+					connection.commit();
+					result.addInserted(1);
+				} catch (SQLException rowError) {
+					connection.rollback();
+					result.addFailure(chunkIndexes.get(i), chunk.get(i), rowError.getMessage());
+				}
+			}
+		} finally {
+			chunk.clear();
+			chunkIndexes.clear();
+		}
+	}
+
+	// Set insert parameters in column order
+	private void bindInsert(PreparedStatement stmt, Appointment appointment) throws SQLException {
+		bindId(stmt, 1, appointment.getId());
+		stmt.setDate(2, java.sql.Date.valueOf(appointment.getDate()));
+		stmt.setTime(3, java.sql.Time.valueOf(appointment.getTime()));
+		stmt.setString(4, appointment.getLocation());
+		stmt.setString(5, appointment.getClientName());
+		stmt.setString(6, appointment.getConsultantName());
+		stmt.setString(7, appointment.getDescription());
+		stmt.setInt(8, appointment.getDuration());
+		stmt.setString(9, appointment.getConsultationType().name());
+		stmt.setString(10, appointment.getStatus().name());
+	}
+
+	// Attempts made when concurrent bookings deadlock on the same consultant-day
+	private static final int BOOKING_ATTEMPTS = 3;
+
+	// SQL state MySQL reports for deadlocks (error 1213), which roll the statement back at once
+	// Lock wait timeouts (error 1205) report HY000 and are not retried: the statement has already
+	// waited innodb_lock_wait_timeout, so retrying would only stack further waits
+	private static final String SERIALIZATION_FAILURE = "40001";
+
+	// Insert only if no appointment of the same consultant and day overlaps the new one
+	// Overlap is strict: an appointment may start exactly when another ends
+	private static final String BOOK_QUERY = "INSERT INTO appointments (id, date, time, location, clientName, consultantName, description, duration, consultationType, status) "
+			+ "SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ? FROM DUAL WHERE NOT EXISTS ("
+			+ "SELECT 1 FROM appointments WHERE consultantName = ? AND date = ? "
+			+ "AND time < ADDTIME(?, SEC_TO_TIME(? * 60)) AND ADDTIME(time, SEC_TO_TIME(duration * 60)) > ?)";
+
+	// Move an appointment only if nothing else of the same consultant overlaps the new slot
+	private static final String RESCHEDULE_QUERY = "UPDATE appointments target LEFT JOIN appointments other "
+			+ "ON other.consultantName = target.consultantName AND other.date = ? AND other.id <> target.id "
+			+ "AND other.time < ADDTIME(?, SEC_TO_TIME(target.duration * 60)) "
+			+ "AND ADDTIME(other.time, SEC_TO_TIME(other.duration * 60)) > ? "
+			+ "SET target.date = ?, target.time = ? WHERE target.id = ? AND other.id IS NULL";
+
+	// Conflict-checked insert in a single statement
+	// The overlap check and the write happen atomically on the server, so two concurrent
+	// bookings for the same slot cannot both succeed
+	@Override
+	public BookingResult bookAppointment(Appointment appointment) throws SQLException {
+		for (int attempt = 1;; attempt++) {
+			try (ConnectionLease lease = lease();
+					PreparedStatement stmt = lease.connection().prepareStatement(BOOK_QUERY)) {
+				bindInsert(stmt, appointment);
+				java.sql.Time start = java.sql.Time.valueOf(appointment.getTime());
+				stmt.setString(11, appointment.getConsultantName());
+				stmt.setDate(12, java.sql.Date.valueOf(appointment.getDate()));
+				stmt.setTime(13, start);
+				stmt.setInt(14, appointment.getDuration());
+				stmt.setTime(15, start);
+
+				return stmt.executeUpdate() > 0 ? BookingResult.BOOKED : BookingResult.CONFLICT;
+			} catch (SQLException e) {
+				// A competing booking won the consultant-day lock, retry so it is reported as a conflict
+				if (!SERIALIZATION_FAILURE.equals(e.getSQLState()) || attempt >= BOOKING_ATTEMPTS) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	// Conflict-checked move to a new date and time in a single statement
+	// Returns NOT_FOUND only when the appointment does not exist
+	@Override
+	public BookingResult rescheduleAppointment(String appointmentId, LocalDate newDate, LocalTime newTime)
+			throws SQLException {
+		for (int attempt = 1;; attempt++) {
+			try (ConnectionLease lease = lease();
+					PreparedStatement stmt = lease.connection().prepareStatement(RESCHEDULE_QUERY)) {
+				java.sql.Date date = java.sql.Date.valueOf(newDate);
+				java.sql.Time time = java.sql.Time.valueOf(newTime);
+				stmt.setDate(1, date);
+				stmt.setTime(2, time);
+				stmt.setTime(3, time);
+				stmt.setDate(4, date);
+				stmt.setTime(5, time);
+				bindId(stmt, 6, appointmentId);
+
+				if (stmt.executeUpdate() > 0) {
+					invalidateCached(appointmentId);
+					return BookingResult.BOOKED;
+				}
+				// Nothing matched: either the slot is taken or the appointment is gone
+				return appointmentExists(lease.connection(), appointmentId) ? BookingResult.CONFLICT
+						: BookingResult.NOT_FOUND;
+			} catch (SQLException e) {
+				if (!SERIALIZATION_FAILURE.equals(e.getSQLState()) || attempt >= BOOKING_ATTEMPTS) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	// Check an id exists, only used on the rejected path of a reschedule
+	private boolean appointmentExists(Connection connection, String appointmentId) throws SQLException {
+		try (PreparedStatement stmt = connection.prepareStatement("SELECT 1 FROM appointments WHERE id = ?")) {
+			bindId(stmt, 1, appointmentId);
+			try (ResultSet rs = stmt.executeQuery()) {
+				return rs.next();
+			}
+		}
+	}
+
+	// Update an existing appointment, false if no row has its id
+	// Connector/J reports matched rows by default, so an update that changes nothing still returns true
+	@Override
+	public boolean updateAppointment(Appointment appointment) throws SQLException {
+		String query = "UPDATE appointments SET date = ?, time = ?, location = ?, clientName = ?, consultantName = ?, description = ?, duration = ?, consultationType = ?, status = ? "
+				+ "WHERE id = ?";
+
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+			stmt.setDate(1, java.sql.Date.valueOf(appointment.getDate()));
+			stmt.setTime(2, java.sql.Time.valueOf(appointment.getTime()));
+			stmt.setString(3, appointment.getLocation());
+			stmt.setString(4, appointment.getClientName());
+			stmt.setString(5, appointment.getConsultantName());
+			stmt.setString(6, appointment.getDescription());
+			stmt.setInt(7, appointment.getDuration());
+			stmt.setString(8, appointment.getConsultationType().name());
+			stmt.setString(9, appointment.getStatus().name());
+			bindId(stmt, 10, appointment.getId());
+
+			return stmt.executeUpdate() > 0;
+		} finally {
+			invalidateCached(appointment.getId());
+		}
+	}
+
+	// Retrieve an appointment by ID, from the cache when enabled
+	@Override
+	public Appointment getAppointmentById(String id) throws SQLException {
+		if (cache != null) {
+			return cache.get(id, this::loadAppointmentById);
+		}
+		return loadAppointmentById(id);
+	}
+
+	// Retrieve an appointment by ID from the database
+	private Appointment loadAppointmentById(String id) throws SQLException {
+		String query = "SELECT " + AppointmentRowMapper.COLUMNS + " FROM appointments WHERE id = ?";
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+			bindId(stmt, 1, id);
+			try (ResultSet rs = stmt.executeQuery()) {
+				return rs.next() ? mapper.map(rs) : null;
+			}
+		}
+	}
+
+	// Delete an appointment and return a boolean indicating success
+	@Override
+	public boolean deleteAppointment(String id) throws SQLException {
+		String query = "DELETE FROM appointments WHERE id = ?";
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+			bindId(stmt, 1, id);
+
+			int rowsAffected = stmt.executeUpdate();
+			return rowsAffected > 0; // true if at least one row was deleted
+		} finally {
+			invalidateCached(id);
+		}
+	}
+
+	// Retrieve all appointments
+	@Override
+	public List<Appointment> getAllAppointments() throws SQLException {
+		List<Appointment> appointments = new ArrayList<>();
+		String query = "SELECT " + AppointmentRowMapper.COLUMNS + " FROM appointments";
+
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query);
+				ResultSet rs = stmt.executeQuery()) {
+			while (rs.next()) {
+				appointments.add(mapper.map(rs));
+			}
+		}
+
+		return appointments;
+	}
+
+	// Rows fetched per server round trip when streaming
+	public static final int STREAM_FETCH_SIZE = 1000;
+
+	// Stream every appointment to the visitor without loading the table into memory
+	// Uses a forward-only, read-only server-side cursor so only one fetch of rows is held at a time
+	// Returns the number of appointments visited
+	@Override
+	public long forEachAppointment(Consumer<? super Appointment> visitor) throws SQLException {
+		String query = "SELECT " + AppointmentRowMapper.COLUMNS + " FROM appointments";
+		long count = 0;
+
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query,
+						ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+			stmt.setFetchSize(STREAM_FETCH_SIZE);
+
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					visitor.accept(mapper.map(rs));
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	// Get appointments by consultant and date
+	@Override
+	public List<Appointment> getAppointmentsByConsultantAndDate(String consultantName, LocalDate date)
+			throws SQLException {
+		String query = "SELECT " + AppointmentRowMapper.COLUMNS
+				+ " FROM appointments WHERE consultantName = ? AND date = ?";
+		List<Appointment> appointments = new ArrayList<>();
+
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+			stmt.setString(1, consultantName);
+			stmt.setDate(2, java.sql.Date.valueOf(date));
+
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					appointments.add(mapper.map(rs));
+				}
+			}
+		}
+		return appointments;
+	}
+
+	// Schedule slice of a consultant-day: only id, time, duration and status cross the wire, and all
+	// four are in the (consultantName, date, time, duration, status) index, so no table rows are read
+	@Override
+	public DaySchedule getScheduleSlice(String consultantName, LocalDate date) throws SQLException {
+		String query = "SELECT " + AppointmentRowMapper.SCHEDULE_COLUMNS
+				+ " FROM appointments WHERE consultantName = ? AND date = ? ORDER BY time";
+		DaySchedule.Builder schedule = DaySchedule.builder();
+
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+			stmt.setString(1, consultantName);
+			stmt.setDate(2, java.sql.Date.valueOf(date));
+
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					mapper.mapScheduleRow(rs, schedule);
+				}
+			}
+		}
+		return schedule.build();
+	}
+
+	// Get all appointments for a consultant between two dates (inclusive) in one round trip
+	// Ordered by date, time and id
+	@Override
+	public List<Appointment> getAppointmentsByConsultantBetween(String consultantName, LocalDate fromDate,
+			LocalDate toDate) throws SQLException {
+		String query = "SELECT " + AppointmentRowMapper.COLUMNS
+				+ " FROM appointments WHERE consultantName = ? AND date >= ? AND date <= ? ORDER BY date, time, id";
+		List<Appointment> appointments = new ArrayList<>();
+
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+			stmt.setString(1, consultantName);
+			stmt.setDate(2, java.sql.Date.valueOf(fromDate));
+			stmt.setDate(3, java.sql.Date.valueOf(toDate));
+
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					appointments.add(mapper.map(rs));
+				}
+			}
+		}
+		return appointments;
+	}
+
+	// Most consultant names bound into one IN list, larger requests are split across queries
+	private static final int MAX_IN_LIST = 1000;
+
+	// Get the appointments of several consultants between two dates (inclusive) in one batched query
+	// Returns each consultant's appointments ordered by date, time and id; consultants with no
+	// appointments map to an empty list
+	// Results are keyed by the requested spelling: the IN list matches names case- and accent-insensitively,
+	// so a row stored as "Alice" belongs to a request for "alice"
+	@Override
+	public Map<String, List<Appointment>> getAppointmentsByConsultantsBetween(Collection<String> consultantNames,
+			LocalDate fromDate, LocalDate toDate) throws SQLException {
+		Map<String, List<Appointment>> byConsultant = new LinkedHashMap<>();
+		// Stored name to every requested spelling it matches, compared like the column's _ci collation
+		Collator collation = Collator.getInstance(Locale.ROOT);
+		collation.setStrength(Collator.PRIMARY);
+		collation.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+		Map<String, List<String>> requestedSpellings = new TreeMap<>(collation);
+		for (String consultantName : consultantNames) {
+			if (byConsultant.putIfAbsent(consultantName, new ArrayList<>()) == null) {
+				requestedSpellings.computeIfAbsent(consultantName, name -> new ArrayList<>()).add(consultantName);
+			}
+		}
+		List<String> names = new ArrayList<>(byConsultant.keySet());
+
+		try (ConnectionLease lease = lease()) {
+			for (int from = 0; from < names.size(); from += MAX_IN_LIST) {
+				List<String> chunk = names.subList(from, Math.min(names.size(), from + MAX_IN_LIST));
+				String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+				String query = "SELECT " + AppointmentRowMapper.COLUMNS + " FROM appointments WHERE consultantName IN ("
+						+ placeholders + ") AND date >= ? AND date <= ? ORDER BY date, time, id";
+
+				try (PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+					int param = 1;
+					for (String consultantName : chunk) {
+						stmt.setString(param++, consultantName);
+					}
+					stmt.setDate(param++, java.sql.Date.valueOf(fromDate));
+					stmt.setDate(param, java.sql.Date.valueOf(toDate));
+
+					try (ResultSet rs = stmt.executeQuery()) {
+						while (rs.next()) {
+							Appointment appointment = mapper.map(rs);
+							List<String> spellings = requestedSpellings.get(appointment.getConsultantName());
+							if (spellings == null) {
+								continue; // Matched by a collation rule the lookup does not share, e.g. trailing spaces
+							}
+							for (String spelling : spellings) {
+								byConsultant.get(spelling).add(appointment);
+							}
+						}
+					}
+				}
+			}
+		}
+		return byConsultant;
+	}
+
+	// Get one page of a consultant's appointments between two dates (inclusive)
+	// Pass null as the cursor for the first page, then the previous page's next cursor
+	@Override
+	public AppointmentPage getAppointmentsByConsultantBetween(String consultantName, LocalDate fromDate,
+			LocalDate toDate, AppointmentPage.Cursor after, int pageSize) throws SQLException {
+		return queryPage(consultantName, fromDate, toDate, after, pageSize);
+	}
+
+	// Get one page of appointments for all consultants between two dates (inclusive)
+	@Override
+	public AppointmentPage getAppointmentsBetween(LocalDate fromDate, LocalDate toDate, AppointmentPage.Cursor after,
+			int pageSize) throws SQLException {
+		return queryPage(null, fromDate, toDate, after, pageSize);
+	}
+
+	// Keyset pagination on (date, time, id): every page seeks straight to its first row
+	// instead of skipping an OFFSET, so deep pages cost the same as the first
+	// Served by idx_appointments_day for all consultants and idx_appointments_consultant_day for one
+	private AppointmentPage queryPage(String consultantName, LocalDate fromDate, LocalDate toDate,
+			AppointmentPage.Cursor after, int pageSize) throws SQLException {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("Page size must be greater than zero.");
+		}
+		StringBuilder query = new StringBuilder(
+				"SELECT " + AppointmentRowMapper.COLUMNS + " FROM appointments WHERE date >= ? AND date <= ?");
+		if (consultantName != null) {
+			query.append(" AND consultantName = ?");
+		}
+		if (after != null) {
+			// Expanded row comparison, (date, time, id) > (?, ?, ?), written so the range is index friendly
+			query.append(" AND (date > ? OR (date = ? AND (time > ? OR (time = ? AND id > ?))))");
+		}
+		// One extra row tells us whether another page follows
+		query.append(" ORDER BY date, time, id LIMIT ?");
+
+		List<Appointment> appointments = new ArrayList<>(pageSize + 1);
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query.toString())) {
+			int param = 1;
+			stmt.setDate(param++, java.sql.Date.valueOf(fromDate));
+			stmt.setDate(param++, java.sql.Date.valueOf(toDate));
+			if (consultantName != null) {
+				stmt.setString(param++, consultantName);
+			}
+			if (after != null) {
+				java.sql.Date afterDate = java.sql.Date.valueOf(after.getDate());
+				java.sql.Time afterTime = java.sql.Time.valueOf(after.getTime());
+				stmt.setDate(param++, afterDate);
+				stmt.setDate(param++, afterDate);
+				stmt.setTime(param++, afterTime);
+				stmt.setTime(param++, afterTime);
+				bindId(stmt, param++, after.getId());
+			}
+			stmt.setInt(param, pageSize + 1);
+
+			try (ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					appointments.add(mapper.map(rs));
+				}
+			}
+		}
+
+		AppointmentPage.Cursor nextCursor = null;
+		if (appointments.size() > pageSize) {
+			appointments.remove(pageSize);
+			nextCursor = AppointmentPage.Cursor.after(appointments.get(pageSize - 1));
+		}
+		return new AppointmentPage(appointments, nextCursor);
+	}
+
+	// Update status, false if no row has the id
+	@Override
+	public boolean updateAppointmentStatus(String appointmentId, AppointmentStatus status) throws SQLException {
+		String query = "UPDATE appointments SET status = ? WHERE id = ?";
+
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+			stmt.setString(1, status.toString());
+			bindId(stmt, 2, appointmentId);
+			return stmt.executeUpdate() > 0;
+		} finally {
+			invalidateCached(appointmentId);
+		}
+	}
+
+	// Apply many status and duration changes as JDBC batches in one transaction
+	// Used by the write-behind queue; either every change is committed or none is
+	@Override
+	public void updateStatusesAndDurations(Map<String, AppointmentStatus> statuses, Map<String, Integer> durations)
+			throws SQLException {
+		if (statuses.isEmpty() && durations.isEmpty()) {
+			return;
+		}
+		try (ConnectionLease lease = lease()) {
+			Connection connection = lease.connection();
+			boolean previousAutoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try (PreparedStatement statusStmt = connection
+					.prepareStatement("UPDATE appointments SET status = ? WHERE id = ?");
+					PreparedStatement durationStmt = connection
+							.prepareStatement("UPDATE appointments SET duration = ? WHERE id = ?")) {
+				for (Map.Entry<String, AppointmentStatus> entry : statuses.entrySet()) {
+					statusStmt.setString(1, entry.getValue().toString());
+					bindId(statusStmt, 2, entry.getKey());
+					statusStmt.addBatch();
+				}
+				for (Map.Entry<String, Integer> entry : durations.entrySet()) {
+					durationStmt.setInt(1, entry.getValue());
+					bindId(durationStmt, 2, entry.getKey());
+					durationStmt.addBatch();
+				}
+				if (!statuses.isEmpty()) {
+					statusStmt.executeBatch();
+				}
+				if (!durations.isEmpty()) {
+					durationStmt.executeBatch();
+				}
+				connection.commit();
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(previousAutoCommit);
+				for (String id : statuses.keySet()) {
+					invalidateCached(id);
+				}
+				for (String id : durations.keySet()) {
+					invalidateCached(id);
+				}
+			}
+		}
+	}
+
+	// Mark at most chunkSize SCHEDULED appointments that ended at or before the cutoff as COMPLETED
+	// Set-based and bounded, so each statement holds its row locks briefly. Only SCHEDULED rows
+	// match, which makes the statement idempotent and safe to run from several nodes at once:
+	// a row completed by one node no longer matches on another
+	// Returns the number of appointments completed by this chunk
+	@Override
+	public int completePastAppointments(LocalDateTime cutoff, int chunkSize) throws SQLException {
+		// The end is compared as a date-time, so an appointment from an earlier day that runs past
+		// midnight is not counted as ended. status = ? AND date <= ? is a range on
+		// idx_appointments_status_day read in (date, time) order, so the scan stops after the chunk and
+		// only the rows it reads are locked; the end check is pushed down to the index entries
+		String query = "UPDATE appointments SET status = ? WHERE status = ? AND date <= ? "
+				+ "AND ADDTIME(TIMESTAMP(date, time), SEC_TO_TIME(duration * 60)) <= ? "
+				+ "ORDER BY date, time LIMIT ?";
+		int completed;
+
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+			stmt.setString(1, AppointmentStatus.COMPLETED.name());
+			stmt.setString(2, AppointmentStatus.SCHEDULED.name());
+			stmt.setDate(3, java.sql.Date.valueOf(cutoff.toLocalDate()));
+			stmt.setTimestamp(4, java.sql.Timestamp.valueOf(cutoff));
+			stmt.setInt(5, chunkSize);
+			completed = stmt.executeUpdate();
+		}
+		// Affected ids are not known individually, so drop the whole by-id cache
+		if (completed > 0 && cache != null) {
+			cache.invalidateAll();
+		}
+		return completed;
+	}
+
+	// Update date and time
+	@Override
+	public void updateAppointmentTime(String appointmentId, LocalDate newDate, LocalTime newTime) throws SQLException {
+		// TODO Auto-generated method stub
+		String query = "UPDATE appointments SET date = ?, time = ? WHERE id = ?";
+
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+			stmt.setDate(1, java.sql.Date.valueOf(newDate));
+			stmt.setTime(2, java.sql.Time.valueOf(newTime));
+			bindId(stmt, 3, appointmentId);
+			stmt.executeUpdate();
+		} finally {
+			invalidateCached(appointmentId);
+		}
+
+	}
+
+	// Update duration
+	@Override
+	public void updateAppointmentDuration(String appointmentId, int duration) throws SQLException {
+		// TODO Auto-generated method stub
+		String query = "UPDATE appointments SET duration = ? WHERE id = ?";
+
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
+			stmt.setInt(1, duration);
+			bindId(stmt, 2, appointmentId);
+			stmt.executeUpdate();
+		} finally {
+			invalidateCached(appointmentId);
+		}
+
+	}
+
+}
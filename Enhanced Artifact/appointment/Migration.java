@@ -0,0 +1,98 @@
+package appointment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// One versioned schema change, a list of SQL statements applied together by MigrationRunner
+// The checksum covers the statements with whitespace collapsed, so reformatting a migration does not
+// change it but editing its SQL does; an applied migration must never be edited, add a new one instead
+// A migration may carry a satisfied-check query: when it returns a row the change is already in place,
+// e.g. an index created by hand, and the statements are skipped while the version is still recorded
+public final class Migration {
+
+	// Index with the given name, or with exactly the given columns in order and at least the given
+	// uniqueness; parameters are table, index name, comma-separated columns and 0 for unique or 1 for any
+	private static final String INDEX_EXISTS_QUERY = "SELECT 1 FROM information_schema.STATISTICS "
+			+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? GROUP BY INDEX_NAME, NON_UNIQUE "
+			+ "HAVING INDEX_NAME = ? OR (GROUP_CONCAT(COLUMN_NAME ORDER BY SEQ_IN_INDEX) = ? AND NON_UNIQUE <= ?)";
+
+	private final int version;
+	private final String description;
+	private final List<String> statements;
+	private final long checksum;
+	private final String satisfiedQuery; // Null when the statements always run
+	private final List<Object> satisfiedParameters;
+
+	// Constructor, versions start at 1 and must increase with every new migration
+	public Migration(int version, String description, String... statements) {
+		this(version, description, null, List.of(), statements);
+	}
+
+	private Migration(int version, String description, String satisfiedQuery, List<Object> satisfiedParameters,
+			String... statements) {
+		if (version <= 0) {
+			throw new IllegalArgumentException("Migration version must be greater than zero.");
+		}
+		if (statements.length == 0) {
+			throw new IllegalArgumentException("Migration " + version + " has no statements.");
+		}
+		this.version = version;
+		this.description = description;
+		this.statements = List.of(statements);
+		this.checksum = checksum(this.statements);
+		this.satisfiedQuery = satisfiedQuery;
+		this.satisfiedParameters = satisfiedParameters;
+	}
+
+	// Migration creating an index, skipped when the table already has an index of that name or one on
+	// the same columns, so databases indexed by hand before versioning are adopted without a duplicate
+	// The checksum is that of the plain CREATE INDEX statement
+	public static Migration createIndex(int version, String description, String table, String index,
+			boolean unique, String... columns) {
+		String sql = "CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + index + " ON " + table + " ("
+				+ String.join(", ", columns) + ")";
+		return new Migration(version, description, INDEX_EXISTS_QUERY,
+				List.of(table, index, String.join(",", columns), unique ? 0 : 1), sql);
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public List<String> getStatements() {
+		return statements;
+	}
+
+	// CRC32 of the normalized statements, recorded when the migration is applied
+	public long getChecksum() {
+		return checksum;
+	}
+
+	// Query returning a row when the change is already in place, null if there is none
+	public String getSatisfiedQuery() {
+		return satisfiedQuery;
+	}
+
+	public List<Object> getSatisfiedParameters() {
+		return satisfiedParameters;
+	}
+
+	private static long checksum(List<String> statements) {
+		CRC32 crc = new CRC32();
+		for (String statement : statements) {
+			crc.update(statement.trim().replaceAll("\\s+", " ").getBytes(StandardCharsets.UTF_8));
+			crc.update(';');
+		}
+		return crc.getValue();
+	}
+
+	@Override
+	public String toString() {
+		return "Migration[" + version + ", " + description + "]";
+	}
+}
@@ -0,0 +1,177 @@
+package appointment;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+// Applies pending schema migrations in version order, e.g. once at application startup
+// Applied versions and their checksums are recorded in the schema_migrations table. Before applying
+// anything, every recorded migration is checked against the code: a changed checksum means a shipped
+// migration was edited, and the runner refuses to continue rather than leave environments diverged.
+// Versions recorded by newer code are left alone, so an older node can still start during a rollout.
+// A named database lock serializes runners, so several nodes starting together apply each migration once.
+// MySQL commits DDL implicitly, so a migration failing halfway is not rolled back; it is not recorded,
+// and its completed statements must be undone by hand before the next run
+// Nothing is printed; migrate() returns what it applied, and the history table records each duration
+public class MigrationRunner {
+
+	public static final String HISTORY_TABLE = "schema_migrations";
+
+	// Seconds to wait for another node's runner to finish
+	private static final int LOCK_TIMEOUT_SECONDS = 60;
+	private static final String LOCK_NAME = "appointment_schema_migrations";
+
+	private final DataSource dataSource;
+	private final List<Migration> migrations;
+
+	// Constructor, migrations must be given in strictly increasing version order
+	public MigrationRunner(DataSource dataSource, List<Migration> migrations) {
+		for (int i = 1; i < migrations.size(); i++) {
+			if (migrations.get(i).getVersion() <= migrations.get(i - 1).getVersion()) {
+				throw new IllegalArgumentException("Migration " + migrations.get(i).getVersion()
+						+ " is out of order, versions must strictly increase.");
+			}
+		}
+		this.dataSource = dataSource;
+		this.migrations = List.copyOf(migrations);
+	}
+
+	// Verify the applied migrations and apply the pending ones
+	// Returns the migrations applied by this call, empty when the schema was already current
+	public List<Migration> migrate() throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(true);
+			createHistoryTable(connection);
+			lock(connection);
+			try {
+				Map<Integer, Long> applied = appliedChecksums(connection);
+				verify(applied);
+
+				List<Migration> newlyApplied = new ArrayList<>();
+				for (Migration migration : migrations) {
+					if (!applied.containsKey(migration.getVersion())) {
+						apply(connection, migration);
+						newlyApplied.add(migration);
+					}
+				}
+				return newlyApplied;
+			} finally {
+				unlock(connection);
+			}
+		}
+	}
+
+	// Migrations not applied yet, in the order migrate() would apply them
+	public List<Migration> pending() throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			createHistoryTable(connection);
+			Map<Integer, Long> applied = appliedChecksums(connection);
+			List<Migration> pending = new ArrayList<>();
+			for (Migration migration : migrations) {
+				if (!applied.containsKey(migration.getVersion())) {
+					pending.add(migration);
+				}
+			}
+			return Collections.unmodifiableList(pending);
+		}
+	}
+
+	// Fail if any applied migration differs from the code
+	private void verify(Map<Integer, Long> applied) throws SQLException {
+		for (Migration migration : migrations) {
+			Long checksum = applied.get(migration.getVersion());
+			if (checksum != null && checksum != migration.getChecksum()) {
+				throw new SQLException("Checksum mismatch for " + migration + ": recorded " + checksum
+						+ ", code has " + migration.getChecksum() + ". Applied migrations must not be edited.");
+			}
+		}
+	}
+
+	private void apply(Connection connection, Migration migration) throws SQLException {
+		long start = System.nanoTime();
+		try (Statement stmt = connection.createStatement()) {
+			if (!isSatisfied(connection, migration)) {
+				for (String sql : migration.getStatements()) {
+					stmt.execute(sql);
+				}
+			}
+		} catch (SQLException e) {
+			throw new SQLException("Failed to apply " + migration + ": " + e.getMessage(), e.getSQLState(), e);
+		}
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		String insert = "INSERT INTO " + HISTORY_TABLE
+				+ " (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+		try (PreparedStatement stmt = connection.prepareStatement(insert)) {
+			stmt.setInt(1, migration.getVersion());
+			stmt.setString(2, migration.getDescription());
+			stmt.setLong(3, migration.getChecksum());
+			stmt.setLong(4, elapsedMillis);
+			stmt.executeUpdate();
+		}
+	}
+
+	// Is the migration's change already in place, e.g. an index created by hand before versioning
+	private static boolean isSatisfied(Connection connection, Migration migration) throws SQLException {
+		if (migration.getSatisfiedQuery() == null) {
+			return false;
+		}
+		try (PreparedStatement stmt = connection.prepareStatement(migration.getSatisfiedQuery())) {
+			List<Object> parameters = migration.getSatisfiedParameters();
+			for (int i = 0; i < parameters.size(); i++) {
+				stmt.setObject(i + 1, parameters.get(i));
+			}
+			try (ResultSet rs = stmt.executeQuery()) {
+				return rs.next();
+			}
+		}
+	}
+
+	private static void createHistoryTable(Connection connection) throws SQLException {
+		try (Statement stmt = connection.createStatement()) {
+			stmt.executeUpdate("CREATE TABLE IF NOT EXISTS " + HISTORY_TABLE + " (version INT NOT NULL PRIMARY KEY, "
+					+ "description VARCHAR(255) NOT NULL, checksum BIGINT NOT NULL, "
+					+ "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, execution_ms BIGINT NOT NULL)");
+		}
+	}
+
+	private static Map<Integer, Long> appliedChecksums(Connection connection) throws SQLException {
+		Map<Integer, Long> applied = new HashMap<>();
+		try (Statement stmt = connection.createStatement();
+				ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM " + HISTORY_TABLE)) {
+			while (rs.next()) {
+				applied.put(rs.getInt(1), rs.getLong(2));
+			}
+		}
+		return applied;
+	}
+
+	// Named locks belong to the connection, so migrations run on the connection that took it
+	private static void lock(Connection connection) throws SQLException {
+		try (PreparedStatement stmt = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+			stmt.setString(1, LOCK_NAME);
+			stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+			try (ResultSet rs = stmt.executeQuery()) {
+				if (!rs.next() || rs.getInt(1) != 1) {
+					throw new SQLException("Timed out waiting for another node to finish schema migrations.");
+				}
+			}
+		}
+	}
+
+	private static void unlock(Connection connection) throws SQLException {
+		try (PreparedStatement stmt = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+			stmt.setString(1, LOCK_NAME);
+			stmt.executeQuery().close();
+		}
+	}
+}
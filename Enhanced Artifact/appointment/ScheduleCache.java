@@ -0,0 +1,349 @@
+package appointment;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Cache of each consultant's appointments per day, used by availability checks
+// Kept current by applying every write made through AppointmentService instead of reloading the day
+// Capped by the total number of cached appointments, least recently used days are evicted first
+// Days hold immutable appointments with interned strings, plus a columnar DaySchedule for overlap checks
+// Strings are interned through a pool owned by this cache, like AppointmentCache
+public class ScheduleCache {
+
+	private final int maxAppointments;
+	private final long ttlNanos;
+	private final LinkedHashMap<DayKey, Day> days = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<String, DayKey> dayById = new HashMap<>();
+	private final InternPool pool; // About three strings per appointment, started over once full
+
+	// Total appointments held across all cached days
+	private int cachedAppointments;
+
+	// Bumped on every write, a load that started before a write is not cached
+	private long writeEpoch;
+
+	// Statistics
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	private static final Comparator<ImmutableAppointment> BY_TIME = Comparator
+			.comparingInt(ImmutableAppointment::getSecondOfDay);
+
+	// Consultant and date pair identifying one cached day
+	private static class DayKey {
+		private final String consultantName;
+		private final LocalDate date;
+
+		DayKey(String consultantName, LocalDate date) {
+			this.consultantName = consultantName;
+			this.date = date;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof DayKey)) {
+				return false;
+			}
+			DayKey key = (DayKey) other;
+			return consultantName.equals(key.consultantName) && date.equals(key.date);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(consultantName, date);
+		}
+	}
+
+	// One consultant-day, appointments sorted by start time
+	private static class Day {
+		private final List<ImmutableAppointment> appointments;
+		private final long expiresAt;
+		private DaySchedule schedule; // Built on first overlap check, dropped on every change to the day
+		private DayOccupancy occupancy; // Built on first free-slot query, bookings are applied in place
+
+		Day(List<ImmutableAppointment> appointments, long expiresAt) {
+			this.appointments = appointments;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	// Loads a consultant-day on a cache miss, e.g. the database lookup
+	@FunctionalInterface
+	public interface DayLoader {
+		List<Appointment> load(String consultantName, LocalDate date) throws SQLException;
+	}
+
+	// Constructor
+	// The time to live bounds how long changes made outside this service stay invisible
+	public ScheduleCache(int maxAppointments, Duration ttl) {
+		if (maxAppointments <= 0) {
+			throw new IllegalArgumentException("Cache capacity must be greater than zero.");
+		}
+		this.maxAppointments = maxAppointments;
+		this.ttlNanos = ttl.toNanos();
+		this.pool = new InternPool(Math.max(1024, 3 * maxAppointments));
+	}
+
+	// Read-through lookup of a consultant-day, returned sorted by start time
+	// The returned list is a read-only snapshot of copies and is not changed by later writes
+	public List<Appointment> get(String consultantName, LocalDate date, DayLoader loader) throws SQLException {
+		DayKey key = new DayKey(consultantName, date);
+		long epoch;
+		synchronized (this) {
+			Day day = days.get(key);
+			if (day != null) {
+				if (System.nanoTime() - day.expiresAt < 0) {
+					hits++;
+					return copies(day.appointments);
+				}
+				removeDay(key);
+			}
+			misses++;
+			epoch = writeEpoch;
+		}
+
+		// Load outside the lock so one slow query does not block other readers
+		List<ImmutableAppointment> loaded = new ArrayList<>();
+		for (Appointment appointment : loader.load(consultantName, date)) {
+			loaded.add(intern(appointment));
+		}
+		loaded.sort(BY_TIME);
+
+		synchronized (this) {
+			// Skip caching if a write happened while loading, the day may already be stale
+			if (epoch == writeEpoch && !days.containsKey(key)) {
+				days.put(key, new Day(loaded, System.nanoTime() + ttlNanos));
+				for (ImmutableAppointment appointment : loaded) {
+					dayById.put(appointment.getId(), key);
+				}
+				cachedAppointments += loaded.size();
+				evictToCapacity();
+			}
+		}
+		return copies(loaded);
+	}
+
+	// Read-through lookup of a consultant-day's columnar schedule
+	// The schedule is built once per version of the day and, being immutable, shared with every caller
+	public DaySchedule getSchedule(String consultantName, LocalDate date, DayLoader loader) throws SQLException {
+		synchronized (this) {
+			Day day = freshDay(new DayKey(consultantName, date));
+			if (day != null) {
+				return schedule(day);
+			}
+		}
+		return DaySchedule.of(get(consultantName, date, loader));
+	}
+
+	// Read-through lookup of a consultant-day's occupancy bitmap
+	// Returns a copy, so callers may book into it without touching the cache
+	public DayOccupancy getOccupancy(String consultantName, LocalDate date, DayLoader loader) throws SQLException {
+		synchronized (this) {
+			Day day = freshDay(new DayKey(consultantName, date));
+			if (day != null) {
+				if (day.occupancy == null) {
+					day.occupancy = DayOccupancy.of(schedule(day));
+				}
+				return day.occupancy.copy();
+			}
+		}
+		return DayOccupancy.of(get(consultantName, date, loader));
+	}
+
+	// Columnar schedule of a cached day, built on first use; caller holds the lock
+	private static DaySchedule schedule(Day day) {
+		if (day.schedule == null) {
+			day.schedule = DaySchedule.ofValues(day.appointments);
+		}
+		return day.schedule;
+	}
+
+	// Cached day if present and not expired, counted as a hit; caller holds the lock
+	private Day freshDay(DayKey key) {
+		Day day = days.get(key);
+		if (day != null && System.nanoTime() - day.expiresAt < 0) {
+			hits++;
+			return day;
+		}
+		return null;
+	}
+
+	// Copy of a cached appointment by id, null if its day is not cached
+	public synchronized Appointment find(String appointmentId) {
+		DayKey key = dayById.get(appointmentId);
+		if (key == null) {
+			return null;
+		}
+		for (ImmutableAppointment appointment : days.get(key).appointments) {
+			if (appointment.getId().equals(appointmentId)) {
+				return appointment.toAppointment();
+			}
+		}
+		return null;
+	}
+
+	// Apply a new appointment to its day if that day is cached
+	public synchronized void add(Appointment appointment) {
+		writeEpoch++;
+		DayKey key = new DayKey(appointment.getConsultantName(), appointment.getDate());
+		Day day = days.get(key);
+		if (day == null) {
+			return; // Day not cached, the next read loads it fresh
+		}
+		ImmutableAppointment cached = intern(appointment);
+		int index = Collections.binarySearch(day.appointments, cached, BY_TIME);
+		day.appointments.add(index < 0 ? -index - 1 : index, cached);
+		day.schedule = null;
+		if (day.occupancy != null) {
+			int start = DaySchedule.minuteOf(appointment.getTime());
+			day.occupancy.occupy(start, start + cached.getDuration());
+		}
+		dayById.put(cached.getId(), key);
+		cachedAppointments++;
+		evictToCapacity();
+	}
+
+	// Apply an edit, the appointment may have moved to another consultant or day
+	public synchronized void update(Appointment appointment) {
+		remove(appointment.getId());
+		add(appointment);
+	}
+
+	// Apply a new date and time to a cached appointment
+	// Returns false if the appointment is not cached, the caller must then supply it through update
+	public synchronized boolean move(String appointmentId, LocalDate newDate, LocalTime newTime) {
+		Appointment moved = find(appointmentId);
+		if (moved == null) {
+			return false;
+		}
+		moved.setDate(newDate);
+		moved.setTime(newTime);
+		update(moved);
+		return true;
+	}
+
+	// Apply a deletion
+	public synchronized void remove(String appointmentId) {
+		writeEpoch++;
+		DayKey key = dayById.remove(appointmentId);
+		if (key == null) {
+			return;
+		}
+		Day day = days.get(key);
+		Iterator<ImmutableAppointment> iterator = day.appointments.iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().getId().equals(appointmentId)) {
+				iterator.remove();
+				day.schedule = null;
+				day.occupancy = null; // Minutes may be shared with another appointment, rebuild on next read
+				cachedAppointments--;
+				break;
+			}
+		}
+	}
+
+	// Drop one consultant-day so it is reloaded on the next read
+	public synchronized void invalidate(String consultantName, LocalDate date) {
+		writeEpoch++;
+		DayKey key = new DayKey(consultantName, date);
+		if (days.containsKey(key)) {
+			removeDay(key);
+		}
+	}
+
+	// Drop every cached day
+	public synchronized void invalidateAll() {
+		writeEpoch++;
+		days.clear();
+		dayById.clear();
+		cachedAppointments = 0;
+	}
+
+	// Evict least recently used days until the appointment cap is met
+	private void evictToCapacity() {
+		// Iterate entries directly, get() on an access-ordered map would reorder it mid-iteration
+		Iterator<Map.Entry<DayKey, Day>> eldest = days.entrySet().iterator();
+		while (cachedAppointments > maxAppointments && eldest.hasNext()) {
+			Day day = eldest.next().getValue();
+			for (ImmutableAppointment appointment : day.appointments) {
+				dayById.remove(appointment.getId());
+			}
+			cachedAppointments -= day.appointments.size();
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	private void removeDay(DayKey key) {
+		Day day = days.remove(key);
+		for (ImmutableAppointment appointment : day.appointments) {
+			dayById.remove(appointment.getId());
+		}
+		cachedAppointments -= day.appointments.size();
+	}
+
+	// Immutable copy interned through this cache's pool, which starts over once full
+	private ImmutableAppointment intern(Appointment appointment) {
+		if (pool.size() >= pool.getCapacity()) {
+			pool.clear();
+		}
+		return ImmutableAppointment.builder(pool).from(appointment).build();
+	}
+
+	// Mutable copies of cached appointments so cached and caller objects are never shared
+	private static List<Appointment> copies(List<ImmutableAppointment> appointments) {
+		List<Appointment> copies = new ArrayList<>(appointments.size());
+		for (ImmutableAppointment appointment : appointments) {
+			copies.add(appointment.toAppointment());
+		}
+		return Collections.unmodifiableList(copies);
+	}
+
+	// Getters for statistics
+	public synchronized int getDayCount() {
+		return days.size();
+	}
+
+	public synchronized int getAppointmentCount() {
+		return cachedAppointments;
+	}
+
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	// Share of day lookups answered from the cache, 0 before the first lookup
+	public synchronized double getHitRatio() {
+		long total = hits + misses;
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ScheduleCache[days=" + days.size() + ", appointments=" + cachedAppointments + ", hits=" + hits
+				+ ", misses=" + misses + ", evictions=" + evictions + "]";
+	}
+}
@@ -0,0 +1,177 @@
+package appointment;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import appointment.Appointment.AppointmentStatus;
+
+// Optional write-behind queue for status and duration changes
+// Changes are buffered and written as JDBC batches in one transaction when batchSize distinct
+// appointments are pending or flushInterval has passed. Repeated changes to the same appointment
+// are coalesced so only the latest value is written. Each caller gets a future that completes once
+// its change is committed, or completes exceptionally if the batch fails
+// Writes go straight to the repository, so whoever caches or publishes changes passes a FlushListener,
+// e.g. AppointmentService::statusesAndDurationsWritten, which hears of each batch after it commits
+public class StatusWriteBehindQueue implements AutoCloseable {
+
+	private final AppointmentRepository appointmentRepository;
+	private final int batchSize;
+	private final FlushListener listener;
+	private final ScheduledExecutorService flusher; // Single thread, so flushes never overlap
+
+	private Map<String, PendingUpdate> pending = new LinkedHashMap<>();
+	private boolean closed;
+	private boolean flushScheduled; // A size-triggered flush is queued and not yet run
+
+	// Latest buffered changes of one appointment and everyone waiting on them
+	private static class PendingUpdate {
+		private AppointmentStatus status;
+		private Integer duration;
+		private final List<CompletableFuture<Void>> waiters = new ArrayList<>(1);
+	}
+
+	// Told about every committed batch, before the waiting futures complete
+	@FunctionalInterface
+	public interface FlushListener {
+		void flushed(Map<String, AppointmentStatus> statuses, Map<String, Integer> durations);
+	}
+
+	// Constructor
+	public StatusWriteBehindQueue(AppointmentRepository appointmentRepository, int batchSize,
+			Duration flushInterval) {
+		this(appointmentRepository, batchSize, flushInterval, (statuses, durations) -> {
+			// Nothing cached or published
+		});
+	}
+
+	// Constructor with a listener told about every committed batch
+	public StatusWriteBehindQueue(AppointmentRepository appointmentRepository, int batchSize,
+			Duration flushInterval, FlushListener listener) {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size must be greater than zero.");
+		}
+		this.appointmentRepository = appointmentRepository;
+		this.batchSize = batchSize;
+		this.listener = listener;
+		this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "appointment-write-behind");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long intervalMillis = flushInterval.toMillis();
+		flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	// Queue a status change, the future completes when it is committed
+	public CompletableFuture<Void> updateStatus(String appointmentId, AppointmentStatus status) {
+		return enqueue(appointmentId, status, null);
+	}
+
+	// Queue a duration change, the future completes when it is committed
+	public CompletableFuture<Void> updateDuration(String appointmentId, int duration) {
+		return enqueue(appointmentId, null, duration);
+	}
+
+	private synchronized CompletableFuture<Void> enqueue(String appointmentId, AppointmentStatus status,
+			Integer duration) {
+		if (closed) {
+			throw new IllegalStateException("Write-behind queue is closed.");
+		}
+		PendingUpdate update = pending.computeIfAbsent(appointmentId, id -> new PendingUpdate());
+		if (status != null) {
+			update.status = status;
+		}
+		if (duration != null) {
+			update.duration = duration;
+		}
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		update.waiters.add(future);
+
+		if (pending.size() >= batchSize && !flushScheduled) {
+			flushScheduled = true;
+			flusher.execute(this::flush);
+		}
+		return future;
+	}
+
+	// Number of appointments with buffered changes
+	public synchronized int getPendingCount() {
+		return pending.size();
+	}
+
+	// Write everything buffered so far; runs on the flusher thread or on close
+	private void flush() {
+		Map<String, PendingUpdate> batch;
+		synchronized (this) {
+			flushScheduled = false;
+			if (pending.isEmpty()) {
+				return;
+			}
+			batch = pending;
+			pending = new LinkedHashMap<>();
+		}
+
+		Map<String, AppointmentStatus> statuses = new LinkedHashMap<>();
+		Map<String, Integer> durations = new LinkedHashMap<>();
+		for (Map.Entry<String, PendingUpdate> entry : batch.entrySet()) {
+			if (entry.getValue().status != null) {
+				statuses.put(entry.getKey(), entry.getValue().status);
+			}
+			if (entry.getValue().duration != null) {
+				durations.put(entry.getKey(), entry.getValue().duration);
+			}
+		}
+
+		Exception failure = null;
+		try {
+			appointmentRepository.updateStatusesAndDurations(statuses, durations);
+		} catch (SQLException | RuntimeException e) {
+			// Never let an exception escape, it would cancel the periodic flush
+			failure = e;
+		}
+		if (failure == null) {
+			try {
+				listener.flushed(Collections.unmodifiableMap(statuses), Collections.unmodifiableMap(durations));
+			} catch (RuntimeException e) {
+				// The batch is committed, so the waiters still succeed
+				System.err.println("Write-behind listener failed: " + e);
+			}
+		}
+		for (PendingUpdate update : batch.values()) {
+			for (CompletableFuture<Void> waiter : update.waiters) {
+				if (failure == null) {
+					waiter.complete(null);
+				} else {
+					waiter.completeExceptionally(failure);
+				}
+			}
+		}
+	}
+
+	// Stop accepting changes, write everything still buffered and stop the flusher
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		flusher.shutdown();
+		try {
+			flusher.awaitTermination(30, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush(); // Anything queued after the last scheduled flush, still written when interrupted
+	}
+}
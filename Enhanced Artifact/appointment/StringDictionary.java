@@ -0,0 +1,56 @@
+package appointment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bounded table of frequent strings, e.g. consultant names and locations, shared by the encoder and
+// decoder of an AppointmentCodec so repeated strings are written as small ids
+// Ids are assigned on first use and never change, so both sides must use the same instance; the
+// table is not persisted, so it must not be used for data written to files
+public class StringDictionary {
+
+	private final int capacity;
+	private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+	private final List<String> strings = new ArrayList<>(); // Guarded by this
+
+	// Constructor, at most capacity strings receive ids
+	public StringDictionary(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Dictionary capacity must be greater than zero.");
+		}
+		this.capacity = capacity;
+	}
+
+	// Id of the string, assigning one if there is room; -1 once the dictionary is full
+	public int idOf(String value) {
+		Integer id = ids.get(value);
+		if (id != null) {
+			return id;
+		}
+		synchronized (this) {
+			id = ids.get(value);
+			if (id != null) {
+				return id;
+			}
+			if (strings.size() >= capacity) {
+				return -1;
+			}
+			strings.add(value);
+			ids.put(value, strings.size() - 1);
+			return strings.size() - 1;
+		}
+	}
+
+	// String with the given id
+	public synchronized String lookup(int id) {
+		if (id < 0 || id >= strings.size()) {
+			throw new IllegalArgumentException("Unknown dictionary id " + id);
+		}
+		return strings.get(id);
+	}
+
+	public synchronized int size() {
+		return strings.size();
+	}
+}
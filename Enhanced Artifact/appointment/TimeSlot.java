@@ -1,18 +1,40 @@
 package appointment;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
 
 public class TimeSlot {
+	private LocalDate date; // Day of the slot, null for slots within a single known day
 	private LocalTime start;
 	private LocalTime end;
 	// Constructor
 	public TimeSlot(LocalTime start, LocalTime end) {
+		this(null, start, end);
+	}
+	// Constructor for slots found across several days
+	public TimeSlot(LocalDate date, LocalTime start, LocalTime end) {
+		this.date = date;
 		this.start = start;
 		this.end = end;
 	}
+	// Getters
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public LocalTime getStart() {
+		return start;
+	}
+
+	public LocalTime getEnd() {
+		return end;
+	}
 	// Easy to read time frame
 	@Override
 	public String toString() {
+		if (date != null) {
+			return "Available on " + date + " from: " + start + " to " + end;
+		}
 		return "Available from: " + start + " to " + end;
 	}
 }
@@ -0,0 +1,62 @@
+package appointment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import appointment.AppointmentValidator.Violation;
+
+// Every violation found in one appointment, held as a bit mask of Violation codes
+// Mutable and meant to be reused: AppointmentValidator.validateAll clears and refills it, so one
+// instance per thread can check any number of appointments without allocating
+public class ValidationResult {
+	private int violations;
+
+	void set(int violations) {
+		this.violations = violations;
+	}
+
+	public boolean isValid() {
+		return violations == 0;
+	}
+
+	public boolean has(Violation violation) {
+		return (violations & violation.bit()) != 0;
+	}
+
+	// Number of distinct violations
+	public int getViolationCount() {
+		return Integer.bitCount(violations);
+	}
+
+	// Violations as a mask of Violation.bit() values, for storing or comparing without allocation
+	public int getViolationMask() {
+		return violations;
+	}
+
+	// Violations in check order, allocated on each call; meant for reporting
+	public List<Violation> getViolations() {
+		return violationsOf(violations);
+	}
+
+	// Message of each violation in check order, allocated on each call; meant for reporting
+	public List<String> getMessages() {
+		List<String> messages = new ArrayList<>();
+		for (Violation violation : violationsOf(violations)) {
+			messages.add(violation.getMessage());
+		}
+		return messages;
+	}
+
+	static List<Violation> violationsOf(int mask) {
+		List<Violation> violations = new ArrayList<>(Integer.bitCount(mask));
+		for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+			violations.add(Violation.first(remaining));
+		}
+		return violations;
+	}
+
+	@Override
+	public String toString() {
+		return isValid() ? "Valid" : "Invalid: " + getViolations();
+	}
+}
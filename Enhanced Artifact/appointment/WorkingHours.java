@@ -0,0 +1,32 @@
+package appointment;
+
+import java.time.LocalTime;
+
+// Daily working window of a consultant, start inclusive and end exclusive
+public class WorkingHours {
+	private final LocalTime start;
+	private final LocalTime end;
+
+	// Constructor
+	public WorkingHours(LocalTime start, LocalTime end) {
+		if (!start.isBefore(end)) {
+			throw new IllegalArgumentException("Working hours must start before they end.");
+		}
+		this.start = start;
+		this.end = end;
+	}
+
+	// Getters
+	public LocalTime getStart() {
+		return start;
+	}
+
+	public LocalTime getEnd() {
+		return end;
+	}
+
+	@Override
+	public String toString() {
+		return start + "-" + end;
+	}
+}
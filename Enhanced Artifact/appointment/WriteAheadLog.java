@@ -0,0 +1,117 @@
+package appointment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// One generation of the file store's write-ahead log
+// Records are appended as int payload length, int CRC32 of the payload, payload. Callers that need
+// durability call sync with the position append returned; concurrent callers share one fsync
+final class WriteAheadLog implements AutoCloseable {
+
+	private static final int HEADER_SIZE = 8;
+
+	private final FileChannel channel;
+	private final Object syncLock = new Object();
+	private long written; // Bytes appended, guarded by this
+	private volatile long synced; // Bytes known to be on disk
+
+	// Open the log for appending after its last valid record
+	WriteAheadLog(Path file, long validLength) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		if (channel.size() > validLength) {
+			// Drop a torn record left by a crash mid-append
+			channel.truncate(validLength);
+			channel.force(false);
+		}
+		channel.position(validLength);
+		written = validLength;
+		synced = validLength;
+	}
+
+	// Append one record, returns the log position just after it
+	synchronized long append(byte[] payload) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+		record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+		while (record.hasRemaining()) {
+			channel.write(record);
+		}
+		written += record.limit();
+		return written;
+	}
+
+	// Make sure everything up to the position is on disk
+	// Group commit: whoever takes the lock first forces every record appended so far, so the callers
+	// queued behind it usually find their records already synced
+	void sync(long position) throws IOException {
+		if (synced >= position) {
+			return;
+		}
+		synchronized (syncLock) {
+			if (synced >= position) {
+				return;
+			}
+			long target;
+			synchronized (this) {
+				target = written;
+			}
+			channel.force(false);
+			synced = target;
+		}
+	}
+
+	// Force every appended record, used by interval syncing
+	void syncAll() throws IOException {
+		long target;
+		synchronized (this) {
+			target = written;
+		}
+		sync(target);
+	}
+
+	synchronized long size() {
+		return written;
+	}
+
+	@Override
+	public void close() throws IOException {
+		syncAll();
+		channel.close();
+	}
+
+	// Pass each valid record's payload to the consumer in order, returns the length of the valid prefix
+	// Reading stops at the first incomplete or corrupt record, which can only be the torn tail of a crash
+	static long replay(Path file, Consumer<ByteBuffer> records) throws IOException {
+		try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = reader.size();
+			if (size == 0) {
+				return 0;
+			}
+			MappedByteBuffer log = reader.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			int position = 0;
+			while (position + HEADER_SIZE <= size) {
+				int length = log.getInt(position);
+				if (length < 0 || position + HEADER_SIZE + length > size) {
+					break;
+				}
+				ByteBuffer payload = log.slice(position + HEADER_SIZE, length);
+				CRC32 crc = new CRC32();
+				crc.update(payload.duplicate());
+				if ((int) crc.getValue() != log.getInt(position + 4)) {
+					break;
+				}
+				records.accept(payload);
+				position += HEADER_SIZE + length;
+			}
+			return position;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.AppointmentCache;
+
+public class AppointmentCacheTest {
+
+	private Map<String, Appointment> database;
+	private int loads;
+
+	// Set up a map standing in for the database, counting every load
+	@BeforeEach
+	public void setUp() {
+		database = new HashMap<>();
+		loads = 0;
+		for (int i = 1; i <= 3; i++) {
+			database.put("id-" + i, new Appointment("id-" + i, LocalDate.of(2025, 10, 15), LocalTime.of(8 + i, 0),
+					"Meeting room Office 2", "Bill Clientson", "John Doe", "Database Enhancements Consultation", 60,
+					ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED));
+		}
+	}
+
+	private Appointment load(String id) {
+		loads++;
+		return database.get(id);
+	}
+
+	// Test for a second lookup being served from the cache
+	@Test
+	public void testReadThroughHit() throws SQLException {
+		AppointmentCache cache = new AppointmentCache(10, Duration.ofMinutes(5));
+
+		cache.get("id-1", this::load);
+		Appointment cached = cache.get("id-1", this::load);
+
+		assertEquals("id-1", cached.getId());
+		assertEquals(1, loads, "Second lookup should not reach the loader.");
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0.5, cache.getHitRatio(), 0.0001);
+	}
+
+	// Test for the least recently used entry being evicted at capacity
+	@Test
+	public void testLruEviction() throws SQLException {
+		AppointmentCache cache = new AppointmentCache(2, Duration.ofMinutes(5));
+
+		cache.get("id-1", this::load);
+		cache.get("id-2", this::load);
+		cache.get("id-1", this::load); // id-2 is now least recently used
+		cache.get("id-3", this::load);
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		cache.get("id-2", this::load);
+		assertEquals(4, loads, "Evicted entry should be loaded again.");
+	}
+
+	// Test for invalidation forcing a reload of the changed row
+	@Test
+	public void testInvalidateReloads() throws SQLException {
+		AppointmentCache cache = new AppointmentCache(10, Duration.ofMinutes(5));
+		cache.get("id-1", this::load);
+
+		database.get("id-1").setStatus(AppointmentStatus.CANCELED);
+		cache.invalidate("id-1");
+
+		assertEquals(AppointmentStatus.CANCELED, cache.get("id-1", this::load).getStatus());
+		assertEquals(2, loads);
+	}
+
+	// Test for expired entries being loaded again
+	@Test
+	public void testTtlExpiry() throws SQLException {
+		AppointmentCache cache = new AppointmentCache(10, Duration.ZERO);
+
+		cache.get("id-1", this::load);
+		cache.get("id-1", this::load);
+
+		assertEquals(2, loads, "Expired entry should not be served.");
+	}
+
+	// Test for returned appointments being copies that cannot corrupt the cache
+	@Test
+	public void testReturnsDefensiveCopies() throws SQLException {
+		AppointmentCache cache = new AppointmentCache(10, Duration.ofMinutes(5));
+		cache.get("id-1", this::load);
+
+		Appointment first = cache.get("id-1", this::load);
+		first.setLocation("Changed by caller");
+		Appointment second = cache.get("id-1", this::load);
+
+		assertNotSame(first, second);
+		assertEquals("Meeting room Office 2", second.getLocation());
+	}
+
+	// Test for missing ids not being cached
+	@Test
+	public void testMissingIdNotCached() throws SQLException {
+		AppointmentCache cache = new AppointmentCache(10, Duration.ofMinutes(5));
+
+		assertNull(cache.get("missing", this::load));
+		assertEquals(0, cache.size());
+	}
+}
@@ -0,0 +1,100 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.AppointmentCodec;
+import appointment.StringDictionary;
+
+public class AppointmentCodecTest {
+
+	private static Appointment appointment(String id, LocalTime time, int duration, String description) {
+		return new Appointment(id, LocalDate.of(2030, 7, 1), time, "Office 1", "Client \u00dcnal", "Consultant1",
+				description, duration, ConsultationType.VIDEO, AppointmentStatus.CANCELED);
+	}
+
+	private static void assertSameAppointment(Appointment expected, Appointment actual) {
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getDate(), actual.getDate());
+		assertEquals(expected.getTime(), actual.getTime());
+		assertEquals(expected.getLocation(), actual.getLocation());
+		assertEquals(expected.getClientName(), actual.getClientName());
+		assertEquals(expected.getConsultantName(), actual.getConsultantName());
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(expected.getDuration(), actual.getDuration());
+		assertEquals(expected.getConsultationType(), actual.getConsultationType());
+		assertEquals(expected.getStatus(), actual.getStatus());
+	}
+
+	// Test for a UUID id packed into the fixed part, with the fixed fields readable in place
+	@Test
+	public void testRoundTripUuidId() {
+		AppointmentCodec codec = new AppointmentCodec();
+		Appointment original = appointment(UUID.randomUUID().toString(), LocalTime.of(13, 45), 60, null);
+
+		byte[] bytes = codec.encode(original);
+		assertTrue(bytes.length < 80, "Encoded size was " + bytes.length);
+		assertSameAppointment(original, codec.decode(ByteBuffer.wrap(bytes)));
+
+		ByteBuffer record = ByteBuffer.wrap(bytes);
+		assertEquals(LocalDate.of(2030, 7, 1), AppointmentCodec.date(record, 0));
+		assertEquals(13 * 60 + 45, AppointmentCodec.minuteOfDay(record, 0));
+		assertEquals(AppointmentStatus.CANCELED, AppointmentCodec.status(record, 0));
+	}
+
+	// Test for values outside the compact fields: free-form and upper-case ids, seconds, long durations
+	@Test
+	public void testRoundTripEdgeValues() {
+		AppointmentCodec codec = new AppointmentCodec();
+		String upperCaseUuid = UUID.randomUUID().toString().toUpperCase();
+		Appointment[] originals = { appointment("id-1", LocalTime.of(9, 0, 30), 45, "Notes"),
+				appointment(upperCaseUuid, LocalTime.of(23, 59), 40000, ""),
+				appointment("id-3", LocalTime.MIDNIGHT, -1, null) };
+
+		// Several records back to back in one direct buffer
+		ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+		for (Appointment original : originals) {
+			codec.encode(original, buffer);
+		}
+		buffer.flip();
+		for (Appointment original : originals) {
+			assertSameAppointment(original, codec.decode(buffer));
+		}
+		assertFalse(buffer.hasRemaining());
+	}
+
+	// Test for dictionary strings shrinking records that decode with the same dictionary
+	@Test
+	public void testDictionary() {
+		StringDictionary dictionary = new StringDictionary(2);
+		AppointmentCodec codec = new AppointmentCodec(dictionary);
+		Appointment original = appointment(UUID.randomUUID().toString(), LocalTime.of(10, 0), 30, "Long description");
+
+		byte[] plain = new AppointmentCodec().encode(original);
+		byte[] compact = codec.encode(original);
+		assertEquals(2, dictionary.size()); // Full after the first two strings, the rest stay inline
+		assertTrue(compact.length < plain.length);
+		assertSameAppointment(original, codec.decode(ByteBuffer.wrap(compact)));
+		assertThrows(IllegalArgumentException.class, () -> new AppointmentCodec().decode(ByteBuffer.wrap(compact)));
+	}
+
+	// Test for records of another format version being rejected
+	@Test
+	public void testUnknownVersion() {
+		byte[] bytes = new AppointmentCodec().encode(appointment("id-1", LocalTime.NOON, 30, null));
+		bytes[0] = (byte) (AppointmentCodec.VERSION + 1);
+		assertThrows(IllegalArgumentException.class, () -> new AppointmentCodec().decode(ByteBuffer.wrap(bytes)));
+	}
+}
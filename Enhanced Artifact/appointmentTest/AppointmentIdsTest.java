@@ -0,0 +1,63 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.AppointmentIds;
+
+public class AppointmentIdsTest {
+
+	// Test for ids increasing in creation order, as strings and as bytes, even within one millisecond
+	@Test
+	public void testIdsAreTimeOrdered() {
+		long before = System.currentTimeMillis();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			ids.add(AppointmentIds.next());
+		}
+
+		for (int i = 1; i < ids.size(); i++) {
+			assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "Ids out of order at " + i);
+			assertTrue(Arrays.compareUnsigned(AppointmentIds.toBinary(ids.get(i - 1)),
+					AppointmentIds.toBinary(ids.get(i))) < 0);
+		}
+		UUID uuid = UUID.fromString(ids.get(0));
+		assertEquals(7, uuid.version());
+		assertEquals(2, uuid.variant());
+		assertTrue(AppointmentIds.timestampOf(ids.get(0)) >= before);
+	}
+
+	// Test for the binary form reading back as the same id
+	@Test
+	public void testBinaryRoundTrip() {
+		String random = UUID.randomUUID().toString();
+		byte[] bytes = AppointmentIds.toBinary(random);
+		assertEquals(AppointmentIds.BINARY_LENGTH, bytes.length);
+		assertEquals(random, AppointmentIds.fromBinary(bytes));
+
+		UUID known = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+		assertArrayEquals(new byte[] { 0x01, (byte) 0x89, 0x0a, 0x5d, (byte) 0xac, (byte) 0x96, 0x77, 0x4b,
+				(byte) 0xbc, (byte) 0xce, (byte) 0xb3, 0x02, 0x09, (byte) 0x9a, (byte) 0x80, 0x57 },
+				AppointmentIds.toBinary(known.toString()));
+	}
+
+	// Test for ids that would not read back unchanged being rejected
+	@Test
+	public void testNonCanonicalIdsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> AppointmentIds.toBinary("id-1"));
+		assertThrows(IllegalArgumentException.class,
+				() -> AppointmentIds.toBinary(UUID.randomUUID().toString().toUpperCase()));
+		assertThrows(IllegalArgumentException.class, () -> AppointmentIds.fromBinary(new byte[8]));
+		assertThrows(IllegalArgumentException.class,
+				() -> AppointmentIds.timestampOf(UUID.randomUUID().toString()));
+	}
+}
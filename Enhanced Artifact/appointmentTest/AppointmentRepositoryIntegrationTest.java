@@ -10,8 +10,15 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Time;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -19,10 +26,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import appointment.Appointment;
+import appointment.AppointmentPage;
+import appointment.BatchInsertResult;
+import appointment.BookingResult;
+import appointment.DaySchedule;
 import appointment.HikariCPDataSource;
 import appointment.Appointment.AppointmentStatus;
 import appointment.Appointment.ConsultationType;
 import appointment.AppointmentRepository;
+import appointment.JdbcAppointmentRepository;
 
 class AppointmentRepositoryIntegrationTest {
 	private static Connection connection; // Sql.connection
@@ -34,7 +46,7 @@ class AppointmentRepositoryIntegrationTest {
 		// Set up connection
 		connection = HikariCPDataSource.getConnection();
 		// Initialize repository with connection
-		appointmentRepository = new AppointmentRepository(connection);
+		appointmentRepository = new JdbcAppointmentRepository(connection);
 		// Empty out database
 		tearDown();
 	}
@@ -179,4 +191,211 @@ class AppointmentRepositoryIntegrationTest {
 		}
 	}
 
+	// Test for bulk inserting appointments in batches with one invalid row
+	@Test
+	public void testSaveAppointmentsBatch() throws SQLException {
+		// Arrange: Build more rows than one batch holds, with one missing its status
+		List<Appointment> appointments = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			appointments.add(new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 15),
+					LocalTime.of(9, 0).plusMinutes(i * 15L), "Meeting room Office 2", "Bill Clientson", "John Doe",
+					"Database Enhancements Consultation", 15, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED));
+		}
+		appointments.get(7).setStatus(null);
+
+		// Act: Save the appointments in batches of 10
+		BatchInsertResult result = appointmentRepository.saveAppointments(appointments, 10);
+
+		// Assert: All but the invalid row were inserted
+		assertEquals(24, result.getInsertedCount(), "Valid rows should be inserted.");
+		assertEquals(1, result.getFailures().size(), "Invalid row should be reported.");
+		assertEquals(7, result.getFailures().get(0).getIndex(), "Failure should point at the invalid row.");
+
+		// Verify by querying the database
+		String query = "SELECT COUNT(*) FROM appointments WHERE consultantName = 'John Doe'";
+		try (PreparedStatement pstmt = connection.prepareStatement(query); ResultSet rs = pstmt.executeQuery()) {
+			assertTrue(rs.next());
+			assertEquals(24, rs.getInt(1), "Database should contain the inserted rows.");
+		}
+	}
+
+	// Test for streaming every appointment through the cursor visitor
+	@Test
+	public void testForEachAppointment() throws SQLException {
+		// Arrange: Insert a few appointments
+		List<Appointment> appointments = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			appointments.add(new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 15),
+					LocalTime.of(9 + i, 0), "Meeting room Office 2", "Bill Clientson", "John Doe",
+					"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED));
+		}
+		appointmentRepository.saveAppointments(appointments);
+
+		// Act: Stream the table, collecting ids
+		List<String> visitedIds = new ArrayList<>();
+		long count = appointmentRepository.forEachAppointment(appointment -> visitedIds.add(appointment.getId()));
+
+		// Assert: Every row is visited exactly once
+		assertEquals(5, count, "Visitor should see every row.");
+		assertEquals(5, visitedIds.size(), "Visitor should be called once per row.");
+		for (Appointment appointment : appointments) {
+			assertTrue(visitedIds.contains(appointment.getId()), "Streamed ids should match inserted ids.");
+		}
+	}
+
+	// Test for paging through a consultant's date window with keyset pagination
+	@Test
+	public void testGetAppointmentsByConsultantBetweenPaged() throws SQLException {
+		// Arrange: Insert one appointment per day for a week, plus one outside the window
+		List<Appointment> appointments = new ArrayList<>();
+		for (int day = 0; day < 7; day++) {
+			appointments.add(new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 13).plusDays(day),
+					LocalTime.of(9, 0), "Meeting room Office 2", "Bill Clientson", "John Doe",
+					"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED));
+		}
+		appointments.add(new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 25), LocalTime.of(9, 0),
+				"Meeting room Office 2", "Bill Clientson", "John Doe", "Database Enhancements Consultation", 60,
+				ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED));
+		appointmentRepository.saveAppointments(appointments);
+
+		// Act: Read the week in pages of 3
+		LocalDate from = LocalDate.of(2025, 10, 13);
+		LocalDate to = LocalDate.of(2025, 10, 19);
+		List<Appointment> collected = new ArrayList<>();
+		AppointmentPage page = appointmentRepository.getAppointmentsByConsultantBetween("John Doe", from, to, null, 3);
+		collected.addAll(page.getAppointments());
+		while (page.hasMore()) {
+			page = appointmentRepository.getAppointmentsByConsultantBetween("John Doe", from, to,
+					page.getNextCursor(), 3);
+			collected.addAll(page.getAppointments());
+		}
+
+		// Assert: Every day of the window is returned once, in date order
+		assertEquals(7, collected.size(), "Only appointments inside the window should be returned.");
+		for (int day = 0; day < 7; day++) {
+			assertEquals(from.plusDays(day), collected.get(day).getDate(), "Pages should be ordered by date.");
+		}
+	}
+
+	// Test for sharing one pooled repository between concurrent callers
+	@Test
+	public void testPooledRepositoryConcurrentSaves() throws Exception {
+		// Arrange: One repository instance backed by the pool, shared by every thread
+		AppointmentRepository pooledRepository = new JdbcAppointmentRepository(HikariCPDataSource.getDataSource());
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<Appointment>> futures = new ArrayList<>();
+
+		// Act: Save from many threads at once, more than the pool has connections
+		for (int i = 0; i < 50; i++) {
+			Appointment appointment = new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 15),
+					LocalTime.of(9, 0), "Meeting room Office 2", "Bill Clientson", "John Doe",
+					"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
+			futures.add(executor.submit(() -> pooledRepository.saveAppointment(appointment)));
+		}
+		for (Future<Appointment> future : futures) {
+			assertNotNull(future.get(), "Every concurrent save should succeed.");
+		}
+		executor.shutdown();
+
+		// Assert: Every row made it in
+		assertEquals(50, pooledRepository.getAllAppointments().size(), "All concurrent saves should be stored.");
+	}
+
+	// Test for the conflict-checked booking rejecting an overlapping slot
+	@Test
+	public void testBookAppointmentConflict() throws SQLException {
+		// Arrange: Book 9:00-10:00
+		Appointment first = new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 15),
+				LocalTime.of(9, 0), "Meeting room Office 2", "Bill Clientson", "John Doe",
+				"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
+		assertEquals(BookingResult.BOOKED, appointmentRepository.bookAppointment(first));
+
+		// Act: Try 9:30 (overlaps) and 10:00 (starts when the first ends)
+		Appointment overlapping = new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 15),
+				LocalTime.of(9, 30), "Meeting room Office 2", "Bill Clientson", "John Doe",
+				"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
+		Appointment adjacent = new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 15),
+				LocalTime.of(10, 0), "Meeting room Office 2", "Bill Clientson", "John Doe",
+				"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
+
+		// Assert: Overlap is rejected, edge-touching slot is accepted
+		assertEquals(BookingResult.CONFLICT, appointmentRepository.bookAppointment(overlapping));
+		assertEquals(BookingResult.BOOKED, appointmentRepository.bookAppointment(adjacent));
+		assertNull(appointmentRepository.getAppointmentById(overlapping.getId()), "Conflicting row should not exist.");
+
+		// Rescheduling the second onto the first is a conflict, a missing id is not found
+		assertEquals(BookingResult.CONFLICT,
+				appointmentRepository.rescheduleAppointment(adjacent.getId(), LocalDate.of(2025, 10, 15), LocalTime.of(9, 0)));
+		assertEquals(BookingResult.NOT_FOUND,
+				appointmentRepository.rescheduleAppointment("missing-id", LocalDate.of(2025, 10, 15), LocalTime.of(12, 0)));
+	}
+
+	// Test for completing past scheduled appointments with a set-based chunk
+	@Test
+	public void testCompletePastAppointments() throws SQLException {
+		// Arrange: One appointment ending before the cutoff, one after it
+		Appointment past = new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 15),
+				LocalTime.of(9, 0), "Meeting room Office 2", "Bill Clientson", "John Doe",
+				"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
+		Appointment future = new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 15),
+				LocalTime.of(11, 0), "Meeting room Office 2", "Bill Clientson", "John Doe",
+				"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
+		appointmentRepository.saveAppointment(past);
+		appointmentRepository.saveAppointment(future);
+
+		// Act: Complete everything that ended by 10:30
+		int completed = appointmentRepository.completePastAppointments(LocalDateTime.of(2025, 10, 15, 10, 30), 100);
+
+		// Assert: Only the appointment that ended is completed, and a rerun changes nothing
+		assertEquals(1, completed);
+		assertEquals(AppointmentStatus.COMPLETED, appointmentRepository.getAppointmentById(past.getId()).getStatus());
+		assertEquals(AppointmentStatus.SCHEDULED, appointmentRepository.getAppointmentById(future.getId()).getStatus());
+		assertEquals(0, appointmentRepository.completePastAppointments(LocalDateTime.of(2025, 10, 15, 10, 30), 100));
+	}
+
+	// Test for batched consultant reads keying rows by the requested spelling of a name
+	@Test
+	public void testGetAppointmentsByConsultantsBetweenDifferentCase() throws SQLException {
+		// Arrange: An appointment stored under "John Doe"
+		Appointment appointment = new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 15),
+				LocalTime.of(9, 0), "Meeting room Office 2", "Bill Clientson", "John Doe",
+				"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
+		appointmentRepository.saveAppointment(appointment);
+
+		// Act: Ask for the consultant with different casing
+		Map<String, List<Appointment>> byConsultant = appointmentRepository.getAppointmentsByConsultantsBetween(
+				List.of("john doe", "Jane Roe"), LocalDate.of(2025, 10, 15), LocalDate.of(2025, 10, 15));
+
+		// Assert: The row is filed under the requested name and no unrequested key appears
+		assertEquals(List.of("john doe", "Jane Roe"), new ArrayList<>(byConsultant.keySet()));
+		assertEquals(1, byConsultant.get("john doe").size());
+		assertEquals(appointment.getId(), byConsultant.get("john doe").get(0).getId());
+		assertTrue(byConsultant.get("Jane Roe").isEmpty());
+	}
+
+	// Test for the schedule slice returning the consultant-day's times and durations in start order
+	@Test
+	public void testGetScheduleSlice() throws SQLException {
+		LocalDate day = LocalDate.of(2025, 10, 15);
+		Appointment late = new Appointment(UUID.randomUUID().toString(), day, LocalTime.of(14, 0), "Office 1",
+				"Client1", "John Doe", "Afternoon", 90, ConsultationType.VIDEO, AppointmentStatus.CANCELED);
+		Appointment early = new Appointment(UUID.randomUUID().toString(), day, LocalTime.of(9, 30), "Office 1",
+				"Client2", "John Doe", "Morning", 30, ConsultationType.PHONE, AppointmentStatus.SCHEDULED);
+		Appointment otherConsultant = new Appointment(UUID.randomUUID().toString(), day, LocalTime.of(9, 0),
+				"Office 1", "Client3", "Jane Doe", null, 60, ConsultationType.PHONE, AppointmentStatus.SCHEDULED);
+		appointmentRepository.saveAppointment(late);
+		appointmentRepository.saveAppointment(early);
+		appointmentRepository.saveAppointment(otherConsultant);
+
+		DaySchedule slice = appointmentRepository.getScheduleSlice("John Doe", day);
+
+		assertEquals(2, slice.size(), "Only the consultant's appointments of the day should be read.");
+		assertEquals(early.getId(), slice.idAt(0));
+		assertEquals(9 * 60 + 30, slice.startAt(0));
+		assertEquals(30, slice.durationAt(0));
+		assertEquals(late.getId(), slice.idAt(1));
+		assertEquals(AppointmentStatus.CANCELED, slice.statusAt(1));
+		assertTrue(slice.overlaps(14 * 60 + 30, 15 * 60), "The afternoon appointment should block 14:30.");
+	}
+
 }
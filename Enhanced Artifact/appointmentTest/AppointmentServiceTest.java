@@ -7,7 +7,9 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +22,10 @@ import appointment.Appointment;
 import appointment.AppointmentRepository;
 import appointment.AppointmentService;
 import appointment.AppointmentValidator;
+import appointment.BookingResult;
+import appointment.ConsultantSlot;
+import appointment.TimeSlot;
+import appointment.WorkingHours;
 import appointment.Appointment.AppointmentStatus;
 import appointment.Appointment.ConsultationType;
 import security.User;
@@ -59,16 +65,14 @@ public class AppointmentServiceTest {
     public void testAddAppointmentSuccess() throws SQLException {
         // Mock the validator and repository functionality
         when(appointmentValidator.validate(appointment)).thenReturn(null);  // No validation error
-        when(appointmentRepository.getAppointmentsByConsultantAndDate(anyString(), any(LocalDate.class)))
-            .thenReturn(new ArrayList<>());  // No existing appointments
-        //doNothing().when(appointmentRepository).saveAppointment(any(Appointment.class)); // Class has optional type, cannot doNothing
+        when(appointmentRepository.bookAppointment(appointment)).thenReturn(BookingResult.BOOKED);  // No overlapping appointments
 
         // Perform service call
         String result = appointmentService.addAppointment(appointment);
 
         // Assertions - expect successful
         assertEquals("Appointment successfully scheduled.", result);
-        verify(appointmentRepository).saveAppointment(appointment);
+        verify(appointmentRepository).bookAppointment(appointment);
     }
 
 	@Test
@@ -82,6 +86,7 @@ public class AppointmentServiceTest {
         // Assertions - expect validation error
         assertEquals("Validation Error", result);
         verify(appointmentRepository, never()).saveAppointment(any(Appointment.class));  // Save should not be called
+        verify(appointmentRepository, never()).bookAppointment(any(Appointment.class));  // Booking should not be attempted
     }
 
 	@Test
@@ -89,14 +94,8 @@ public class AppointmentServiceTest {
         // Mock no validation errors but a time conflict with another appointment
         when(appointmentValidator.validate(appointment)).thenReturn(null);
         
-        // Simulate an existing appointment at the same time
-        List<Appointment> existingAppointments = new ArrayList<>();
-        existingAppointments.add(new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 10),
-				LocalTime.of(10, 0), "Meeting room Office 2", "Consultant1", "John Doe",
-				"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED));
-        
-        when(appointmentRepository.getAppointmentsByConsultantAndDate("Consultant1", LocalDate.of(2025, 10, 10)))
-            .thenReturn(existingAppointments);
+        // Simulate an existing appointment at the same time, the guarded insert reports a conflict
+        when(appointmentRepository.bookAppointment(appointment)).thenReturn(BookingResult.CONFLICT);
 
         // Perform the service call
         String result = appointmentService.addAppointment(appointment);
@@ -108,14 +107,9 @@ public class AppointmentServiceTest {
 
 	@Test
     public void testRescheduleAppointmentSuccess() throws SQLException {
-        // Mock existing appointment in repository
-        when(appointmentRepository.getAppointmentById(appointment.getId())).thenReturn(appointment);
-        
-        // Mock validator and repository functionality
-        when(appointmentValidator.validate(any(Appointment.class))).thenReturn(null);  // No validation error
-        when(appointmentRepository.getAppointmentsByConsultantAndDate(anyString(), any(LocalDate.class)))
-            .thenReturn(new ArrayList<>());  // No existing appointments at new time
-        doNothing().when(appointmentRepository).updateAppointment(any(Appointment.class));
+        // Mock repository functionality, no existing appointments at new time
+        when(appointmentRepository.rescheduleAppointment(appointment.getId(), LocalDate.of(2025, 10, 12), LocalTime.of(14, 0)))
+            .thenReturn(BookingResult.BOOKED);
 
         // Perform service call for rescheduling
         String result = appointmentService.rescheduleAppointment(appointment.getId(), LocalDate.of(2025, 10, 12), LocalTime.of(14, 0));
@@ -127,21 +121,9 @@ public class AppointmentServiceTest {
 
 	@Test
     public void testRescheduleAppointmentTimeConflict() throws SQLException {
-        // Mock existing appointment in the repository
-        when(appointmentRepository.getAppointmentById(appointment.getId())).thenReturn(appointment);
-        
-        // Mock no validation errors but a time conflict with another appointment
-        when(appointmentValidator.validate(any(Appointment.class))).thenReturn(null);
-        
-        // Simulate/mock an existing appointment at new requested time
-        // Returning a list of appointments similar to getAppointmentsByConsultantandDate
-        List<Appointment> conflictingAppointments = new ArrayList<>();
-        conflictingAppointments.add(new Appointment(UUID.randomUUID().toString(), LocalDate.of(2025, 10, 10),
-				LocalTime.of(14, 0), "Meeting room Office 2", "Consultant1", "John Doe",
-				"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED));
-        
-        when(appointmentRepository.getAppointmentsByConsultantAndDate("Consultant1", LocalDate.of(2025, 10, 10)))
-            .thenReturn(conflictingAppointments);
+        // Simulate/mock an existing appointment at new requested time, the guarded update reports a conflict
+        when(appointmentRepository.rescheduleAppointment(appointment.getId(), LocalDate.of(2025, 10, 10), LocalTime.of(14, 0)))
+            .thenReturn(BookingResult.CONFLICT);
 
         // Perform service call for rescheduling
         String result = appointmentService.rescheduleAppointment(appointment.getId(), LocalDate.of(2025, 10, 10), LocalTime.of(14, 0));
@@ -151,4 +133,90 @@ public class AppointmentServiceTest {
         verify(appointmentRepository, never()).updateAppointment(any(Appointment.class));  // Ensure update is not called
     }
 
+	@Test
+    public void testRescheduleAppointmentNotFound() throws SQLException {
+        // Simulate/mock a reschedule for an id that does not exist
+        when(appointmentRepository.rescheduleAppointment(anyString(), any(LocalDate.class), any(LocalTime.class)))
+            .thenReturn(BookingResult.NOT_FOUND);
+
+        // Perform service call for rescheduling
+        String result = appointmentService.rescheduleAppointment("missing-id", LocalDate.of(2025, 10, 12), LocalTime.of(14, 0));
+
+        // Assertions - appointment not found
+        assertEquals("Error: Appointment not found", result);
+    }
+
+	@Test
+    public void testFindNextAvailableSlot() throws SQLException {
+        // Simulate/mock a fully booked first day and a morning appointment on the second day
+        LocalDate firstDay = LocalDate.of(2025, 10, 10);
+        List<Appointment> booked = new ArrayList<>();
+        booked.add(new Appointment(UUID.randomUUID().toString(), firstDay, LocalTime.of(9, 0), "Office 1", "Client1",
+                "Consultant1", "Discussion", 300, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED));
+        booked.add(new Appointment(UUID.randomUUID().toString(), firstDay, LocalTime.of(14, 0), "Office 1", "Client2",
+                "Consultant1", "Discussion", 180, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED));
+        booked.add(new Appointment(UUID.randomUUID().toString(), firstDay.plusDays(1), LocalTime.of(9, 0), "Office 1",
+                "Client3", "Consultant1", "Discussion", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED));
+        when(appointmentRepository.getAppointmentsByConsultantBetween("Consultant1", firstDay, firstDay.plusDays(6)))
+            .thenReturn(booked);
+
+        // Perform service call for the first 90 minute slot within a week
+        TimeSlot slot = appointmentService.findNextAvailableSlot("Consultant1", 90, firstDay.atStartOfDay(), 7,
+                new WorkingHours(LocalTime.of(9, 0), LocalTime.of(17, 0)));
+
+        // Assertions - second day right after the morning appointment, found with one range query
+        assertEquals(firstDay.plusDays(1), slot.getDate());
+        assertEquals(LocalTime.of(10, 0), slot.getStart());
+        assertEquals(LocalTime.of(11, 30), slot.getEnd());
+        verify(appointmentRepository, never()).getAppointmentsByConsultantAndDate(anyString(), any(LocalDate.class));
+    }
+
+	@Test
+    public void testFindEarliestSlotsAcrossConsultants() throws SQLException {
+        // Simulate/mock one batched read: Consultant1 busy 9-11, Consultant2 busy 9-10
+        LocalDate day = LocalDate.of(2025, 10, 10);
+        Map<String, List<Appointment>> booked = new LinkedHashMap<>();
+        booked.put("Consultant1", List.of(new Appointment(UUID.randomUUID().toString(), day, LocalTime.of(9, 0),
+                "Office 1", "Client1", "Consultant1", "Discussion", 120, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED)));
+        booked.put("Consultant2", List.of(new Appointment(UUID.randomUUID().toString(), day, LocalTime.of(9, 0),
+                "Office 1", "Client2", "Consultant2", "Discussion", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED)));
+        List<String> consultants = List.of("Consultant1", "Consultant2");
+        when(appointmentRepository.getAppointmentsByConsultantsBetween(consultants, day, day)).thenReturn(booked);
+
+        // Perform service call for the two earliest 60 minute slots on that day
+        List<ConsultantSlot> slots = appointmentService.findEarliestSlots(consultants, 60, day.atStartOfDay(), 1,
+                new WorkingHours(LocalTime.of(9, 0), LocalTime.of(17, 0)), 2);
+
+        // Assertions - Consultant2 frees up first, then Consultant1
+        assertEquals(2, slots.size());
+        assertEquals("Consultant2", slots.get(0).getConsultantName());
+        assertEquals(LocalTime.of(10, 0), slots.get(0).getSlot().getStart());
+        assertEquals("Consultant1", slots.get(1).getConsultantName());
+        assertEquals(LocalTime.of(11, 0), slots.get(1).getSlot().getStart());
+    }
+
+	@Test
+    public void testFindCommonAvailability() throws SQLException {
+        // Simulate/mock one batched read: Consultant1 busy 9-11, Consultant2 busy 12-13:30
+        LocalDate day = LocalDate.of(2025, 10, 10);
+        Map<String, List<Appointment>> booked = new LinkedHashMap<>();
+        booked.put("Consultant1", List.of(new Appointment(UUID.randomUUID().toString(), day, LocalTime.of(9, 0),
+                "Office 1", "Client1", "Consultant1", "Discussion", 120, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED)));
+        booked.put("Consultant2", List.of(new Appointment(UUID.randomUUID().toString(), day, LocalTime.of(12, 0),
+                "Office 1", "Client2", "Consultant2", "Discussion", 90, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED)));
+        List<String> consultants = List.of("Consultant1", "Consultant2");
+        when(appointmentRepository.getAppointmentsByConsultantsBetween(consultants, day, day)).thenReturn(booked);
+
+        // Perform service call for common windows of at least 60 minutes
+        List<TimeSlot> windows = appointmentService.findCommonAvailability(consultants, day, day,
+                new WorkingHours(LocalTime.of(9, 0), LocalTime.of(17, 0)), 60);
+
+        // Assertions - 11:00-12:00 and 13:30-17:00 are free for both
+        assertEquals(2, windows.size());
+        assertEquals(LocalTime.of(11, 0), windows.get(0).getStart());
+        assertEquals(LocalTime.of(12, 0), windows.get(0).getEnd());
+        assertEquals(LocalTime.of(13, 30), windows.get(1).getStart());
+        assertEquals(LocalTime.of(17, 0), windows.get(1).getEnd());
+    }
+
 }
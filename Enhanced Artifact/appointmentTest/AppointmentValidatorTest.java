@@ -1,11 +1,20 @@
 package appointmentTest;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +24,9 @@ import appointment.Appointment;
 import appointment.Appointment.AppointmentStatus;
 import appointment.Appointment.ConsultationType;
 import appointment.AppointmentValidator;
+import appointment.AppointmentValidator.Violation;
+import appointment.BatchValidationResult;
+import appointment.ValidationResult;
 
 public class AppointmentValidatorTest {
 
@@ -24,7 +36,9 @@ public class AppointmentValidatorTest {
 	// Set up new validator with appointment
 	@BeforeEach
 	public void setUp() {
-		validator = new AppointmentValidator();
+		// Fixed clock so the appointment date below stays in the future
+		validator = new AppointmentValidator(Clock.fixed(LocalDate.of(2025, 10, 1).atStartOfDay()
+				.toInstant(ZoneOffset.UTC), ZoneId.of("UTC")));
 
 		// Create a default valid Appointment object
 		appointment = new Appointment("0393adc0-4333-413b-bf5b-a6cc250ab9ab", LocalDate.of(2025, 10, 15),
@@ -70,7 +84,7 @@ public class AppointmentValidatorTest {
 	// Test for valid date by using tomorrow
 	@Test
 	public void testValidateDate_Valid() {
-		appointment.setDate(LocalDate.now().plusDays(1)); // Valid future date
+		appointment.setDate(LocalDate.of(2025, 10, 2)); // Valid future date, day after the fixed clock
 
 		String result = validator.validate(appointment);
 		assertNull(result); // Expect no validation error
@@ -78,7 +92,7 @@ public class AppointmentValidatorTest {
 	// Test for invalid date using yesterday
 	@Test
 	public void testValidateDate_Invalid_LowerBoundExceeded() {
-		appointment.setDate(LocalDate.now().minusDays(1)); // Invalid past date
+		appointment.setDate(LocalDate.of(2025, 9, 30)); // Invalid past date, day before the fixed clock
 
 		String result = validator.validate(appointment);
 		assertNotNull(result); // Expect validation error
@@ -207,4 +221,85 @@ public class AppointmentValidatorTest {
 		assertEquals("Duration cannot be longer than 5 hours", result);
 	}
 
+	// Test for collecting every violation of an appointment instead of stopping at the first
+	@Test
+	public void testValidateAll_CollectsEveryViolation() {
+		appointment.setLocation("");
+		appointment.setDuration(999);
+		appointment.setStatus(null);
+
+		ValidationResult result = new ValidationResult();
+		assertSame(result, validator.validateAll(appointment, result));
+		assertFalse(result.isValid());
+		assertEquals(3, result.getViolationCount());
+		assertEquals(List.of(Violation.LOCATION_EMPTY, Violation.DURATION_TOO_LONG, Violation.STATUS_EMPTY),
+				result.getViolations());
+		assertEquals("Location cannot be empty.", result.getMessages().get(0));
+		// Legacy single-message validation still reports the first violation
+		assertEquals("Location cannot be empty.", validator.validate(appointment));
+
+		// Reusing the holder replaces the previous violations
+		validator.validateAll(createAppointment(LocalDate.of(2025, 10, 15)), result);
+		assertTrue(result.isValid());
+	}
+
+	// Test for today's date on the injected clock being valid
+	@Test
+	public void testValidateDate_TodayOnClock() {
+		appointment.setDate(LocalDate.of(2025, 10, 1));
+		assertNull(validator.validate(appointment));
+	}
+
+	// Test for batch validation reporting violations by position
+	@Test
+	public void testValidateAll_Batch() {
+		List<Appointment> batch = new LinkedList<>();
+		batch.add(createAppointment(LocalDate.of(2025, 10, 15)));
+		batch.add(createAppointment(LocalDate.of(2025, 9, 1)));
+		Appointment noClient = createAppointment(LocalDate.of(2025, 10, 15));
+		noClient.setClientName("");
+		noClient.setDuration(0);
+		batch.add(noClient);
+
+		BatchValidationResult result = validator.validateAll(batch);
+		assertEquals(3, result.size());
+		assertEquals(2, result.getInvalidCount());
+		assertTrue(result.isValid(0));
+		assertTrue(result.has(1, Violation.DATE_IN_PAST));
+		assertEquals(List.of(Violation.CLIENT_NAME_EMPTY, Violation.DURATION_NOT_POSITIVE), result.getViolations(2));
+		assertEquals(List.of(1, 2), result.getInvalidIndexes());
+		assertEquals(2, result.resultAt(2, new ValidationResult()).getViolationCount());
+	}
+
+	// Test for large batches, validated in parallel chunks, matching row-by-row validation
+	@Test
+	public void testValidateAll_LargeBatch() {
+		List<Appointment> batch = new ArrayList<>();
+		for (int i = 0; i < 25_000; i++) {
+			Appointment a = createAppointment(LocalDate.of(2025, 10, 15));
+			if (i % 7 == 0) {
+				a.setDuration(-1);
+			}
+			if (i % 11 == 0) {
+				a.setConsultantName(null);
+			}
+			batch.add(a);
+		}
+
+		BatchValidationResult result = validator.validateAll(batch);
+		assertEquals(25_000, result.size());
+		assertEquals(25_000 / 7 + 1, result.countOf(Violation.DURATION_NOT_POSITIVE));
+		assertEquals(25_000 / 11 + 1, result.countOf(Violation.CONSULTANT_NAME_EMPTY));
+		ValidationResult row = new ValidationResult();
+		for (int i = 0; i < batch.size(); i++) {
+			validator.validateAll(batch.get(i), row);
+			assertEquals(row.getViolationMask(), result.getViolationMask(i));
+		}
+	}
+
+	private static Appointment createAppointment(LocalDate date) {
+		return new Appointment(UUID.randomUUID().toString(), date, LocalTime.of(9, 0), "Meeting room Office 2",
+				"Bill Clientson", "John Doe", "Database Enhancements Consultation", 60, ConsultationType.IN_PERSON,
+				AppointmentStatus.SCHEDULED);
+	}
 }
@@ -0,0 +1,60 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.AppointmentService;
+import appointment.AsyncAppointmentService;
+
+public class AsyncAppointmentServiceTest {
+
+	// Service stand-in that records how many lookups run at the same time
+	private static class SlowService extends AppointmentService {
+		private final AtomicInteger running = new AtomicInteger();
+		private final AtomicInteger maxRunning = new AtomicInteger();
+
+		SlowService() {
+			super(null, null, null);
+		}
+
+		@Override
+		public Appointment getAppointmentById(String id) {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				running.decrementAndGet();
+			}
+			return null;
+		}
+	}
+
+	// Test for many in-flight calls never exceeding the concurrency limit
+	@Test
+	public void testBoundedConcurrency() throws Exception {
+		SlowService service = new SlowService();
+
+		try (AsyncAppointmentService asyncService = new AsyncAppointmentService(service, 3)) {
+			List<CompletableFuture<Appointment>> futures = new ArrayList<>();
+			for (int i = 0; i < 30; i++) {
+				futures.add(asyncService.getAppointmentByIdAsync("id-" + i));
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+			assertEquals(0, asyncService.getActiveCount());
+		}
+
+		assertTrue(service.maxRunning.get() <= 3, "At most 3 calls should run at once.");
+		assertTrue(service.maxRunning.get() > 1, "Calls should run concurrently.");
+	}
+}
@@ -0,0 +1,92 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.AutoCompleteJob;
+import appointment.InMemoryAppointmentRepository;
+
+public class AutoCompleteJobTest {
+
+	// Repository stand-in with a fixed number of past appointments left to complete
+	private static class CountingRepository extends InMemoryAppointmentRepository {
+		private int remaining;
+		private final List<LocalDateTime> cutoffs = new ArrayList<>();
+
+		CountingRepository(int remaining) {
+			this.remaining = remaining;
+		}
+
+		@Override
+		public int completePastAppointments(LocalDateTime cutoff, int chunkSize) {
+			cutoffs.add(cutoff);
+			int completed = Math.min(chunkSize, remaining);
+			remaining -= completed;
+			return completed;
+		}
+	}
+
+	// Test for a run completing everything in bounded chunks with one cutoff
+	@Test
+	public void testRunOnceChunks() throws Exception {
+		CountingRepository repository = new CountingRepository(25);
+		Clock clock = Clock.fixed(Instant.parse("2025-10-15T12:00:00Z"), ZoneOffset.UTC);
+		List<Integer> chunkSizes = new ArrayList<>();
+		AutoCompleteJob job = new AutoCompleteJob(repository, 10, Duration.ZERO, clock,
+				(chunk, inChunk, inRun) -> chunkSizes.add(inChunk));
+
+		long completed = job.runOnce();
+
+		assertEquals(25, completed);
+		assertEquals(List.of(10, 10, 5), chunkSizes, "Progress should be reported per chunk.");
+		assertEquals(1, repository.cutoffs.stream().distinct().count(), "Every chunk should use the same cutoff.");
+		assertEquals(LocalDateTime.of(2025, 10, 15, 12, 0), repository.cutoffs.get(0));
+	}
+
+	// Test for an exact multiple of the chunk size finishing with an empty chunk
+	@Test
+	public void testRunOnceExactMultiple() throws Exception {
+		CountingRepository repository = new CountingRepository(20);
+		AutoCompleteJob job = new AutoCompleteJob(repository, 10, Duration.ZERO, Clock.systemUTC(),
+				(chunk, inChunk, inRun) -> {
+				});
+
+		assertEquals(20, job.runOnce());
+		assertEquals(3, repository.cutoffs.size());
+	}
+
+	// Test for a run failing with an unchecked exception not stopping later scheduled runs
+	@Test
+	public void testScheduleSurvivesFailedRun() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch secondRun = new CountDownLatch(1);
+		InMemoryAppointmentRepository repository = new InMemoryAppointmentRepository() {
+			@Override
+			public int completePastAppointments(LocalDateTime cutoff, int chunkSize) {
+				if (calls.incrementAndGet() == 1) {
+					throw new IllegalStateException("First run fails");
+				}
+				secondRun.countDown();
+				return 0;
+			}
+		};
+
+		try (AutoCompleteJob job = new AutoCompleteJob(repository)) {
+			job.schedule(Duration.ofMillis(10));
+			assertTrue(secondRun.await(5, TimeUnit.SECONDS), "The job should run again after a failed run.");
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.ChangeEvent;
+import appointment.ChangeEvent.ChangeType;
+import appointment.ChangeLog;
+import appointment.ChangeLogReader;
+
+public class ChangeLogTest {
+
+	private static Appointment appointment(String id) {
+		return new Appointment(id, LocalDate.of(2030, 3, 4), LocalTime.of(9, 15), "Office 1", "Client1",
+				"Consultant1", null, 45, ConsultationType.VIDEO, AppointmentStatus.SCHEDULED);
+	}
+
+	private static long segmentCount(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+	// Test for events round-tripping through the log with increasing offsets across segment files
+	@Test
+	public void testAppendAndReadAcrossSegments() throws IOException {
+		Path directory = Files.createTempDirectory("changelog");
+		try (ChangeLog log = new ChangeLog(directory, 256, false)) {
+			for (int i = 0; i < 20; i++) {
+				ChangeEvent appended = log.append(ChangeEvent.added(appointment("id-" + i)));
+				assertEquals(i, appended.getOffset());
+			}
+			log.append(ChangeEvent.rescheduled("id-3", LocalDate.of(2030, 3, 5), LocalTime.of(14, 0)));
+			log.append(ChangeEvent.statusChanged("id-4", AppointmentStatus.CANCELED));
+			log.append(ChangeEvent.deleted("id-5"));
+		}
+		assertTrue(segmentCount(directory) > 1, "Small segments should roll over.");
+
+		List<ChangeEvent> events = new ArrayList<>();
+		try (ChangeLogReader reader = new ChangeLogReader(directory, 0)) {
+			assertEquals(23, reader.poll(100, events::add));
+			assertEquals(23, reader.getNextOffset());
+		}
+		Appointment first = events.get(0).getAppointment();
+		assertEquals("id-0", first.getId());
+		assertEquals(LocalTime.of(9, 15), first.getTime());
+		assertNull(first.getDescription());
+		assertEquals(ConsultationType.VIDEO, first.getConsultationType());
+		assertEquals(ChangeType.RESCHEDULED, events.get(20).getType());
+		assertEquals(LocalTime.of(14, 0), events.get(20).getNewTime());
+		assertEquals(AppointmentStatus.CANCELED, events.get(21).getNewStatus());
+		assertEquals("id-5", events.get(22).getAppointmentId());
+	}
+
+	// Test for a consumer resuming from a saved offset and picking up events appended later
+	@Test
+	public void testTailFromSavedOffset() throws IOException {
+		Path directory = Files.createTempDirectory("changelog");
+		try (ChangeLog log = new ChangeLog(directory, 256, false)) {
+			for (int i = 0; i < 10; i++) {
+				log.append(ChangeEvent.deleted("id-" + i));
+			}
+
+			List<ChangeEvent> events = new ArrayList<>();
+			try (ChangeLogReader reader = new ChangeLogReader(directory, 7)) {
+				assertEquals(3, reader.poll(100, events::add));
+				assertEquals(0, reader.poll(100, events::add));
+
+				log.append(ChangeEvent.deleted("id-10"));
+				assertEquals(1, reader.poll(100, events::add));
+				assertEquals(11, reader.getNextOffset());
+			}
+			assertEquals(7, events.get(0).getOffset());
+			assertEquals("id-10", events.get(3).getAppointmentId());
+		}
+	}
+
+	// Test for offsets continuing after reopening, with a torn tail record discarded
+	@Test
+	public void testRecoveryAfterReopen() throws IOException {
+		Path directory = Files.createTempDirectory("changelog");
+		try (ChangeLog log = new ChangeLog(directory, 4096, true)) {
+			log.append(ChangeEvent.deleted("id-0"));
+			log.append(ChangeEvent.deleted("id-1"));
+		}
+		// Simulate a crash mid-append: a length written over a payload that never arrived
+		Path segment = directory.resolve(String.format("%020d.log", 0));
+		ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+		int end = 0;
+		while (bytes.getInt(end) != 0) {
+			end += 16 + bytes.getInt(end);
+		}
+		bytes.putInt(end, 20);
+		Files.write(segment, bytes.array());
+
+		try (ChangeLog log = new ChangeLog(directory, 4096, true)) {
+			assertEquals(2, log.getNextOffset());
+			assertEquals(2, log.append(ChangeEvent.deleted("id-2")).getOffset());
+		}
+		List<ChangeEvent> events = new ArrayList<>();
+		try (ChangeLogReader reader = new ChangeLogReader(directory, 0)) {
+			assertEquals(3, reader.poll(100, events::add));
+		}
+		assertEquals("id-2", events.get(2).getAppointmentId());
+	}
+
+	// Test for a torn record whose length never arrived being cleared, not only skipped by its checksum
+	@Test
+	public void testRecoveryClearsTornRecord() throws IOException {
+		Path directory = Files.createTempDirectory("changelog");
+		try (ChangeLog log = new ChangeLog(directory, 4096, true)) {
+			log.append(ChangeEvent.deleted("id-0"));
+		}
+		// Simulate a crash before the length was written: checksum, offset and payload but a zero length
+		Path segment = directory.resolve(String.format("%020d.log", 0));
+		ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+		int end = 16 + bytes.getInt(0);
+		for (int i = end + 4; i < end + 64; i++) {
+			bytes.put(i, (byte) 0x5A);
+		}
+		Files.write(segment, bytes.array());
+
+		try (ChangeLog log = new ChangeLog(directory, 4096, true)) {
+			assertEquals(1, log.getNextOffset());
+		}
+		byte[] recovered = Files.readAllBytes(segment);
+		for (int i = end; i < recovered.length; i++) {
+			assertEquals(0, recovered[i]);
+		}
+	}
+
+	// Test for events larger than the record limit being rejected even when the segment could hold them
+	@Test
+	public void testOversizedEventRejected() throws IOException {
+		Path directory = Files.createTempDirectory("changelog");
+		try (ChangeLog log = new ChangeLog(directory, 4 * 1024 * 1024, false)) {
+			assertThrows(IllegalArgumentException.class, () -> log.append(ChangeEvent.deleted("x".repeat(1024 * 1024))));
+			assertEquals(0, log.append(ChangeEvent.deleted("id-0")).getOffset());
+		}
+	}
+}
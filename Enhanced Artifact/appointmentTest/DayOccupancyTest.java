@@ -0,0 +1,77 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.DayOccupancy;
+
+public class DayOccupancyTest {
+
+	private DayOccupancy occupancy;
+
+	// Set up a day booked 9:00-10:00 and 10:30-12:30, crossing word boundaries
+	@BeforeEach
+	public void setUp() {
+		List<Appointment> day = new ArrayList<>();
+		day.add(appointment(LocalTime.of(9, 0), 60));
+		day.add(appointment(LocalTime.of(10, 30), 120));
+		occupancy = DayOccupancy.of(day);
+	}
+
+	private Appointment appointment(LocalTime time, int duration) {
+		return new Appointment("id-" + time, LocalDate.of(2025, 10, 15), time, "Meeting room Office 2",
+				"Bill Clientson", "John Doe", "Database Enhancements Consultation", duration,
+				ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
+	}
+
+	// Test for free and booked ranges, including touching edges
+	@Test
+	public void testIsFree() {
+		assertTrue(occupancy.isFree(8 * 60, 9 * 60), "Ending when an appointment starts is allowed.");
+		assertFalse(occupancy.isFree(9 * 60 + 59, 10 * 60 + 10));
+		assertTrue(occupancy.isFree(10 * 60, 10 * 60 + 30), "Gap between appointments should be free.");
+		assertFalse(occupancy.isFree(0, 1440));
+		assertEquals(180, occupancy.occupiedMinutes());
+	}
+
+	// Test for walking free and booked runs
+	@Test
+	public void testNextFreeAndOccupied() {
+		assertEquals(9 * 60, occupancy.nextOccupied(0));
+		assertEquals(10 * 60, occupancy.nextFree(9 * 60));
+		assertEquals(10 * 60 + 30, occupancy.nextOccupied(10 * 60));
+		assertEquals(12 * 60 + 30, occupancy.nextFree(10 * 60 + 30));
+		assertEquals(DayOccupancy.MINUTES_PER_DAY, occupancy.nextOccupied(13 * 60));
+	}
+
+	// Test for the first free run long enough for a duration
+	@Test
+	public void testFirstFit() {
+		assertEquals(10 * 60, occupancy.firstFit(30, 9 * 60, 17 * 60));
+		assertEquals(12 * 60 + 30, occupancy.firstFit(45, 9 * 60, 17 * 60), "The 30 minute gap is too short.");
+		assertEquals(-1, occupancy.firstFit(60, 9 * 60, 12 * 60), "Nothing fits before noon.");
+	}
+
+	// Test for releasing a booking and clipping at midnight
+	@Test
+	public void testReleaseAndClipping() {
+		occupancy.release(9 * 60, 10 * 60);
+		assertTrue(occupancy.isFree(9 * 60, 10 * 60));
+
+		occupancy.occupy(23 * 60, 25 * 60);
+		assertEquals(60 + 120, occupancy.occupiedMinutes(), "Minutes past midnight should be clipped.");
+		assertEquals(DayOccupancy.MINUTES_PER_DAY, occupancy.nextFree(23 * 60));
+	}
+}
@@ -0,0 +1,172 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.DaySchedule;
+
+public class DayScheduleTest {
+
+	private static Appointment appointment(String id, LocalTime time, int duration, AppointmentStatus status) {
+		return new Appointment(id, LocalDate.of(2030, 7, 1), time, "Office 1", "Client1", "Consultant1", null,
+				duration, ConsultationType.PHONE, status);
+	}
+
+	// 08:00-12:00 (long, starts first), 09:00-09:30, 13:00-14:00; given out of order
+	private static DaySchedule schedule() {
+		return DaySchedule.of(List.of(appointment("b", LocalTime.of(9, 0), 30, AppointmentStatus.SCHEDULED),
+				appointment("c", LocalTime.of(13, 0), 60, AppointmentStatus.CANCELED),
+				appointment("a", LocalTime.of(8, 0), 240, AppointmentStatus.COMPLETED)));
+	}
+
+	// Test for the columns being sorted together by start minute
+	@Test
+	public void testSortedColumns() {
+		DaySchedule schedule = schedule();
+		assertEquals(3, schedule.size());
+		assertEquals("a", schedule.idAt(0));
+		assertEquals(480, schedule.startAt(0));
+		assertEquals(720, schedule.endAt(0));
+		assertEquals(AppointmentStatus.COMPLETED, schedule.statusAt(0));
+		assertEquals("b", schedule.idAt(1));
+		assertEquals(30, schedule.durationAt(1));
+		assertEquals("c", schedule.idAt(2));
+		assertEquals(AppointmentStatus.CANCELED, schedule.statusAt(2));
+	}
+
+	// Test for overlaps found through a long appointment that started earlier, with strict boundaries
+	@Test
+	public void testOverlaps() {
+		DaySchedule schedule = schedule();
+		assertTrue(schedule.overlaps(660, 690)); // Inside 08:00-12:00 only
+		assertFalse(schedule.overlaps(720, 780)); // Starts when 08:00-12:00 ends, ends when 13:00 starts
+		assertFalse(schedule.overlaps(660, 690, "a"));
+		assertTrue(schedule.overlaps(540, 560, "a")); // Still overlaps 09:00-09:30
+		assertFalse(DaySchedule.of(List.of()).overlaps(0, 1440));
+	}
+
+	// 09:00-10:00, 10:30-12:30 (long), 11:00-11:30; added out of order
+	private static DaySchedule overlapDay() {
+		return DaySchedule.builder().add("late", 660, 30, AppointmentStatus.SCHEDULED)
+				.add("early", 540, 60, AppointmentStatus.SCHEDULED).add("long", 630, 120, AppointmentStatus.SCHEDULED)
+				.build();
+	}
+
+	private static List<String> overlapIds(DaySchedule schedule, int startMinute, int endMinute) {
+		List<String> ids = new ArrayList<>();
+		for (int position : schedule.findOverlaps(startMinute, endMinute)) {
+			ids.add(schedule.idAt(position));
+		}
+		return ids;
+	}
+
+	// Test for overlaps found after a shorter appointment that starts later has ended
+	@Test
+	public void testOverlapsPastShorterAppointment() {
+		DaySchedule schedule = overlapDay();
+		assertTrue(schedule.overlaps(570, 600));
+		assertFalse(schedule.overlaps(600, 630));
+		assertTrue(schedule.overlaps(720, 780)); // Only "long" is still running
+		assertFalse(schedule.overlaps(780, 840));
+		assertFalse(schedule.overlaps(480, 540)); // Ends when "early" starts
+		assertFalse(schedule.overlaps(750, 780)); // Starts when "long" ends
+		assertFalse(schedule.overlaps(540, 600, "early"));
+		assertTrue(schedule.overlaps(660, 690, "late")); // Still inside "long"
+	}
+
+	// Test for the overlapping positions listed in start order
+	@Test
+	public void testFindOverlaps() {
+		DaySchedule schedule = overlapDay();
+		assertEquals(List.of("long", "late"), overlapIds(schedule, 675, 720));
+		assertEquals(List.of("long"), overlapIds(schedule, 720, 780));
+		assertEquals(List.of("early", "long", "late"), overlapIds(schedule, 540, 700));
+		assertEquals(List.of(), overlapIds(schedule, 600, 630));
+		assertEquals(0, DaySchedule.of(List.of()).findOverlaps(0, 1440).length);
+	}
+
+	// Test for the indexed overlap queries agreeing with a scan of every appointment
+	@Test
+	public void testOverlapsMatchScan() {
+		DaySchedule.Builder builder = DaySchedule.builder();
+		for (int i = 0; i < 37; i++) {
+			builder.add("id" + i, (i * 53) % 600 + 420, (i * 29) % 7 == 0 ? 300 : (i * 17) % 45 + 5,
+					AppointmentStatus.SCHEDULED);
+		}
+		DaySchedule schedule = builder.build();
+		for (int start = 400; start < 1100; start += 7) {
+			for (int length = 1; length < 90; length += 11) {
+				int end = start + length;
+				List<String> expected = new ArrayList<>();
+				for (int i = 0; i < schedule.size(); i++) {
+					if (schedule.startAt(i) < end && schedule.endAt(i) > start) {
+						expected.add(schedule.idAt(i));
+					}
+				}
+				assertEquals(expected, overlapIds(schedule, start, end));
+				assertEquals(!expected.isEmpty(), schedule.overlaps(start, end));
+				if (!expected.isEmpty()) {
+					assertEquals(expected.size() > 1, schedule.overlaps(start, end, expected.get(0)));
+				}
+			}
+		}
+	}
+
+	// Test for gap extraction inside the working hours
+	@Test
+	public void testGaps() {
+		DaySchedule schedule = schedule();
+		assertEquals(420, schedule.firstFit(60, 420, 1020)); // Exactly fills the hour before 08:00
+		assertEquals(720, schedule.firstFit(60, 481, 1020)); // Starts inside 08:00-12:00
+		assertEquals(840, schedule.firstFit(90, 600, 1020));
+		assertEquals(-1, schedule.firstFit(200, 600, 1020));
+
+		List<int[]> gaps = new ArrayList<>();
+		int visited = schedule.forEachGap(420, 1020, 30, (start, end) -> gaps.add(new int[] { start, end }));
+		assertEquals(3, visited);
+		assertEquals(420, gaps.get(0)[0]);
+		assertEquals(480, gaps.get(0)[1]);
+		assertEquals(720, gaps.get(1)[0]);
+		assertEquals(780, gaps.get(1)[1]);
+		assertEquals(840, gaps.get(2)[0]);
+		assertEquals(1020, gaps.get(2)[1]);
+	}
+
+	// Test for a schedule built column by column matching one built from appointments
+	@Test
+	public void testBuilder() {
+		DaySchedule built = DaySchedule.builder().add("c", 780, 60, AppointmentStatus.CANCELED)
+				.add("a", 480, 240, AppointmentStatus.COMPLETED).add("b", 540, 30, AppointmentStatus.SCHEDULED).build();
+		DaySchedule expected = schedule();
+		assertEquals(expected.size(), built.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.idAt(i), built.idAt(i));
+			assertEquals(expected.startAt(i), built.startAt(i));
+			assertEquals(expected.endAt(i), built.endAt(i));
+			assertEquals(expected.statusAt(i), built.statusAt(i));
+		}
+		assertEquals(0, DaySchedule.builder().build().size());
+	}
+
+	// Test for packed interval keys ordering by start, then end
+	@Test
+	public void testPackedIntervals() {
+		long early = DaySchedule.packInterval(540, 600);
+		long late = DaySchedule.packInterval(600, 610);
+		assertTrue(early < late);
+		assertTrue(DaySchedule.packInterval(540, 560) < early);
+		assertEquals(540, DaySchedule.startOf(early));
+		assertEquals(600, DaySchedule.endOf(early));
+	}
+}
@@ -0,0 +1,186 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.BookingResult;
+import appointment.FileAppointmentRepository;
+
+public class FileAppointmentRepositoryTest {
+
+	private static final LocalDate DAY = LocalDate.of(2030, 6, 3);
+
+	private static Appointment appointment(String id, String consultantName, LocalTime time) {
+		return new Appointment(id, DAY, time, "Office 1", "Client1", consultantName, null, 30,
+				ConsultationType.PHONE, AppointmentStatus.SCHEDULED);
+	}
+
+	private static List<String> logFiles(Path directory) throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(file -> file.getFileName().toString()).filter(name -> name.startsWith("wal-")).toList();
+		}
+	}
+
+	// Test for writes surviving a restart through log replay alone
+	@Test
+	public void testReopenReplaysLog() throws Exception {
+		Path directory = Files.createTempDirectory("appointments");
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			repository.saveAppointment(appointment("id-1", "Consultant1", LocalTime.of(9, 0)));
+			repository.saveAppointment(appointment("id-2", "Consultant1", LocalTime.of(10, 0)));
+			repository.saveAppointment(appointment("id-3", "Consultant2", LocalTime.of(9, 0)));
+			repository.rescheduleAppointment("id-1", DAY.plusDays(1), LocalTime.of(11, 0));
+			repository.updateStatusesAndDurations(Map.of("id-2", AppointmentStatus.CANCELED), Map.of("id-2", 45));
+			repository.deleteAppointment("id-3");
+		}
+
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			assertEquals(2, repository.getAllAppointments().size());
+			assertEquals(DAY.plusDays(1), repository.getAppointmentById("id-1").getDate());
+			assertEquals(AppointmentStatus.CANCELED, repository.getAppointmentById("id-2").getStatus());
+			assertEquals(45, repository.getAppointmentById("id-2").getDuration());
+			assertNull(repository.getAppointmentById("id-3"));
+			assertNull(repository.getAppointmentById("id-2").getDescription());
+		}
+	}
+
+	// Test for a rejected set of changes leaving memory and log untouched, with the store still writable
+	@Test
+	public void testRejectedBatchChangesNothing() throws Exception {
+		Path directory = Files.createTempDirectory("appointments");
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			repository.saveAppointment(appointment("id-1", "Consultant1", LocalTime.of(9, 0)));
+			repository.saveAppointment(appointment("id-2", "Consultant1", LocalTime.of(10, 0)));
+			Map<String, AppointmentStatus> statuses = new HashMap<>();
+			statuses.put("id-1", AppointmentStatus.CANCELED);
+			statuses.put("id-2", null);
+
+			assertThrows(SQLException.class, () -> repository.updateStatusesAndDurations(statuses, Map.of()));
+			assertEquals(AppointmentStatus.SCHEDULED, repository.getAppointmentById("id-1").getStatus());
+			repository.updateAppointmentStatus("id-2", AppointmentStatus.COMPLETED);
+		}
+
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			assertEquals(AppointmentStatus.SCHEDULED, repository.getAppointmentById("id-1").getStatus());
+			assertEquals(AppointmentStatus.COMPLETED, repository.getAppointmentById("id-2").getStatus());
+		}
+	}
+
+	// Test for a checkpoint replacing the old log, with later writes replayed on top of the snapshot
+	@Test
+	public void testCheckpointThenReopen() throws Exception {
+		Path directory = Files.createTempDirectory("appointments");
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			for (int i = 0; i < 50; i++) {
+				repository.saveAppointment(appointment("id-" + i, "Consultant" + (i % 5), LocalTime.of(8, i)));
+			}
+			repository.checkpoint();
+			repository.deleteAppointment("id-0");
+			repository.updateAppointmentDuration("id-1", 90);
+		}
+		assertEquals(List.of("wal-00000000000000000001.log"), logFiles(directory));
+
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			assertEquals(49, repository.getAllAppointments().size());
+			assertNull(repository.getAppointmentById("id-0"));
+			assertEquals(90, repository.getAppointmentById("id-1").getDuration());
+			assertEquals(10, repository.getAppointmentsByConsultantAndDate("Consultant2", DAY).size());
+		}
+	}
+
+	// Test for a snapshot larger than the write buffer loading every day in time order, still conflict-checked
+	@Test
+	public void testLargeSnapshotLoadsSortedDays() throws Exception {
+		Path directory = Files.createTempDirectory("appointments");
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			for (int i = 0; i < 3000; i++) {
+				// Saved latest first within each consultant-day
+				repository.saveAppointment(
+						appointment("id-" + i, "Consultant" + (i % 10), LocalTime.of(23 - i / 200, 0)));
+			}
+			repository.checkpoint();
+		}
+		assertTrue(Files.size(directory.resolve("appointments.snapshot")) > 64 * 1024);
+
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			assertEquals(3000, repository.getAllAppointments().size());
+			List<Appointment> day = repository.getAppointmentsByConsultantAndDate("Consultant3", DAY);
+			assertEquals(300, day.size());
+			for (int i = 1; i < day.size(); i++) {
+				assertTrue(!day.get(i).getTime().isBefore(day.get(i - 1).getTime()), "Day should be in time order.");
+			}
+			assertEquals(BookingResult.CONFLICT,
+					repository.bookAppointment(appointment("new", "Consultant3", LocalTime.of(9, 15))));
+			assertEquals(BookingResult.BOOKED,
+					repository.bookAppointment(appointment("new", "Consultant3", LocalTime.of(6, 0))));
+		}
+	}
+
+	// Test for recovery discarding a record torn by a crash and appending after the last good record
+	@Test
+	public void testTornTailIsDiscarded() throws Exception {
+		Path directory = Files.createTempDirectory("appointments");
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			repository.saveAppointment(appointment("id-1", "Consultant1", LocalTime.of(9, 0)));
+		}
+		// Header of a record whose payload never reached the disk
+		Files.write(directory.resolve(logFiles(directory).get(0)), new byte[] { 0, 0, 0, 40, 1, 2, 3, 4, 1 },
+				StandardOpenOption.APPEND);
+
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			assertEquals(1, repository.getAllAppointments().size());
+			repository.saveAppointment(appointment("id-2", "Consultant1", LocalTime.of(10, 0)));
+		}
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			assertEquals(2, repository.getAllAppointments().size());
+		}
+	}
+
+	// Test for concurrent writers sharing fsyncs with every booking durable, and a background checkpoint
+	@Test
+	public void testConcurrentBookingsWithAutomaticCheckpoint() throws Exception {
+		Path directory = Files.createTempDirectory("appointments");
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory, Duration.ZERO, 4096)) {
+			ExecutorService executor = Executors.newFixedThreadPool(8);
+			List<Future<BookingResult>> results = new ArrayList<>();
+			for (int consultant = 0; consultant < 8; consultant++) {
+				for (int slot = 0; slot < 25; slot++) {
+					Appointment appointment = appointment("id-" + consultant + "-" + slot, "Consultant" + consultant,
+							LocalTime.of(8, 0).plusMinutes(30L * slot));
+					results.add(executor.submit(() -> repository.bookAppointment(appointment)));
+				}
+			}
+			for (Future<BookingResult> result : results) {
+				assertEquals(BookingResult.BOOKED, result.get());
+			}
+			executor.shutdown();
+		}
+
+		try (FileAppointmentRepository repository = new FileAppointmentRepository(directory)) {
+			assertEquals(200, repository.getAllAppointments().size());
+		}
+	}
+}
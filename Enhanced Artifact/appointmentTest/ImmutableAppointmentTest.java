@@ -0,0 +1,99 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.ImmutableAppointment;
+import appointment.InternPool;
+
+public class ImmutableAppointmentTest {
+
+	// Test for converting to an immutable value and back without losing any field
+	@Test
+	public void testRoundTrip() {
+		Appointment original = new Appointment("id-1", LocalDate.of(2030, 7, 1), LocalTime.of(9, 15, 30), "Office 1",
+				"Client1", "Consultant1", "Notes", 45, ConsultationType.VIDEO, AppointmentStatus.SCHEDULED);
+
+		ImmutableAppointment value = ImmutableAppointment.from(original);
+		Appointment copy = value.toAppointment();
+		assertNotSame(original, copy);
+		assertEquals("id-1", copy.getId());
+		assertEquals(LocalDate.of(2030, 7, 1), copy.getDate());
+		assertEquals(LocalTime.of(9, 15, 30), copy.getTime());
+		assertEquals("Office 1", copy.getLocation());
+		assertEquals("Client1", copy.getClientName());
+		assertEquals("Consultant1", copy.getConsultantName());
+		assertEquals("Notes", copy.getDescription());
+		assertEquals(45, copy.getDuration());
+		assertEquals(ConsultationType.VIDEO, copy.getConsultationType());
+		assertEquals(AppointmentStatus.SCHEDULED, copy.getStatus());
+		assertEquals(value, ImmutableAppointment.from(copy));
+
+		// Missing values stay missing
+		ImmutableAppointment empty = ImmutableAppointment.builder().id("id-2").build();
+		assertNull(empty.getDate());
+		assertNull(empty.getTime());
+		assertNull(empty.toAppointment().getConsultantName());
+	}
+
+	// Test for derived copies leaving the original unchanged
+	@Test
+	public void testWithers() {
+		ImmutableAppointment value = ImmutableAppointment.builder().id("id-1").date(LocalDate.of(2030, 7, 1))
+				.time(LocalTime.of(9, 0)).consultantName("Consultant1").duration(30).status(AppointmentStatus.SCHEDULED)
+				.build();
+
+		ImmutableAppointment canceled = value.withStatus(AppointmentStatus.CANCELED);
+		ImmutableAppointment moved = value.withDateTime(LocalDate.of(2030, 7, 2), LocalTime.of(11, 0));
+		assertEquals(AppointmentStatus.SCHEDULED, value.getStatus());
+		assertEquals(AppointmentStatus.CANCELED, canceled.getStatus());
+		assertEquals(LocalDate.of(2030, 7, 1), value.getDate());
+		assertEquals(LocalDate.of(2030, 7, 2), moved.getDate());
+		assertEquals(11 * 3600, moved.getSecondOfDay());
+		assertEquals("Consultant1", moved.getConsultantName());
+	}
+
+	// Test for repeated dimension values sharing one instance until the pool is full
+	@Test
+	public void testInterning() {
+		InternPool pool = new InternPool(2);
+		ImmutableAppointment first = ImmutableAppointment.builder(pool).id("id-1")
+				.consultantName(new String("Consultant1")).location(new String("Office 1")).build();
+		ImmutableAppointment second = ImmutableAppointment.builder(pool).id("id-2")
+				.consultantName(new String("Consultant1")).location(new String("Office 1"))
+				.clientName(new String("Client1")).build();
+		ImmutableAppointment third = ImmutableAppointment.builder(pool).id("id-3").clientName(new String("Client1"))
+				.build();
+
+		assertSame(first.getConsultantName(), second.getConsultantName());
+		assertSame(first.getLocation(), second.getLocation());
+		assertEquals(2, pool.size()); // Full, the client names were not pooled
+		assertNotSame(second.getClientName(), third.getClientName());
+		assertEquals(second.getClientName(), third.getClientName());
+	}
+
+	// Test for derived copies interning through the pool of the value they come from
+	@Test
+	public void testDerivedCopiesKeepPool() {
+		InternPool pool = new InternPool(16);
+		ImmutableAppointment value = ImmutableAppointment.builder(pool).id("id-1").clientName(new String("Client1"))
+				.build();
+
+		ImmutableAppointment canceled = value.withStatus(AppointmentStatus.CANCELED);
+		ImmutableAppointment renamed = value.toBuilder().clientName(new String("Client2")).build();
+		assertSame(value.getClientName(), canceled.getClientName());
+		assertEquals(2, pool.size()); // Client2 went into the same pool, not the shared one
+		assertSame(renamed.getClientName(),
+				ImmutableAppointment.builder(pool).clientName(new String("Client2")).build().getClientName());
+	}
+}
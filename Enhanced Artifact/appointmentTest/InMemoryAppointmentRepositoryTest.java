@@ -0,0 +1,180 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.AppointmentPage;
+import appointment.BookingResult;
+import appointment.InMemoryAppointmentRepository;
+
+public class InMemoryAppointmentRepositoryTest {
+
+	private static final LocalDate DAY = LocalDate.of(2030, 5, 6);
+
+	private static Appointment appointment(String id, String consultantName, LocalDate date, LocalTime time,
+			int duration) {
+		return new Appointment(id, date, time, "Office 1", "Client1", consultantName, "Discussion", duration,
+				ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
+	}
+
+	// Test for saves, lookups by id and by consultant-day, updates and deletes
+	@Test
+	public void testCrud() throws SQLException {
+		InMemoryAppointmentRepository repository = new InMemoryAppointmentRepository();
+		Appointment appointment = appointment("id-1", "Consultant1", DAY, LocalTime.of(10, 0), 60);
+		repository.saveAppointment(appointment);
+
+		// Stored copies are not affected by the caller's object
+		appointment.setLocation("Changed");
+		assertEquals("Office 1", repository.getAppointmentById("id-1").getLocation());
+		assertThrows(SQLException.class, () -> repository.saveAppointment(appointment));
+
+		appointment.setDate(DAY.plusDays(1));
+		assertTrue(repository.updateAppointment(appointment));
+		assertTrue(repository.getAppointmentsByConsultantAndDate("Consultant1", DAY).isEmpty());
+		assertEquals("Changed",
+				repository.getAppointmentsByConsultantAndDate("Consultant1", DAY.plusDays(1)).get(0).getLocation());
+
+		assertTrue(repository.updateAppointmentStatus("id-1", AppointmentStatus.CANCELED));
+		assertTrue(repository.deleteAppointment("id-1"));
+		assertFalse(repository.deleteAppointment("id-1"));
+		assertNull(repository.getAppointmentById("id-1"));
+		// Unknown ids report that nothing changed
+		assertFalse(repository.updateAppointment(appointment));
+		assertFalse(repository.updateAppointmentStatus("id-1", AppointmentStatus.CANCELED));
+		assertEquals(0, repository.getAllAppointments().size());
+	}
+
+	// Test for conflict-checked booking and rescheduling with touching slots allowed
+	@Test
+	public void testBookAndReschedule() throws SQLException {
+		InMemoryAppointmentRepository repository = new InMemoryAppointmentRepository();
+		assertEquals(BookingResult.BOOKED,
+				repository.bookAppointment(appointment("id-1", "Consultant1", DAY, LocalTime.of(10, 0), 60)));
+		assertEquals(BookingResult.CONFLICT,
+				repository.bookAppointment(appointment("id-2", "Consultant1", DAY, LocalTime.of(10, 30), 60)));
+		assertEquals(BookingResult.BOOKED,
+				repository.bookAppointment(appointment("id-2", "Consultant1", DAY, LocalTime.of(11, 0), 30)));
+		assertEquals(BookingResult.BOOKED,
+				repository.bookAppointment(appointment("id-3", "Consultant2", DAY, LocalTime.of(10, 0), 60)));
+
+		assertEquals(BookingResult.CONFLICT, repository.rescheduleAppointment("id-2", DAY, LocalTime.of(10, 45)));
+		assertEquals(BookingResult.CONFLICT, repository.rescheduleAppointment("id-1", DAY, LocalTime.of(10, 15)));
+		assertEquals(BookingResult.BOOKED,
+				repository.rescheduleAppointment("id-2", DAY.plusDays(1), LocalTime.of(9, 0)));
+		assertEquals(BookingResult.BOOKED, repository.rescheduleAppointment("id-1", DAY, LocalTime.of(10, 15)));
+		assertEquals(BookingResult.NOT_FOUND, repository.rescheduleAppointment("missing", DAY, LocalTime.of(9, 0)));
+
+		assertEquals(LocalTime.of(10, 15), repository.getAppointmentById("id-1").getTime());
+		assertEquals(2, repository.getAppointmentsByConsultantBetween("Consultant1", DAY, DAY.plusDays(1)).size());
+	}
+
+	// Test for concurrent bookings of the same slot, only one may succeed
+	@Test
+	public void testConcurrentBookingsOfOneSlot() throws Exception {
+		InMemoryAppointmentRepository repository = new InMemoryAppointmentRepository();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<BookingResult>> results = new ArrayList<>();
+		for (int i = 0; i < 32; i++) {
+			String id = "id-" + i;
+			results.add(executor.submit(() -> repository
+					.bookAppointment(appointment(id, "Consultant1", DAY, LocalTime.of(14, 0), 45))));
+		}
+		int booked = 0;
+		for (Future<BookingResult> result : results) {
+			if (result.get() == BookingResult.BOOKED) {
+				booked++;
+			}
+		}
+		executor.shutdown();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+
+		assertEquals(1, booked);
+		assertEquals(1, repository.getAllAppointments().size());
+	}
+
+	// Test for keyset pages across consultants covering every row once, in (date, time, id) order
+	@Test
+	public void testPagesAcrossConsultants() throws SQLException {
+		InMemoryAppointmentRepository repository = new InMemoryAppointmentRepository();
+		for (int i = 0; i < 25; i++) {
+			repository.saveAppointment(appointment(String.format("id-%02d", i), "Consultant" + (i % 3),
+					DAY.plusDays(i % 4), LocalTime.of(8 + i % 5, 0), 30));
+		}
+		repository.saveAppointment(appointment("outside", "Consultant0", DAY.plusDays(10), LocalTime.NOON, 30));
+
+		List<Appointment> seen = new ArrayList<>();
+		AppointmentPage.Cursor cursor = null;
+		do {
+			AppointmentPage page = repository.getAppointmentsBetween(DAY, DAY.plusDays(3), cursor, 4);
+			seen.addAll(page.getAppointments());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertEquals(25, seen.size());
+		for (int i = 1; i < seen.size(); i++) {
+			Appointment previous = seen.get(i - 1);
+			Appointment current = seen.get(i);
+			assertTrue(previous.getDate().isBefore(current.getDate()) || previous.getDate().equals(current.getDate())
+					&& !previous.getTime().isAfter(current.getTime()));
+		}
+
+		AppointmentPage first = repository.getAppointmentsByConsultantBetween("Consultant0", DAY, DAY.plusDays(3),
+				null, 5);
+		AppointmentPage second = repository.getAppointmentsByConsultantBetween("Consultant0", DAY, DAY.plusDays(3),
+				first.getNextCursor(), 5);
+		assertEquals(5, first.getAppointments().size());
+		assertEquals(4, second.getAppointments().size());
+		assertFalse(second.hasMore());
+	}
+
+	// Test for completing only ended SCHEDULED appointments, in bounded chunks
+	@Test
+	public void testCompletePastAppointments() throws SQLException {
+		InMemoryAppointmentRepository repository = new InMemoryAppointmentRepository();
+		repository.saveAppointment(appointment("past-1", "Consultant1", DAY, LocalTime.of(9, 0), 60));
+		repository.saveAppointment(appointment("past-2", "Consultant1", DAY, LocalTime.of(10, 0), 60));
+		repository.saveAppointment(appointment("running", "Consultant1", DAY, LocalTime.of(11, 30), 60));
+		repository.saveAppointment(appointment("canceled", "Consultant2", DAY, LocalTime.of(9, 0), 30));
+		repository.updateAppointmentStatus("canceled", AppointmentStatus.CANCELED);
+
+		LocalDateTime cutoff = DAY.atTime(12, 0);
+		assertEquals(1, repository.completePastAppointments(cutoff, 1));
+		assertEquals(1, repository.completePastAppointments(cutoff, 1));
+		assertEquals(0, repository.completePastAppointments(cutoff, 1));
+
+		assertEquals(AppointmentStatus.COMPLETED, repository.getAppointmentById("past-2").getStatus());
+		assertEquals(AppointmentStatus.SCHEDULED, repository.getAppointmentById("running").getStatus());
+		assertEquals(AppointmentStatus.CANCELED, repository.getAppointmentById("canceled").getStatus());
+	}
+
+	// Test for an appointment from the previous day that runs past midnight not counting as ended
+	@Test
+	public void testCompletePastAppointmentsOvernight() throws SQLException {
+		InMemoryAppointmentRepository repository = new InMemoryAppointmentRepository();
+		repository.saveAppointment(appointment("overnight", "Consultant1", DAY.minusDays(1), LocalTime.of(23, 0), 120));
+
+		assertEquals(0, repository.completePastAppointments(DAY.atTime(0, 30), 10));
+		assertEquals(AppointmentStatus.SCHEDULED, repository.getAppointmentById("overnight").getStatus());
+		assertEquals(1, repository.completePastAppointments(DAY.atTime(1, 0), 10));
+	}
+}
@@ -0,0 +1,63 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.AppointmentSchema;
+import appointment.Migration;
+import appointment.MigrationRunner;
+
+public class MigrationTest {
+
+	// Test for checksums ignoring formatting but catching edits to the SQL
+	@Test
+	public void testChecksum() {
+		Migration original = new Migration(1, "Index", "CREATE INDEX idx ON appointments (consultantName, date)");
+		Migration reformatted = new Migration(1, "Index",
+				"  CREATE INDEX idx\n\tON appointments (consultantName,   date)  ");
+		Migration edited = new Migration(1, "Index", "CREATE INDEX idx ON appointments (consultantName, time)");
+
+		assertEquals(original.getChecksum(), reformatted.getChecksum());
+		assertNotEquals(original.getChecksum(), edited.getChecksum());
+	}
+
+	// Test for migration lists that are not in strictly increasing version order being rejected
+	@Test
+	public void testOrderValidated() {
+		Migration first = new Migration(1, "First", "SELECT 1");
+		Migration second = new Migration(2, "Second", "SELECT 2");
+
+		assertThrows(IllegalArgumentException.class, () -> new MigrationRunner(null, List.of(second, first)));
+		assertThrows(IllegalArgumentException.class, () -> new MigrationRunner(null, List.of(first, first)));
+		assertThrows(IllegalArgumentException.class, () -> new Migration(0, "Zero", "SELECT 0"));
+		assertThrows(IllegalArgumentException.class, () -> new Migration(3, "Empty"));
+	}
+
+	// Test for the shipped schema being a valid, ordered migration list
+	@Test
+	public void testSchemaMigrationsOrdered() {
+		new MigrationRunner(null, AppointmentSchema.MIGRATIONS);
+		assertEquals(1, AppointmentSchema.MIGRATIONS.get(0).getVersion());
+	}
+
+	// Test for index migrations keeping the checksum of their plain CREATE INDEX statement
+	@Test
+	public void testCreateIndexChecksum() {
+		Migration index = Migration.createIndex(3, "Index", "appointments", "idx_appointments_consultant_day",
+				false, "consultantName", "date", "time", "duration", "status");
+		Migration plain = new Migration(3, "Index", "CREATE INDEX idx_appointments_consultant_day "
+				+ "ON appointments (consultantName, date, time, duration, status)");
+		Migration unique = Migration.createIndex(4, "Unique", "users", "ux_users_username", true, "username");
+
+		assertEquals(plain.getChecksum(), index.getChecksum());
+		assertEquals(List.of("CREATE UNIQUE INDEX ux_users_username ON users (username)"), unique.getStatements());
+		assertEquals(List.of("users", "ux_users_username", "username", 0), unique.getSatisfiedParameters());
+		assertNull(plain.getSatisfiedQuery());
+	}
+}
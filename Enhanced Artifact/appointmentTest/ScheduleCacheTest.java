@@ -0,0 +1,112 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.ScheduleCache;
+
+public class ScheduleCacheTest {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 10, 15);
+
+	private List<Appointment> database;
+	private int loads;
+
+	// Set up a list standing in for the database, counting every load
+	@BeforeEach
+	public void setUp() {
+		database = new ArrayList<>();
+		loads = 0;
+		database.add(appointment("a", DAY, LocalTime.of(11, 0)));
+		database.add(appointment("b", DAY, LocalTime.of(9, 0)));
+	}
+
+	private Appointment appointment(String id, LocalDate date, LocalTime time) {
+		return new Appointment(id, date, time, "Meeting room Office 2", "Bill Clientson", "John Doe",
+				"Database Enhancements Consultation", 60, ConsultationType.IN_PERSON, AppointmentStatus.SCHEDULED);
+	}
+
+	private List<Appointment> load(String consultantName, LocalDate date) {
+		loads++;
+		List<Appointment> day = new ArrayList<>();
+		for (Appointment appointment : database) {
+			if (appointment.getConsultantName().equals(consultantName) && appointment.getDate().equals(date)) {
+				day.add(appointment);
+			}
+		}
+		return day;
+	}
+
+	// Test for repeated reads of a day being served from the cache, sorted by time
+	@Test
+	public void testReadThroughSorted() throws SQLException {
+		ScheduleCache cache = new ScheduleCache(100, Duration.ofMinutes(5));
+
+		cache.get("John Doe", DAY, this::load);
+		List<Appointment> day = cache.get("John Doe", DAY, this::load);
+
+		assertEquals(1, loads, "Second read should not reach the loader.");
+		assertEquals("b", day.get(0).getId(), "Day should be sorted by start time.");
+		assertEquals(0.5, cache.getHitRatio(), 0.0001);
+	}
+
+	// Test for writes being applied to a cached day without reloading it
+	@Test
+	public void testIncrementalWrites() throws SQLException {
+		ScheduleCache cache = new ScheduleCache(100, Duration.ofMinutes(5));
+		cache.get("John Doe", DAY, this::load);
+
+		cache.add(appointment("c", DAY, LocalTime.of(10, 0)));
+		cache.remove("a");
+		List<Appointment> day = cache.get("John Doe", DAY, this::load);
+
+		assertEquals(1, loads);
+		assertEquals(2, day.size());
+		assertEquals("b", day.get(0).getId());
+		assertEquals("c", day.get(1).getId(), "Added appointment should be placed in time order.");
+	}
+
+	// Test for a reschedule moving an appointment between cached days
+	@Test
+	public void testMoveBetweenDays() throws SQLException {
+		ScheduleCache cache = new ScheduleCache(100, Duration.ofMinutes(5));
+		LocalDate nextDay = DAY.plusDays(1);
+		cache.get("John Doe", DAY, this::load);
+		cache.get("John Doe", nextDay, this::load);
+
+		assertTrue(cache.move("a", nextDay, LocalTime.of(8, 0)));
+		assertFalse(cache.move("unknown", nextDay, LocalTime.of(8, 0)), "Uncached ids cannot be moved.");
+
+		assertEquals(1, cache.get("John Doe", DAY, this::load).size());
+		assertEquals("a", cache.get("John Doe", nextDay, this::load).get(0).getId());
+		assertEquals(2, loads);
+	}
+
+	// Test for the appointment cap evicting least recently used days
+	@Test
+	public void testCapacityEviction() throws SQLException {
+		ScheduleCache cache = new ScheduleCache(2, Duration.ofMinutes(5));
+		database.add(appointment("d", DAY.plusDays(1), LocalTime.of(9, 0)));
+
+		cache.get("John Doe", DAY, this::load);
+		cache.get("John Doe", DAY.plusDays(1), this::load);
+
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(1, cache.getDayCount());
+		assertEquals(1, cache.getAppointmentCount());
+	}
+}
@@ -0,0 +1,154 @@
+package appointmentTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import appointment.Appointment;
+import appointment.Appointment.AppointmentStatus;
+import appointment.Appointment.ConsultationType;
+import appointment.AppointmentService;
+import appointment.AppointmentValidator;
+import appointment.ChangeEvent;
+import appointment.ChangeEvent.ChangeType;
+import appointment.ChangeLog;
+import appointment.ChangeLogReader;
+import appointment.InMemoryAppointmentRepository;
+import appointment.ScheduleCache;
+import appointment.StatusWriteBehindQueue;
+import security.User;
+import security.User.UserRole;
+
+public class StatusWriteBehindQueueTest {
+
+	// Repository stand-in recording every batch it is asked to write
+	private static class RecordingRepository extends InMemoryAppointmentRepository {
+		private final List<Map<String, AppointmentStatus>> statusBatches = new ArrayList<>();
+		private final List<Map<String, Integer>> durationBatches = new ArrayList<>();
+
+		@Override
+		public synchronized void updateStatusesAndDurations(Map<String, AppointmentStatus> statuses,
+				Map<String, Integer> durations) throws SQLException {
+			statusBatches.add(new LinkedHashMap<>(statuses));
+			durationBatches.add(new LinkedHashMap<>(durations));
+		}
+	}
+
+	// Test for repeated changes to one appointment being coalesced into the latest value
+	@Test
+	public void testCoalescesAndFlushesOnClose() throws Exception {
+		RecordingRepository repository = new RecordingRepository();
+		StatusWriteBehindQueue queue = new StatusWriteBehindQueue(repository, 100, Duration.ofHours(1));
+
+		CompletableFuture<Void> first = queue.updateStatus("id-1", AppointmentStatus.CANCELED);
+		CompletableFuture<Void> second = queue.updateStatus("id-1", AppointmentStatus.COMPLETED);
+		CompletableFuture<Void> duration = queue.updateDuration("id-1", 90);
+		assertFalse(first.isDone(), "Nothing should be written before a flush.");
+
+		queue.close();
+
+		assertTrue(first.isDone() && second.isDone() && duration.isDone(), "Close should flush pending changes.");
+		assertEquals(1, repository.statusBatches.size());
+		assertEquals(AppointmentStatus.COMPLETED, repository.statusBatches.get(0).get("id-1"));
+		assertEquals(Integer.valueOf(90), repository.durationBatches.get(0).get("id-1"));
+	}
+
+	// Test for reaching the batch size triggering a flush
+	@Test
+	public void testFlushOnBatchSize() throws Exception {
+		RecordingRepository repository = new RecordingRepository();
+		try (StatusWriteBehindQueue queue = new StatusWriteBehindQueue(repository, 3, Duration.ofHours(1))) {
+			List<CompletableFuture<Void>> futures = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				futures.add(queue.updateStatus("id-" + i, AppointmentStatus.COMPLETED));
+			}
+
+			for (CompletableFuture<Void> future : futures) {
+				future.get(5, TimeUnit.SECONDS);
+			}
+			assertEquals(3, repository.statusBatches.get(0).size(), "All three changes should share one batch.");
+		}
+	}
+
+	// Test for the time trigger flushing a partial batch
+	@Test
+	public void testFlushOnInterval() throws Exception {
+		RecordingRepository repository = new RecordingRepository();
+		try (StatusWriteBehindQueue queue = new StatusWriteBehindQueue(repository, 100, Duration.ofMillis(20))) {
+			queue.updateStatus("id-1", AppointmentStatus.COMPLETED).get(5, TimeUnit.SECONDS);
+
+			assertEquals(0, queue.getPendingCount());
+		}
+	}
+
+	// Test for the listener hearing of a batch once it is committed, before the waiters complete
+	@Test
+	public void testListenerHearsCommittedBatch() throws Exception {
+		RecordingRepository repository = new RecordingRepository();
+		List<Map<String, Integer>> heard = new ArrayList<>();
+		try (StatusWriteBehindQueue queue = new StatusWriteBehindQueue(repository, 2, Duration.ofHours(1),
+				(statuses, durations) -> heard.add(new LinkedHashMap<>(durations)))) {
+			CompletableFuture<Void> status = queue.updateStatus("id-1", AppointmentStatus.CANCELED);
+			queue.updateDuration("id-2", 90).get(5, TimeUnit.SECONDS);
+			status.get(5, TimeUnit.SECONDS);
+
+			assertEquals(1, heard.size(), "The listener should run before the futures complete.");
+			assertEquals(Map.of("id-2", 90), heard.get(0));
+		}
+	}
+
+	// Test for a service listener refreshing the schedule cache and publishing the flushed changes
+	@Test
+	public void testServiceListenerRefreshesCacheAndChangeLog() throws Exception {
+		LocalDate day = LocalDate.of(2030, 7, 1);
+		InMemoryAppointmentRepository repository = new InMemoryAppointmentRepository();
+		for (String id : List.of("a", "b")) {
+			repository.saveAppointment(new Appointment(id, day, LocalTime.of(id.equals("a") ? 9 : 11, 0), "Office 1",
+					"Client1", "Consultant1", null, 30, ConsultationType.PHONE, AppointmentStatus.SCHEDULED));
+		}
+		ScheduleCache cache = new ScheduleCache(100, Duration.ofMinutes(5));
+		cache.get("Consultant1", day, repository::getAppointmentsByConsultantAndDate);
+		Path directory = Files.createTempDirectory("writebehind");
+
+		try (ChangeLog log = new ChangeLog(directory, 4096, false)) {
+			AppointmentService service = new AppointmentService(repository, new AppointmentValidator(),
+					new User("u1", "consultant", "hash", UserRole.CONSULTANT), cache, log);
+			try (StatusWriteBehindQueue queue = new StatusWriteBehindQueue(repository, 100, Duration.ofHours(1),
+					service::statusesAndDurationsWritten)) {
+				queue.updateDuration("a", 90);
+				queue.updateStatus("b", AppointmentStatus.CANCELED);
+			}
+
+			assertEquals(90, cache.find("a").getDuration());
+			assertEquals(AppointmentStatus.CANCELED, cache.find("b").getStatus());
+			assertEquals(1, cache.getMissCount(), "The cached day should be updated, not reloaded.");
+		}
+
+		List<ChangeEvent> events = new ArrayList<>();
+		try (ChangeLogReader reader = new ChangeLogReader(directory, 0)) {
+			reader.poll(10, events::add);
+		}
+		assertEquals(2, events.size());
+		assertEquals(ChangeType.UPDATED, events.get(0).getType());
+		assertEquals(90, events.get(0).getAppointment().getDuration());
+		assertEquals(ChangeType.STATUS_CHANGED, events.get(1).getType());
+		assertEquals(AppointmentStatus.CANCELED, events.get(1).getNewStatus());
+		assertNull(events.get(1).getAppointment());
+	}
+}
@@ -5,20 +5,62 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import javax.sql.DataSource;
+
 import security.User.UserRole;
 
 public class UserRepository {
-	private final Connection connection;
+	private final Connection connection; // Shared connection, null when pooled
+	private final DataSource dataSource; // Pool borrowed from per operation, null when shared
 
-	// Constructor
+	// Constructor with a single shared connection owned by the caller
 	public UserRepository(Connection connection) {
 		this.connection = connection;
+		this.dataSource = null;
+	}
+
+	// Constructor with a pool, each operation borrows a connection and returns it when done
+	public UserRepository(DataSource dataSource) {
+		this.connection = null;
+		this.dataSource = dataSource;
+	}
+
+	// Connection held for one operation
+	// Closing a lease returns a pooled connection and leaves a shared connection open
+	private static class ConnectionLease implements AutoCloseable {
+		private final Connection connection;
+		private final boolean pooled;
+
+		ConnectionLease(Connection connection, boolean pooled) {
+			this.connection = connection;
+			this.pooled = pooled;
+		}
+
+		Connection connection() {
+			return connection;
+		}
+
+		@Override
+		public void close() throws SQLException {
+			if (pooled) {
+				connection.close();
+			}
+		}
 	}
-	
+
+	// Borrow a connection, waits at most the pool's connection timeout
+	private ConnectionLease lease() throws SQLException {
+		if (dataSource != null) {
+			return new ConnectionLease(dataSource.getConnection(), true);
+		}
+		return new ConnectionLease(connection, false);
+	}
+
 	// Get user from database
 	public User getUserByUsername(String username) throws SQLException {
 		String query = "SELECT * FROM users WHERE username = ?";
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
 			stmt.setString(1, username);
 			ResultSet rs = stmt.executeQuery();
 			if (rs.next()) {
@@ -31,7 +73,8 @@ public class UserRepository {
 	// Save user to database
 	public void saveUser(User user) throws SQLException {
 		String query = "INSERT INTO users (id, username, passwordHash, role) VALUES (?, ?, ?, ?)";
-		try (PreparedStatement stmt = connection.prepareStatement(query)) {
+		try (ConnectionLease lease = lease();
+				PreparedStatement stmt = lease.connection().prepareStatement(query)) {
 			stmt.setString(1, user.getId());
 			stmt.setString(2, user.getUsername());
 			stmt.setString(3, user.getPasswordHash());